@@ -3,7 +3,7 @@ package com.libgdxlearning;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputMultiplexer;
-import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
@@ -14,19 +14,44 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.libgdxlearning.assets.Assets;
 import com.libgdxlearning.input.WorldInput;
 import com.libgdxlearning.render.WorldView;
 import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.save.Autosaver;
+import com.libgdxlearning.save.SaveFile;
+import com.libgdxlearning.sim.SimEvents;
 import com.libgdxlearning.world.Grid;
 
-public class AlivePackScreen implements Screen {
+import java.io.IOException;
 
-    private SimState sim;
+public class AlivePackScreen implements CachedScreen {
 
+    /** Save file, relative to the local storage root (the working directory on desktop). */
+    public static final String SAVE_FILE = "alivepack.sav";
+    /** Seconds between autosaves while the screen is shown; hiding or closing also saves. */
+    private static final float AUTOSAVE_INTERVAL = 30f;
+
+    private final MainGame game;
+    private final Assets assets;
+    private boolean skinAcquired;
+
+    // Model: created once, kept while the screen is hidden or its graphics are evicted
+    private final SimState sim;
+    private final Grid grid;
+    private final RoomPlacementSystem placer;
+    private final SaveFile save;
+    private final Autosaver autosaver;
+    private float autosaveTimer;
+
+    // Graphics: built on first show(), freed by evictGraphics()
     private Stage stage;
     private Skin skin;
     private ToastManager toast;
+    private InputMultiplexer input;
+    private boolean greeted;
 
     // World
     private WorldView worldView;
@@ -35,7 +60,12 @@ public class AlivePackScreen implements Screen {
     private Table root;
     private Label cashLabel, repLabel, chaosLabel, moraleLabel, timeLabel;
     private Container<Label> cashBox, repBox, chaosBox, moraleBox;
-    private int lastCash, lastRep, lastChaos, lastMorale;
+
+    // HUD text is rebuilt in place only when the shown value changes (no per-frame garbage).
+    private final HudText hudText = new HudText();
+
+    private static final Color FLASH_COLOR = new Color(1f, 0.9f, 0.3f, 1f);
+    private static final Color REST_COLOR  = new Color(1f, 1f, 1f, 1f);
 
     // Buttons
     private TextButton pauseBtn;
@@ -47,25 +77,82 @@ public class AlivePackScreen implements Screen {
     private final float drawerWidth = 320f;
     private final float drawerAnimTime = 0.25f;
 
+    public AlivePackScreen(MainGame game, Assets assets) {
+        this.game   = game;
+        this.assets = assets;
+        requestAssets(); // cached across screen switches; no re-parse on return
+
+        sim = new SimState();
+
+        // World model + placement system, restored from the last save if there is one
+        save      = new SaveFile(Gdx.files.local(SAVE_FILE).file());
+        placer    = loadOrCreate();
+        grid      = placer.getGrid();
+        autosaver = new Autosaver(save);
+
+        // Stat labels react to sim events instead of polling the values every frame.
+        // The listener reads the label fields at drain time, so it survives a UI rebuild.
+        SimEvents.Listener hud = (stat, oldValue, newValue) -> {
+            switch (stat) {
+                case SimEvents.CASH:       setStat(cashLabel,   "Cash: £", newValue); popAndFlash(cashBox);   break;
+                case SimEvents.REPUTATION: setStat(repLabel,    "Rep: ",    newValue); popAndFlash(repBox);    break;
+                case SimEvents.CHAOS:      setStat(chaosLabel,  "Chaos: ",  newValue); popAndFlash(chaosBox);  break;
+                case SimEvents.MORALE:     setStat(moraleLabel, "Morale: ", newValue); popAndFlash(moraleBox); break;
+            }
+        };
+        sim.events.subscribe(SimEvents.CASH, hud);
+        sim.events.subscribe(SimEvents.REPUTATION, hud);
+        sim.events.subscribe(SimEvents.CHAOS, hud);
+        sim.events.subscribe(SimEvents.MORALE, hud);
+    }
+
+    private RoomPlacementSystem loadOrCreate() {
+        if (save.exists()) {
+            try {
+                return save.load(sim);
+            } catch (IOException | GdxRuntimeException e) {
+                Gdx.app.error("AlivePackScreen", "Couldn't load " + save.getFile() + ", starting fresh", e);
+            }
+        }
+        return new RoomPlacementSystem(new Grid(80, 60));
+    }
+
+    /**
+     * Snapshots what changed since the last save and writes it on the autosave thread; only the
+     * snapshot costs render time. A failed write is logged there and the next save starts over.
+     */
+    private void autosave() {
+        if (!autosaver.save(grid, placer.getRooms(), sim)) return; // previous write still running
+        Gdx.app.log("AlivePackScreen", String.format("Autosave: %d chunks, %.3f ms render-thread pause (max %.3f ms)",
+                autosaver.getLastChunks(), autosaver.getLastPauseNanos() / 1e6, autosaver.getMaxPauseNanos() / 1e6));
+    }
+
+    @Override
+    public void requestAssets() {
+        if (skinAcquired) return;
+        assets.acquire(Assets.SKIN);
+        skinAcquired = true;
+    }
+
     @Override
     public void show() {
-        sim = new SimState();
+        if (stage == null) buildUi();
+        Gdx.input.setInputProcessor(input);
+    }
 
+    private void buildUi() {
+        requestAssets();
         stage = new Stage(new ScreenViewport());
 
-        // World model + placement system
-        Grid grid = new Grid(80, 60);
-        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
         worldView = new WorldView(grid, placer);
         worldView.setTouchable(Touchable.disabled); // prevent Stage hit-testing from intercepting world-area clicks (handled by WorldInput)
 
         // InputMultiplexer: UI stage first (buttons take priority), then world input
-        InputMultiplexer multiplexer = new InputMultiplexer();
-        multiplexer.addProcessor(stage);
-        multiplexer.addProcessor(new WorldInput(worldView, placer));
-        Gdx.input.setInputProcessor(multiplexer);
+        input = new InputMultiplexer();
+        input.addProcessor(stage);
+        input.addProcessor(new WorldInput(worldView, placer));
 
-        skin = new Skin(Gdx.files.internal("assets/uiskin.json"));
+        skin = assets.get(Assets.SKIN);
         toast = new ToastManager(stage.getRoot(), skin);
 
         root = new Table(skin);
@@ -98,10 +185,10 @@ public class AlivePackScreen implements Screen {
         topHud.add(chaosBox).padLeft(12);
         topHud.add(moraleBox).padLeft(12);
 
-        lastCash   = sim.cash;
-        lastRep    = sim.reputation;
-        lastChaos  = sim.chaos;
-        lastMorale = sim.morale;
+        setStat(cashLabel,   "Cash: £", sim.cash);
+        setStat(repLabel,    "Rep: ",    sim.reputation);
+        setStat(chaosLabel,  "Chaos: ",  sim.chaos);
+        setStat(moraleLabel, "Morale: ", sim.morale);
 
         // Bottom controls
         pauseBtn  = new TextButton("Pause",  skin);
@@ -191,7 +278,12 @@ public class AlivePackScreen implements Screen {
 
         buildDrawers();
 
-        toast.show("Welcome to libGDX!");
+        // Fresh labels: force the time label to be rebuilt on the next frame.
+        hudText.invalidateTime();
+        leftOpen = rightOpen = false;
+
+        if (!greeted) toast.show("Welcome to libGDX!");
+        greeted = true;
     }
 
     private void buildDrawers() {
@@ -263,8 +355,8 @@ public class AlivePackScreen implements Screen {
                         Actions.scaleTo(1.0f, 1.0f, 0.12f)
                 ),
                 Actions.sequence(
-                        Actions.color(new com.badlogic.gdx.graphics.Color(1f, 0.9f, 0.3f, 1f), 0.06f),
-                        Actions.color(new com.badlogic.gdx.graphics.Color(1f, 1f, 1f, 1f), 0.14f)
+                        Actions.color(FLASH_COLOR, 0.06f),
+                        Actions.color(REST_COLOR, 0.14f)
                 )
         ));
     }
@@ -273,6 +365,12 @@ public class AlivePackScreen implements Screen {
     public void render(float delta) {
         sim.update(delta);
 
+        autosaveTimer += delta;
+        if (autosaveTimer >= AUTOSAVE_INTERVAL) {
+            autosaveTimer = 0f;
+            autosave();
+        }
+
         // Keyboard shortcuts
         if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
             sim.paused = !sim.paused;
@@ -281,21 +379,21 @@ public class AlivePackScreen implements Screen {
         if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)) { sim.speedMultiplier = 1f; sim.paused = false; }
         if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_2)) { sim.speedMultiplier = 2f; sim.paused = false; }
         if (Gdx.input.isKeyJustPressed(Input.Keys.NUM_3)) { sim.speedMultiplier = 4f; sim.paused = false; }
+        boolean ctrl = Gdx.input.isKeyPressed(Input.Keys.CONTROL_LEFT) || Gdx.input.isKeyPressed(Input.Keys.CONTROL_RIGHT);
+        if (ctrl && Gdx.input.isKeyJustPressed(Input.Keys.Z)) {
+            toast.show(placer.undo() ? "Undo" : "Nothing to undo");
+        }
+        if (ctrl && Gdx.input.isKeyJustPressed(Input.Keys.Y)) {
+            toast.show(placer.redo() ? "Redo" : "Nothing to redo");
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.M)) {
+            game.showScreen(MainGame.ScreenId.TILED_WORLD);
+            return;
+        }
 
         // Update HUD
-        timeLabel.setText(String.format("Day %d  %02d:%02d  |  %s  x%.0f",
-                sim.day, sim.getHour(), sim.getMinute(),
-                sim.paused ? "PAUSED" : "RUNNING",
-                sim.speedMultiplier));
-        cashLabel.setText("Cash: £" + sim.cash);
-        repLabel.setText("Rep: " + sim.reputation);
-        chaosLabel.setText("Chaos: " + sim.chaos);
-        moraleLabel.setText("Morale: " + sim.morale);
-
-        if (sim.cash != lastCash)          { popAndFlash(cashBox);   lastCash   = sim.cash; }
-        if (sim.reputation != lastRep)     { popAndFlash(repBox);    lastRep    = sim.reputation; }
-        if (sim.chaos != lastChaos)        { popAndFlash(chaosBox);  lastChaos  = sim.chaos; }
-        if (sim.morale != lastMorale)      { popAndFlash(moraleBox); lastMorale = sim.morale; }
+        updateTimeLabel();
+        sim.events.drain(); // stat labels update via the HUD listener
 
         Gdx.gl.glClearColor(0.12f, 0.12f, 0.16f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
@@ -304,6 +402,15 @@ public class AlivePackScreen implements Screen {
         stage.draw();
     }
 
+    /** Sets "Day %d  %02d:%02d  |  %s  x%d", only when one of its fields changed. */
+    private void updateTimeLabel() {
+        if (hudText.updateTime(sim)) timeLabel.setText(hudText.time());
+    }
+
+    private void setStat(Label label, String prefix, int value) {
+        label.setText(hudText.stat(prefix, value));
+    }
+
     @Override
     public void resize(int width, int height) {
         stage.getViewport().update(width, height, true);
@@ -320,12 +427,36 @@ public class AlivePackScreen implements Screen {
 
     @Override public void pause()  {}
     @Override public void resume() {}
-    @Override public void hide()   {}
+    @Override
+    public void hide() {
+        // Stays warm; the sim is frozen until shown again.
+        if (Gdx.input.getInputProcessor() == input) Gdx.input.setInputProcessor(null);
+        autosave();
+    }
 
     @Override
-    public void dispose() {
-        if (stage != null)     stage.dispose();
-        if (skin  != null)     skin.dispose();
+    public boolean holdsGraphics() {
+        return stage != null || skinAcquired;
+    }
+
+    @Override
+    public void evictGraphics() {
+        if (stage     != null) stage.dispose();
         if (worldView != null) worldView.dispose();
+        stage     = null;
+        worldView = null;
+        toast     = null;
+        input     = null;
+        skin      = null;
+        if (skinAcquired) assets.release(Assets.SKIN);
+        skinAcquired = false;
+    }
+
+    @Override
+    public void dispose() {
+        autosaver.flush(); // so the final save is not skipped
+        autosave();
+        autosaver.dispose(); // waits for it
+        evictGraphics();
     }
 }
@@ -0,0 +1,27 @@
+package com.libgdxlearning;
+
+import com.badlogic.gdx.Screen;
+
+/**
+ * A screen that {@link MainGame} creates once and keeps across switches.
+ *
+ * <ul>
+ *   <li>{@code show()} attaches the screen (input processor), rebuilding GPU resources only if
+ *       they were evicted;</li>
+ *   <li>{@code hide()} detaches it and keeps everything, so switching back is cheap;</li>
+ *   <li>{@link #evictGraphics()} (only while hidden) frees GPU resources and asset references
+ *       but keeps model state such as the simulation, grid or player position;</li>
+ *   <li>{@code dispose()} frees everything, at shutdown.</li>
+ * </ul>
+ */
+public interface CachedScreen extends Screen {
+
+    /** Queues the assets this screen needs (no-op if it still holds them). Called before show(). */
+    void requestAssets();
+
+    /** Frees GPU resources and releases assets while hidden; the next show() rebuilds them. */
+    void evictGraphics();
+
+    /** True if evictGraphics() would free anything: GPU resources built or assets still held. */
+    boolean holdsGraphics();
+}
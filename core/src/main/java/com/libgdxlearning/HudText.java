@@ -0,0 +1,53 @@
+package com.libgdxlearning;
+
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * The HUD's text, apart from the widgets that show it: the time line
+ * "Day %d  %02d:%02d  |  %s  x%d" and the stat lines ("Cash: £500"). Both are rebuilt in place
+ * into reused builders, so formatting allocates nothing, and the time line only when one of its
+ * fields changed. Needs no GL context, so it can be checked headless (see HudTextCheck).
+ */
+public class HudText {
+
+    private final StringBuilder time = new StringBuilder(48);
+    private final StringBuilder stat = new StringBuilder(24);
+    private int shownDay = -1, shownMinuteOfDay = -1, shownSpeed = -1;
+    private boolean shownPaused;
+
+    /** Rebuilds the time line if the day, minute, speed or pause state changed; returns true if it did. */
+    public boolean updateTime(SimState sim) {
+        int minuteOfDay = (int) sim.minutes;
+        int speed = Math.round(sim.speedMultiplier);
+        if (sim.day == shownDay && minuteOfDay == shownMinuteOfDay
+                && speed == shownSpeed && sim.paused == shownPaused) return false;
+        shownDay = sim.day;
+        shownMinuteOfDay = minuteOfDay;
+        shownSpeed = speed;
+        shownPaused = sim.paused;
+
+        time.setLength(0);
+        time.append("Day ").append(sim.day).append("  ")
+            .append(sim.getHour(), 2).append(':').append(sim.getMinute(), 2)
+            .append("  |  ").append(sim.paused ? "PAUSED" : "RUNNING")
+            .append("  x").append(speed);
+        return true;
+    }
+
+    /** Makes the next updateTime() rebuild the line, e.g. for freshly created labels. */
+    public void invalidateTime() {
+        shownDay = -1;
+    }
+
+    /** The time line as of the last updateTime(). */
+    public StringBuilder time() {
+        return time;
+    }
+
+    /** Formats {@code prefix + value} and returns it; the builder is reused by the next call. */
+    public StringBuilder stat(String prefix, int value) {
+        stat.setLength(0);
+        stat.append(prefix).append(value);
+        return stat;
+    }
+}
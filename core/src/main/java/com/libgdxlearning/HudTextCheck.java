@@ -0,0 +1,83 @@
+package com.libgdxlearning;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Headless check that the HUD text costs no garbage, measured with the thread's allocation
+ * counter rather than inferred from GC logs.
+ *
+ * - N frames where nothing shown changed: updateTime() must allocate 0 bytes.
+ * - N frames where the clock moves every frame and every stat changes: still 0 bytes, since the
+ *   lines are rebuilt into the same builders.
+ * - The text matches String.format("Day %d  %02d:%02d  |  %s  x%d") and "Cash: £%d" over a
+ *   sample of days, times, speeds and pause states.
+ *
+ * Usage: {@code ./gradlew core:runHudTextCheck}
+ */
+public class HudTextCheck {
+
+    private static final int FRAMES = 1_000_000;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        SimState sim = new SimState();
+        HudText hud = new HudText();
+
+        for (int warm = 0; warm < 3; warm++) { // warm-up, so class loading and compilation are not counted
+            unchanged(sim, hud);
+            changing(sim, hud);
+        }
+
+        long a0 = threads.getThreadAllocatedBytes(id);
+        unchanged(sim, hud);
+        long a1 = threads.getThreadAllocatedBytes(id);
+        changing(sim, hud);
+        long a2 = threads.getThreadAllocatedBytes(id);
+        long idle = a1 - a0, busy = a2 - a1;
+
+        int mismatches = 0, samples = 0;
+        for (int day = 1; day <= 400; day += 37) {
+            for (int minute = 0; minute < 1440; minute += 7) {
+                sim.day = day;
+                sim.minutes = minute;
+                sim.paused = minute % 2 == 0;
+                sim.speedMultiplier = 1 << (minute % 3);
+                hud.updateTime(sim);
+                String expected = String.format("Day %d  %02d:%02d  |  %s  x%d", day, minute / 60, minute % 60,
+                        sim.paused ? "PAUSED" : "RUNNING", 1 << (minute % 3));
+                if (!expected.equals(hud.time().toString())) mismatches++;
+                int value = (day - 200) * minute;
+                if (!("Cash: £" + value).equals(hud.stat("Cash: £", value).toString())) mismatches++;
+                samples++;
+            }
+        }
+
+        System.out.printf("%d unchanged frames: %d bytes allocated; %d frames with the clock and all stats changing: "
+                + "%d bytes; %d sampled lines, %d mismatches%n",
+                FRAMES, idle, FRAMES, busy, samples, mismatches);
+        if (idle != 0 || busy != 0 || mismatches != 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /** What render() does on a frame where no field of the time line moved. */
+    private static void unchanged(SimState sim, HudText hud) {
+        hud.updateTime(sim);
+        for (int f = 0; f < FRAMES; f++) hud.updateTime(sim);
+    }
+
+    /** A frame per game minute, each also reformatting all four stat lines. */
+    private static void changing(SimState sim, HudText hud) {
+        for (int f = 0; f < FRAMES; f++) {
+            sim.minutes = f % 1440;
+            sim.day = 1 + f / 1440;
+            hud.updateTime(sim);
+            hud.stat("Cash: £", 500 + f);
+            hud.stat("Rep: ", f % 100);
+            hud.stat("Chaos: ", f % 37);
+            hud.stat("Morale: ", -f);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.libgdxlearning;
+
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.libgdxlearning.assets.Assets;
+
+/**
+ * Streams whatever the next screen acquired while drawing a progress bar, then switches to it.
+ * Each frame gives the loader a small time budget so the window stays responsive while
+ * textures are decoded in the background and uploaded one per step.
+ * Uses only ShapeRenderer, since the UI skin may be one of the assets being loaded.
+ */
+public class LoadingScreen implements Screen {
+
+    /** Milliseconds of loading work per frame. */
+    private static final int FRAME_BUDGET_MS = 8;
+
+    private static final float BAR_W = 320f;
+    private static final float BAR_H = 12f;
+
+    private final Game game;
+    private final Assets assets;
+    private final Screen next;
+
+    private ScreenViewport viewport;
+    private ShapeRenderer  shapes;
+    private long startNanos;
+
+    public LoadingScreen(Game game, Assets assets, Screen next) {
+        this.game   = game;
+        this.assets = assets;
+        this.next   = next;
+    }
+
+    @Override
+    public void show() {
+        viewport   = new ScreenViewport();
+        shapes     = new ShapeRenderer();
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void render(float delta) {
+        if (assets.update(FRAME_BUDGET_MS)) {
+            Gdx.app.log("Assets", "ready in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms"
+                + " (hits " + assets.getHits() + ", misses " + assets.getMisses()
+                + ", resident " + assets.getLoadedCount() + ")");
+            game.setScreen(next);
+            return;
+        }
+
+        Gdx.gl.glClearColor(0.1f, 0.1f, 0.1f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        viewport.apply(true);
+        shapes.setProjectionMatrix(viewport.getCamera().combined);
+        float x = (viewport.getWorldWidth()  - BAR_W) / 2f;
+        float y = (viewport.getWorldHeight() - BAR_H) / 2f;
+
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0.25f, 0.25f, 0.25f, 1f);
+        shapes.rect(x, y, BAR_W, BAR_H);
+        shapes.setColor(0.2f, 0.6f, 1f, 1f);
+        shapes.rect(x, y, BAR_W * assets.getProgress(), BAR_H);
+        shapes.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    @Override public void pause()  {}
+    @Override public void resume() {}
+
+    @Override
+    public void hide() {
+        dispose(); // one-shot: a new LoadingScreen is created for every transition
+    }
+
+    @Override
+    public void dispose() {
+        if (shapes != null) shapes.dispose();
+        shapes = null;
+    }
+}
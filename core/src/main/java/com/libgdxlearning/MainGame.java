@@ -1,17 +1,113 @@
 package com.libgdxlearning;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.libgdxlearning.assets.Assets;
 
-public class MainGame extends Game {
+/**
+ * Owns the shared asset cache and a registry of long-lived screens.
+ *
+ * Each {@link ScreenId} maps to one {@link CachedScreen}, created on first use and reused on
+ * every later switch, so the simulation, grid and player position survive going back and forth
+ * and nothing is rebuilt. When the heap gets close to its limit, hidden screens are asked to
+ * free their GPU resources (model state stays) and unreferenced assets are unloaded, once
+ * per excursion: it re-arms only after the heap drops back below 60%.
+ *
+ * The switching itself lives in {@link ScreenRegistry}, so it can be measured headless:
+ * {@code ./gradlew core:runScreenSwitchCheck}.
+ */
+public class MainGame extends Game implements ScreenRegistry.Host {
+
+    public enum ScreenId { ALIVE_PACK, TILED_WORLD }
+
+    /** Fraction of the max heap above which hidden screens are evicted. */
+    private static final float EVICT_HEAP_FRACTION = 0.8f;
+    /** Fraction of the max heap the heap must drop below before evicting again (hysteresis). */
+    private static final float REARM_HEAP_FRACTION = 0.6f;
+    /** Seconds between heap checks. */
+    private static final float HEAP_CHECK_INTERVAL = 1f;
+
+    /** Asset cache shared by all screens. */
+    private Assets assets;
+
+    private final ScreenRegistry screens = new ScreenRegistry(this);
+    private float heapCheckTimer;
+    private boolean trimArmed = true;
 
     @Override
     public void create() {
-        setScreen(new TiledWorldScreen(this));
+        assets = new Assets();
+        showScreen(ScreenId.TILED_WORLD);
+    }
+
+    /**
+     * Switches to the screen registered under {@code id}, creating it on first use. If the
+     * screen has assets still to load (first visit, or after eviction) a LoadingScreen streams
+     * them in first; otherwise the switch is immediate.
+     */
+    public void showScreen(ScreenId id) {
+        screens.show(id);
+    }
+
+    @Override
+    public CachedScreen createScreen(ScreenId id) {
+        switch (id) {
+            case ALIVE_PACK:  return new AlivePackScreen(this, assets);
+            case TILED_WORLD: return new TiledWorldScreen(this, assets);
+        }
+        throw new IllegalArgumentException("Unknown screen " + id);
+    }
+
+    @Override
+    public boolean assetsReady() {
+        return assets.isFinished();
+    }
+
+    @Override
+    public Screen loadingScreen(CachedScreen target) {
+        return new LoadingScreen(this, assets, target);
+    }
+
+    /** Duration of the last showScreen() call (hide + show + resize), in nanoseconds. */
+    public long getLastTransitionNanos() {
+        return screens.getLastTransitionNanos();
+    }
+
+    @Override
+    public void render() {
+        super.render();
+
+        heapCheckTimer += Gdx.graphics.getDeltaTime();
+        if (heapCheckTimer >= HEAP_CHECK_INTERVAL) {
+            heapCheckTimer = 0f;
+            Runtime rt = Runtime.getRuntime();
+            long used = rt.totalMemory() - rt.freeMemory();
+            if (trimArmed && used > rt.maxMemory() * EVICT_HEAP_FRACTION) {
+                trimMemory();
+                trimArmed = false; // model state stays, so the heap may stay high; don't trim every second
+            } else if (used < rt.maxMemory() * REARM_HEAP_FRACTION) {
+                trimArmed = true;
+            }
+        }
+    }
+
+    /**
+     * Frees GPU resources of every hidden screen not already evicted (keeping their model state)
+     * and unloads assets nobody references any more. Logs only when something was freed.
+     */
+    public void trimMemory() {
+        int evicted = screens.evictHidden();
+        int unloaded = assets.evictUnused();
+        if (evicted == 0 && unloaded == 0) return;
+        Gdx.app.log("MainGame", "trimMemory: evicted " + evicted + " screens, unloaded " + unloaded + " assets");
     }
 
     @Override
     public void dispose() {
-        // Game.dispose() will dispose the current screen too
+        // Game.dispose() only hides the current screen; the cached ones are disposed here.
         super.dispose();
+        screens.disposeAll();
+        if (assets != null) assets.dispose();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.libgdxlearning;
+
+import com.badlogic.gdx.Screen;
+import com.libgdxlearning.MainGame.ScreenId;
+
+/**
+ * The long-lived screens behind {@link MainGame}: one {@link CachedScreen} per {@link ScreenId},
+ * created on first use and reused on every later switch.
+ *
+ * Kept apart from libGDX's Game so switching can be driven headless: everything it needs from
+ * the application goes through {@link Host}, so stub screens and a stub host exercise the same
+ * code MainGame runs (see ScreenSwitchCheck).
+ */
+public class ScreenRegistry {
+
+    /** What the registry needs from the application; MainGame implements it. */
+    public interface Host {
+        /** Builds the screen for {@code id}; called once per id. */
+        CachedScreen createScreen(ScreenId id);
+
+        /** True when nothing acquired is still loading. */
+        boolean assetsReady();
+
+        /** The screen shown while {@code target}'s assets stream in; it switches to target when done. */
+        Screen loadingScreen(CachedScreen target);
+
+        Screen getScreen();
+
+        /** Hides the current screen, then shows and resizes {@code screen} (Game.setScreen). */
+        void setScreen(Screen screen);
+    }
+
+    private final Host host;
+    private final CachedScreen[] screens = new CachedScreen[ScreenId.values().length];
+    private long lastTransitionNanos;
+
+    public ScreenRegistry(Host host) {
+        this.host = host;
+    }
+
+    /**
+     * Switches to the screen registered under {@code id}, creating it on first use. If the
+     * screen has assets still to load (first visit, or after eviction) the loading screen
+     * streams them in first; otherwise the switch is immediate.
+     */
+    public void show(ScreenId id) {
+        CachedScreen target = screens[id.ordinal()];
+        if (target == null) {
+            target = host.createScreen(id);
+            screens[id.ordinal()] = target;
+        } else {
+            target.requestAssets();
+        }
+        if (target == host.getScreen()) return;
+
+        long start = System.nanoTime();
+        if (host.assetsReady()) host.setScreen(target);
+        else                    host.setScreen(host.loadingScreen(target));
+        lastTransitionNanos = System.nanoTime() - start;
+    }
+
+    /** The screen registered under {@code id}, or null if it was never shown. */
+    public CachedScreen get(ScreenId id) {
+        return screens[id.ordinal()];
+    }
+
+    /** Duration of the last show() that switched screens (hide + show + resize), in nanoseconds. */
+    public long getLastTransitionNanos() {
+        return lastTransitionNanos;
+    }
+
+    /**
+     * Frees the GPU resources of every hidden screen that still holds some (keeping model
+     * state); returns how many were evicted, 0 if they all were already.
+     */
+    public int evictHidden() {
+        int evicted = 0;
+        for (CachedScreen s : screens) {
+            if (s != null && s != host.getScreen() && s.holdsGraphics()) {
+                s.evictGraphics();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /** Disposes every registered screen, at shutdown. */
+    public void disposeAll() {
+        for (CachedScreen s : screens) {
+            if (s != null) s.dispose();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.libgdxlearning;
+
+import com.badlogic.gdx.Screen;
+import com.libgdxlearning.MainGame.ScreenId;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Headless run of the screen registry MainGame switches through, with stub screens that follow
+ * the CachedScreen contract (graphics built on the first show(), kept on hide(), dropped by
+ * evictGraphics()) and a stub host that switches the way Game.setScreen() does. No window or GL.
+ *
+ * - First visits go through the loading screen; each screen is created once.
+ * - 1,000 back-and-forth switches: mean transition time, bytes allocated and heap growth after
+ *   GC; no screen is created, rebuilt or routed through the loading screen again.
+ * - evictHidden() frees only the hidden screen, skips it once it is evicted, and the next visit
+ *   rebuilds it once.
+ *
+ * Usage: {@code ./gradlew core:runScreenSwitchCheck}
+ */
+public class ScreenSwitchCheck {
+
+    private static final int ROUNDS = 1_000;
+    /** Heap growth over the measured rounds (after GC) above which the check fails. */
+    private static final long MAX_HEAP_GROWTH = 256 << 10;
+
+    public static void main(String[] args) {
+        StubHost host = new StubHost();
+        ScreenRegistry registry = new ScreenRegistry(host);
+        boolean ok = true;
+
+        // First visits: assets to load, so both go through the loading screen.
+        registry.show(ScreenId.TILED_WORLD);
+        host.frame();
+        registry.show(ScreenId.ALIVE_PACK);
+        host.frame();
+        StubScreen home = (StubScreen) registry.get(ScreenId.ALIVE_PACK);
+        StubScreen away = (StubScreen) registry.get(ScreenId.TILED_WORLD);
+        ok &= host.getScreen() == home && host.loadingScreens == 2;
+
+        switchRounds(registry, ROUNDS); // warm-up
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = rt.totalMemory() - rt.freeMemory();
+        long allocBefore = threads.getThreadAllocatedBytes(id);
+        long nanos = switchRounds(registry, ROUNDS);
+        long allocated = threads.getThreadAllocatedBytes(id) - allocBefore;
+        System.gc();
+        long heapGrowth = rt.totalMemory() - rt.freeMemory() - heapBefore;
+
+        boolean warm = host.created == 2 && home.builds == 1 && away.builds == 1 && host.loadingScreens == 2
+                && host.getScreen() == home && home.shows - home.hides == 1 && away.shows == away.hides;
+        System.out.printf("%d switches: %.3f us/transition, %d bytes allocated, heap %+d KB after GC; "
+                + "%d screens created, %d graphics builds, %d loading screens; contract kept=%b%n",
+                ROUNDS * 2, nanos / (ROUNDS * 2) / 1000.0, allocated, heapGrowth / 1024,
+                host.created, home.builds + away.builds, host.loadingScreens, warm);
+        ok &= warm && heapGrowth < MAX_HEAP_GROWTH;
+
+        // Eviction frees only the hidden screen; the next visit reloads and rebuilds it once.
+        int evicted = registry.evictHidden();
+        int again = registry.evictHidden(); // already evicted: nothing to free
+        boolean evictOk = evicted == 1 && again == 0 && away.evictions == 1 && away.graphics == null && home.graphics != null;
+        registry.show(ScreenId.TILED_WORLD);
+        host.frame();
+        evictOk &= host.getScreen() == away && away.builds == 2 && host.loadingScreens == 3 && host.created == 2;
+        System.out.printf("evictHidden(): %d evicted, then %d (already evicted); revisit rebuilt once through the loading screen: %b%n",
+                evicted, again, evictOk);
+        ok &= evictOk;
+
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /** Switches away and back {@code rounds} times; returns the summed transition time. */
+    private static long switchRounds(ScreenRegistry registry, int rounds) {
+        long total = 0;
+        for (int i = 0; i < rounds; i++) {
+            registry.show(ScreenId.TILED_WORLD);
+            total += registry.getLastTransitionNanos();
+            registry.show(ScreenId.ALIVE_PACK);
+            total += registry.getLastTransitionNanos();
+        }
+        return total;
+    }
+
+    /** Switches like Game.setScreen(); assets "load" on the next frame of the loading screen. */
+    private static class StubHost implements ScreenRegistry.Host {
+        Screen current;
+        int created, loadingScreens, queued;
+
+        @Override public CachedScreen createScreen(ScreenId id) {
+            created++;
+            return new StubScreen(this);
+        }
+
+        @Override public boolean assetsReady() { return queued == 0; }
+
+        @Override public Screen loadingScreen(CachedScreen target) {
+            loadingScreens++;
+            return new StubLoading(target);
+        }
+
+        @Override public Screen getScreen() { return current; }
+
+        @Override public void setScreen(Screen screen) {
+            if (current != null) current.hide();
+            current = screen;
+            if (current != null) {
+                current.show();
+                current.resize(800, 600);
+            }
+        }
+
+        /** One frame: a loading screen finishes and switches to its target, as LoadingScreen does. */
+        void frame() {
+            if (current instanceof StubLoading) {
+                queued = 0;
+                setScreen(((StubLoading) current).next);
+            }
+        }
+    }
+
+    /** Holds a block standing in for its GPU resources while it has graphics. */
+    private static class StubScreen implements CachedScreen {
+        final StubHost host;
+        byte[] graphics;
+        boolean assetsHeld;
+        int builds, shows, hides, evictions;
+
+        StubScreen(StubHost host) {
+            this.host = host;
+            requestAssets();
+        }
+
+        @Override public void requestAssets() {
+            if (assetsHeld) return;
+            assetsHeld = true;
+            host.queued++;
+        }
+
+        @Override public void show() {
+            shows++;
+            if (graphics != null) return; // still warm
+            graphics = new byte[64 << 10];
+            builds++;
+        }
+
+        @Override public void hide() { hides++; }
+
+        @Override public boolean holdsGraphics() { return graphics != null || assetsHeld; }
+
+        @Override public void evictGraphics() {
+            evictions++;
+            graphics = null;
+            assetsHeld = false;
+        }
+
+        @Override public void render(float delta) {}
+        @Override public void resize(int width, int height) {}
+        @Override public void pause() {}
+        @Override public void resume() {}
+        @Override public void dispose() { evictGraphics(); }
+    }
+
+    private static class StubLoading implements Screen {
+        final CachedScreen next;
+
+        StubLoading(CachedScreen next) { this.next = next; }
+
+        @Override public void show() {}
+        @Override public void render(float delta) {}
+        @Override public void resize(int width, int height) {}
+        @Override public void pause() {}
+        @Override public void resume() {}
+        @Override public void hide() {}
+        @Override public void dispose() {}
+    }
+}
@@ -1,29 +1,56 @@
 package com.libgdxlearning;
 
+import com.libgdxlearning.sim.SimClock;
+import com.libgdxlearning.sim.SimEvents;
+
 public class SimState {
 
+    /** Game minutes advanced per fixed tick. */
+    public static final int MINUTES_PER_TICK = 1;
+
     public double minutes = 0;
     public int day = 1;
 
     public boolean paused = false;
-    public float speedMultiplier = 1f; // 0 = paused, 1 = normal, 2 = fast
+    public float speedMultiplier = 1f; // 0 = paused, 1 = normal, 2 = fast (max SimClock.MAX_SPEED)
+
+    /** Fixed-timestep driver; update() converts frame time into whole ticks. */
+    public final SimClock clock = new SimClock();
+
+    /** Stat-change events raised by tick() and the add*() mutators; drained by the owner each frame. */
+    public final SimEvents events = new SimEvents();
 
     public int cash = 500;
     public int reputation = 50;
     public int chaos = 0;
     public int morale = 50;
 
+    /** Runs as many fixed ticks as the elapsed frame time calls for (60 game minutes per real second at x1). */
     public void update(float delta) {
-        if (paused) return;
+        if (paused) {
+            clock.reset();
+            return;
+        }
+        int steps = clock.advance(delta, speedMultiplier);
+        for (int i = 0; i < steps; i++) tick();
+    }
 
-        minutes += delta * 60f * speedMultiplier; // 60 game minutes per real second
+    /** Advances the simulation by exactly one fixed step. */
+    public void tick() {
+        minutes += MINUTES_PER_TICK;
 
         if (minutes >= 1440) { // 1440 minutes in a day
-            minutes = 0;
+            minutes -= 1440;
             day++;
+            events.emit(SimEvents.DAY, day - 1, day);
         }
     }
 
+    /** Interpolation factor between the last tick and the next, for smooth rendering. */
+    public float getAlpha() {
+        return clock.alpha();
+    }
+
     public int getHour() {
         return (int)(minutes / 60);
     }
@@ -32,9 +59,28 @@ public class SimState {
         return (int)(minutes % 60);
     }
 
-    public void addCash(int amount) { cash += amount; }
-    public void addRep(int amount) { reputation += amount; }
-    public void addChaos(int amount) { chaos = Math.max(0, chaos + amount); }
-    public void addMorale(int amount) { morale = Math.max(0, morale + amount); }
+    public void addCash(int amount) {
+        int old = cash;
+        cash += amount;
+        if (cash != old) events.emit(SimEvents.CASH, old, cash);
+    }
+
+    public void addRep(int amount) {
+        int old = reputation;
+        reputation += amount;
+        if (reputation != old) events.emit(SimEvents.REPUTATION, old, reputation);
+    }
+
+    public void addChaos(int amount) {
+        int old = chaos;
+        chaos = Math.max(0, chaos + amount);
+        if (chaos != old) events.emit(SimEvents.CHAOS, old, chaos);
+    }
+
+    public void addMorale(int amount) {
+        int old = morale;
+        morale = Math.max(0, morale + amount);
+        if (morale != old) events.emit(SimEvents.MORALE, old, morale);
+    }
 
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package com.libgdxlearning;
 
-import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
-import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -11,30 +10,66 @@ import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.libgdxlearning.agents.AgentSystem;
+import com.libgdxlearning.assets.Assets;
+import com.libgdxlearning.map.CompiledMap;
+import com.libgdxlearning.map.CompiledTiledMap;
+import com.libgdxlearning.nav.BitNavGrid;
+import com.libgdxlearning.nav.FlowFieldCache;
+import com.libgdxlearning.world.RectIndex;
+import com.libgdxlearning.world.SweptMover;
+import com.libgdxlearning.world.TileCollisionMap;
+import com.libgdxlearning.world.ZoneIndex;
 
 /**
- * Renders the Intees.tmx pub map with player movement and rectangle collision.
+ * Renders the Intees.tmx pub map with player movement and collision against the Colliders
+ * rectangles and/or a bitmap of the blocking tile layers (Walls, Furnis).
+ * Loads the compiled Intees.map when the build produced one, otherwise parses the TMX; either
+ * way the map comes from the shared {@link Assets} cache, streamed in by a LoadingScreen.
  *
  * Layer render order:
  *   ground → floor → Walls → Furnis → Objects  (below player)
- *   [player rectangle drawn here]
+ *   [NPC agents + player rectangle drawn here, one ShapeRenderer batch]
  *   Above → Above2 → Above3                     (above player)
  *
- * Press ESC to return to AlivePackScreen.
+ * Press ESC to switch to AlivePackScreen. The screen stays cached in MainGame, so the player
+ * keeps their position when coming back.
  */
-public class TiledWorldScreen implements Screen {
+public class TiledWorldScreen implements CachedScreen {
 
     private static final float SPEED    = 150f; // world-units per second
     private static final float PLAYER_W = 20f;
     private static final float PLAYER_H = 28f;
 
-    private final Game game;
+    /** NPCs walking between the zones; every STAFF_EVERY-th one is staff. */
+    private static final int AGENT_COUNT = 2000;
+    private static final int STAFF_EVERY = 5;
+
+    /** Navigation cell side in world units (one agent wide). */
+    private static final float NAV_CELL = AgentSystem.SIZE;
+
+    /** Tile layers whose tiles block movement (per-layer rule, see TileCollisionMap). */
+    private static final String[] BLOCKING_LAYERS = { "Walls", "Furnis" };
+
+    /** Entity id of the player in the zone index (NPC ids can start at 1). */
+    public static final int PLAYER_ENTITY = 0;
+
+    /** Which collision data the player is tested against (C cycles at runtime). */
+    public enum CollisionMode { RECTANGLES, TILES, MERGED }
+
+    private static final String SOURCE_MAP   = "maps/Intees.tmx";
+    private static final String COMPILED_MAP = "maps/Intees" + CompiledMap.EXTENSION;
+
+    private final MainGame game;
+    private final Assets assets;
+    private final AssetDescriptor<TiledMap> mapAsset;
+    private boolean mapAcquired;
+    private boolean mapLoaded; // colliders/zones/spawn read (model state, survives eviction)
 
     private TiledMap                    map;
     private OrthogonalTiledMapRenderer  mapRenderer;
@@ -44,39 +79,96 @@ public class TiledWorldScreen implements Screen {
 
     private final Vector2        playerPos = new Vector2();
     private final Array<Rectangle> colliders = new Array<>();
+    private final RectIndex      colliderIndex = new RectIndex();
+    private TileCollisionMap     tileCollision;
+    private SweptMover           mover;
+    private AgentSystem          agents;
+    private BitNavGrid           navGrid;
+    private FlowFieldCache       navFields;
+    private CollisionMode        collisionMode = CollisionMode.MERGED;
     private final Array<Rectangle> zones     = new Array<>();
+    private final Array<String>  zoneNames  = new Array<>();
+    private final ZoneIndex      zoneIndex  = new ZoneIndex();
     private final Rectangle      playerRect = new Rectangle();
 
-    public TiledWorldScreen(Game game) {
-        this.game = game;
+    public TiledWorldScreen(MainGame game, Assets assets) {
+        this.game   = game;
+        this.assets = assets;
+
+        // Prefer the binary map produced by core:compileMaps; fall back to parsing the TMX.
+        String path = Gdx.files.internal(COMPILED_MAP).exists() ? COMPILED_MAP : SOURCE_MAP;
+        mapAsset = new AssetDescriptor<>(path, TiledMap.class);
+        requestAssets(); // loads in the background while a LoadingScreen is up
     }
 
     // -------------------------------------------------------------------------
     // Screen lifecycle
     // -------------------------------------------------------------------------
 
+    @Override
+    public void requestAssets() {
+        if (mapAcquired) return;
+        assets.acquire(mapAsset);
+        mapAcquired = true;
+    }
+
     @Override
     public void show() {
+        if (mapRenderer != null) return; // still warm
+
+        requestAssets();
         camera   = new OrthographicCamera();
         viewport = new ScreenViewport(camera);
         shapes   = new ShapeRenderer();
 
-        map         = new TmxMapLoader().load("maps/Intees.tmx");
+        map = assets.get(mapAsset);
+        if (!mapLoaded) {
+            if (map instanceof CompiledTiledMap) {
+                applyCompiled(((CompiledTiledMap) map).data);
+            } else {
+                spawnPlayer();
+                loadColliders();
+                loadZones();
+            }
+            zoneIndex.build(zones, zoneNames, map.getProperties().get("tilewidth", Integer.class));
+            zoneIndex.addListener(new ZoneIndex.Listener() {
+                @Override public void zoneEntered(int entity, int zone) {
+                    if (entity == PLAYER_ENTITY) Gdx.app.debug("TiledWorldScreen", "entered " + zoneIndex.getName(zone));
+                }
+                @Override public void zoneExited(int entity, int zone) {
+                    if (entity == PLAYER_ENTITY) Gdx.app.debug("TiledWorldScreen", "left " + zoneIndex.getName(zone));
+                }
+            });
+            zoneIndex.track(PLAYER_ENTITY, playerPos.x, playerPos.y);
+            tileCollision = TileCollisionMap.fromLayers(map, BLOCKING_LAYERS);
+            mover = new SweptMover(colliderIndex, tileCollision);
+            applyCollisionMode();
+            navGrid = BitNavGrid.fromCollision(tileCollision.width * tileCollision.tileWidth,
+                    tileCollision.height * tileCollision.tileHeight, NAV_CELL, AgentSystem.NAV_CLEARANCE, tileCollision, colliderIndex);
+            navFields = new FlowFieldCache(navGrid);
+            agents = new AgentSystem(AGENT_COUNT, zoneIndex, colliderIndex, tileCollision);
+            agents.setNavigation(navGrid, navFields);
+            for (int i = 0; i < AGENT_COUNT; i++) {
+                agents.spawn(i % STAFF_EVERY == 0 ? AgentSystem.STAFF : AgentSystem.PATRON, 7919L * i + 1);
+            }
+            mapLoaded = true;
+        }
         mapRenderer = new OrthogonalTiledMapRenderer(map);
-
-        spawnPlayer();
-        loadColliders();
-        loadZones();
     }
 
     @Override
     public void render(float delta) {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            game.setScreen(new AlivePackScreen());
+            game.showScreen(MainGame.ScreenId.ALIVE_PACK);
             return;
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.C)) {
+            setCollisionMode(CollisionMode.values()[(collisionMode.ordinal() + 1) % CollisionMode.values().length]);
+            Gdx.app.log("TiledWorldScreen", "collision: " + collisionMode);
+        }
 
         updatePlayer(delta);
+        agents.update(Math.min(delta, 0.25f));
         centerCamera();
 
         Gdx.gl.glClearColor(0.1f, 0.1f, 0.1f, 1f);
@@ -90,6 +182,7 @@ public class TiledWorldScreen implements Screen {
         // Player rectangle
         shapes.setProjectionMatrix(camera.combined);
         shapes.begin(ShapeRenderer.ShapeType.Filled);
+        renderAgents();
         shapes.setColor(0.2f, 0.6f, 1f, 1f);
         shapes.rect(playerPos.x - PLAYER_W / 2f, playerPos.y - PLAYER_H / 2f, PLAYER_W, PLAYER_H);
         shapes.end();
@@ -105,19 +198,49 @@ public class TiledWorldScreen implements Screen {
 
     @Override public void pause()  {}
     @Override public void resume() {}
-    @Override public void hide()   {}
+    @Override public void hide()   {} // stays warm; player position and map are kept
 
     @Override
-    public void dispose() {
+    public boolean holdsGraphics() {
+        return mapRenderer != null || mapAcquired;
+    }
+
+    @Override
+    public void evictGraphics() {
         if (mapRenderer != null) mapRenderer.dispose();
-        if (map         != null) map.dispose();
         if (shapes      != null) shapes.dispose();
+        mapRenderer = null;
+        shapes      = null;
+        map         = null;
+        // Lets Assets.evictUnused() unload the map textures; colliders and zones are kept.
+        if (mapAcquired) assets.release(mapAsset);
+        mapAcquired = false;
+    }
+
+    @Override
+    public void dispose() {
+        evictGraphics();
     }
 
     // -------------------------------------------------------------------------
     // Map loading helpers
     // -------------------------------------------------------------------------
 
+    /** Takes the pre-flipped spawn, colliders and zones straight from a compiled map. */
+    private void applyCompiled(CompiledMap data) {
+        if (data.hasSpawn) playerPos.set(data.spawnX, data.spawnY);
+        else               playerPos.set(200, 200);
+
+        colliders.clear();
+        data.collidersTo(colliders);
+        colliderIndex.build(colliders, data.tileWidth);
+
+        zones.clear();
+        data.zonesTo(zones);
+        zoneNames.clear();
+        zoneNames.addAll(data.zoneNames);
+    }
+
     private void spawnPlayer() {
         MapLayer layer = map.getLayers().get("Spawns");
         if (layer == null) { playerPos.set(200, 200); return; }
@@ -143,10 +266,13 @@ public class TiledWorldScreen implements Screen {
                 colliders.add(new Rectangle(r.x, h - r.y - r.height, r.width, r.height));
             }
         }
+        // Static broadphase: bucket colliders by tile so movement only tests nearby ones.
+        colliderIndex.build(colliders, map.getProperties().get("tilewidth", Integer.class));
     }
 
     private void loadZones() {
         zones.clear();
+        zoneNames.clear();
         MapLayer layer = map.getLayers().get("Zones");
         if (layer == null) return;
         float h = mapHeightPx();
@@ -154,6 +280,7 @@ public class TiledWorldScreen implements Screen {
             if (obj instanceof RectangleMapObject) {
                 Rectangle r = ((RectangleMapObject) obj).getRectangle();
                 zones.add(new Rectangle(r.x, h - r.y - r.height, r.width, r.height));
+                zoneNames.add(obj.getName() != null ? obj.getName() : "");
             }
         }
     }
@@ -185,6 +312,25 @@ public class TiledWorldScreen implements Screen {
         mapRenderer.render(indices);
     }
 
+    /** Draws the agents inside the camera view into the open ShapeRenderer batch. */
+    private void renderAgents() {
+        float hw = viewport.getWorldWidth()  / 2f + AgentSystem.SIZE;
+        float hh = viewport.getWorldHeight() / 2f + AgentSystem.SIZE;
+        float minX = camera.position.x - hw, maxX = camera.position.x + hw;
+        float minY = camera.position.y - hh, maxY = camera.position.y + hh;
+        float half = AgentSystem.SIZE / 2f;
+
+        float[] ax = agents.x, ay = agents.y;
+        byte[] kind = agents.kind;
+        for (int i = 0, n = agents.size(); i < n; i++) {
+            float x = ax[i], y = ay[i];
+            if (x < minX || x > maxX || y < minY || y > maxY) continue;
+            if (kind[i] == AgentSystem.STAFF) shapes.setColor(1f, 0.55f, 0.15f, 1f);
+            else                              shapes.setColor(0.85f, 0.85f, 0.3f, 1f);
+            shapes.rect(x - half, y - half, AgentSystem.SIZE, AgentSystem.SIZE);
+        }
+    }
+
     /** Keeps the camera inside the map boundaries. */
     private void centerCamera() {
         float hw   = viewport.getWorldWidth()  / 2f;
@@ -213,23 +359,30 @@ public class TiledWorldScreen implements Screen {
         if (dx != 0 || dy != 0) tryMove(dx, dy);
     }
 
-    /** Axis-separated collision: attempt X, then Y independently. */
+    /**
+     * Swept movement: the player stops exactly at the first collider along the move and slides
+     * along it, so long frames or high speeds cannot tunnel through thin walls.
+     */
     private void tryMove(float dx, float dy) {
-        playerPos.x += dx;
-        if (collidesWithAny()) playerPos.x -= dx;
-        playerPos.y += dy;
-        if (collidesWithAny()) playerPos.y -= dy;
-    }
-
-    private boolean collidesWithAny() {
         playerRect.set(
             playerPos.x - PLAYER_W / 2f, playerPos.y - PLAYER_H / 2f, PLAYER_W, PLAYER_H);
-        for (Rectangle r : colliders) {
-            if (playerRect.overlaps(r)) return true;
-        }
-        return false;
+        mover.move(playerRect, dx, dy);
+        playerPos.set(playerRect.x + PLAYER_W / 2f, playerRect.y + PLAYER_H / 2f);
+        zoneIndex.track(PLAYER_ENTITY, playerPos.x, playerPos.y);
     }
 
+    public void setCollisionMode(CollisionMode mode) {
+        collisionMode = mode;
+        applyCollisionMode();
+    }
+
+    private void applyCollisionMode() {
+        if (mover == null) return;
+        mover.setSources(collisionMode != CollisionMode.TILES, collisionMode != CollisionMode.RECTANGLES);
+    }
+
+    public CollisionMode getCollisionMode() { return collisionMode; }
+
     // -------------------------------------------------------------------------
     // Sim integration bridge
     // -------------------------------------------------------------------------
@@ -237,6 +390,20 @@ public class TiledWorldScreen implements Screen {
     /** Returns a copy of the player's current world position. */
     public Vector2 getPlayerPosition() { return new Vector2(playerPos); }
 
-    /** Returns a copy of the loaded Zone rectangles for sim logic. */
-    public Array<Rectangle> getZones() { return new Array<>(zones); }
+    /**
+     * Zone query service for sim logic: point/box lookups without copying, enter/exit events
+     * and per-zone occupancy. The player is tracked as {@link #PLAYER_ENTITY}.
+     */
+    public ZoneIndex getZoneIndex() { return zoneIndex; }
+
+    /** NPC patrons and staff walking the map. */
+    public AgentSystem getAgents() { return agents; }
+
+    /**
+     * Shared flow fields over the map's walkable cells (see {@link #getNavGrid()}); register a
+     * goal once and any number of entities can steer along it.
+     */
+    public FlowFieldCache getNavFields() { return navFields; }
+
+    public BitNavGrid getNavGrid() { return navGrid; }
 }
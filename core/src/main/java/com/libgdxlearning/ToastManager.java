@@ -1,29 +1,142 @@
 package com.libgdxlearning;
 
+import com.badlogic.gdx.scenes.scene2d.Action;
 import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.StringBuilder;
 
+/**
+ * Animated toast notifications with a fixed cost per message.
+ *
+ * Toasts live in their own container group and reuse a fixed pool of labels. Messages beyond
+ * what fits on screen wait in a bounded queue; a message equal to one already visible or
+ * queued is coalesced into it ("Speed x1 (x20)") instead of adding another toast. Once the
+ * labels and actions have been created, showing a toast does not allocate.
+ */
 public class ToastManager {
 
-    private final Group root;   // where to attach toasts (usually Stage root)
+    /** Toasts visible at once (label pool size). */
+    private static final int MAX_VISIBLE = 6;
+    /** Messages waiting for a free label; further distinct messages are dropped. */
+    private static final int QUEUE_CAPACITY = 32;
+
+    private final Group root;      // where the toast container is attached (usually Stage root)
     private final Skin skin;
+    private final Group container;
 
     // Layout tuning
     private float margin = 14f;
     private float spacing = 8f;
 
+    // Label pool: one slot per label
+    private final Label[]    labels   = new Label[MAX_VISIBLE];
+    private final String[]   messages = new String[MAX_VISIBLE];
+    private final int[]      counts   = new int[MAX_VISIBLE];
+    private final Runnable[] releases = new Runnable[MAX_VISIBLE];
+    private final Action[]   lifetimes = new Action[MAX_VISIBLE]; // fade-in/hold/fade-out sequence
+    private final boolean[]  active   = new boolean[MAX_VISIBLE];
+
+    // Pending messages (ring buffer)
+    private final String[] queued      = new String[QUEUE_CAPACITY];
+    private final int[]    queuedCount = new int[QUEUE_CAPACITY];
+    private int queueHead, queueSize;
+    private int dropped;
+
+    private final StringBuilder text = new StringBuilder(64);
+
     public ToastManager(Group root, Skin skin) {
         this.root = root;
         this.skin = skin;
+
+        container = new Group() {
+            @Override
+            public void act(float delta) {
+                super.act(delta);
+                pump();
+            }
+        };
+        container.setTouchable(Touchable.disabled);
+        root.addActor(container);
+
+        for (int i = 0; i < MAX_VISIBLE; i++) {
+            final int slot = i;
+            Label label = new Label("", skin);
+            label.setAlignment(Align.left);
+            label.setVisible(false);
+            labels[i] = label;
+            releases[i] = () -> release(slot);
+            container.addActor(label);
+        }
     }
 
     public void show(String message) {
-        // Create toast label
-        final Label toast = new Label(message, skin);
-        toast.setAlignment(Align.left);
+        // Coalesce with a visible toast showing the same message.
+        for (int i = 0; i < MAX_VISIBLE; i++) {
+            if (active[i] && message.equals(messages[i])) {
+                counts[i]++;
+                float right = labels[i].getRight();
+                setLabelText(i);
+                labels[i].setX(right - labels[i].getWidth());
+                restartHold(i);
+                return;
+            }
+        }
+        // ...or with one still waiting.
+        for (int k = 0; k < queueSize; k++) {
+            int q = (queueHead + k) % QUEUE_CAPACITY;
+            if (message.equals(queued[q])) {
+                queuedCount[q]++;
+                return;
+            }
+        }
+        if (queueSize == QUEUE_CAPACITY) {
+            dropped++;
+            return;
+        }
+        int tail = (queueHead + queueSize) % QUEUE_CAPACITY;
+        queued[tail]      = message;
+        queuedCount[tail] = 1;
+        queueSize++;
+        pump();
+    }
+
+    /** Messages discarded because the queue was full. */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /** Moves queued messages into free labels. */
+    private void pump() {
+        while (queueSize > 0) {
+            int slot = freeSlot();
+            if (slot < 0 || root.getStage() == null) return;
+            String message = queued[queueHead];
+            int count      = queuedCount[queueHead];
+            queued[queueHead] = null;
+            queueHead = (queueHead + 1) % QUEUE_CAPACITY;
+            queueSize--;
+            display(slot, message, count);
+        }
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < MAX_VISIBLE; i++) {
+            if (!active[i]) return i;
+        }
+        return -1;
+    }
+
+    private void display(int slot, String message, int count) {
+        container.toFront(); // stay above actors added after us
+
+        Label toast = labels[slot];
+        messages[slot] = message;
+        counts[slot]   = count;
+        setLabelText(slot);
 
         // Start invisible/off position
         toast.getColor().a = 0f;
@@ -32,26 +145,21 @@ public class ToastManager {
         float stageW = root.getStage().getViewport().getWorldWidth();
         float stageH = root.getStage().getViewport().getWorldHeight();
 
-        // Force layout to get size
-        toast.pack();
-
         float x = stageW - margin - toast.getWidth();
         float y = stageH - margin - toast.getHeight();
 
-        // Push down existing toasts
-        for (var actor : root.getChildren()) {
-            if (actor.getName() != null && actor.getName().startsWith("toast_")) {
-                actor.addAction(Actions.moveBy(0, -(toast.getHeight() + spacing), 0.12f));
-            }
+        // Push down the (at most MAX_VISIBLE - 1) toasts already showing
+        for (int i = 0; i < MAX_VISIBLE; i++) {
+            if (active[i]) labels[i].addAction(Actions.moveBy(0, -(toast.getHeight() + spacing), 0.12f));
         }
 
+        toast.clearActions();
         toast.setPosition(x, y);
-        toast.setName("toast_" + System.nanoTime());
-
-        root.addActor(toast);
+        toast.setVisible(true);
+        active[slot] = true;
 
-        // Animate: slide in a bit + fade in, then wait, then fade out + slide up, then remove
-        toast.addAction(Actions.sequence(
+        // Animate: slide in a bit + fade in, then wait, then fade out + slide up, then recycle
+        lifetimes[slot] = Actions.sequence(
                 Actions.parallel(
                         Actions.moveBy(0, 10f, 0.18f),
                         Actions.fadeIn(0.18f)
@@ -61,7 +169,40 @@ public class ToastManager {
                         Actions.moveBy(0, 10f, 0.22f),
                         Actions.fadeOut(0.22f)
                 ),
-                Actions.removeActor()
-        ));
+                Actions.run(releases[slot])
+        );
+        toast.addAction(lifetimes[slot]);
+    }
+
+    /** Keeps a coalesced toast on screen for another full hold period. */
+    private void restartHold(int slot) {
+        Label toast = labels[slot];
+        toast.removeAction(lifetimes[slot]); // keep any push-down move in flight
+        toast.getColor().a = 1f;
+        lifetimes[slot] = Actions.sequence(
+                Actions.delay(1.4f),
+                Actions.parallel(
+                        Actions.moveBy(0, 10f, 0.22f),
+                        Actions.fadeOut(0.22f)
+                ),
+                Actions.run(releases[slot])
+        );
+        toast.addAction(lifetimes[slot]);
+    }
+
+    private void setLabelText(int slot) {
+        text.setLength(0);
+        text.append(messages[slot]);
+        if (counts[slot] > 1) text.append(" (x").append(counts[slot]).append(')');
+        Label toast = labels[slot];
+        toast.setText(text);
+        toast.pack();
+    }
+
+    private void release(int slot) {
+        active[slot]    = false;
+        messages[slot]  = null;
+        lifetimes[slot] = null;
+        labels[slot].setVisible(false);
     }
 }
@@ -0,0 +1,88 @@
+package com.libgdxlearning.agents;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.map.CompiledMap;
+import com.libgdxlearning.map.MapCompiler;
+import com.libgdxlearning.nav.BitNavGrid;
+import com.libgdxlearning.nav.FlowFieldCache;
+import com.libgdxlearning.world.RectIndex;
+import com.libgdxlearning.world.TileCollisionMap;
+import com.libgdxlearning.world.ZoneIndex;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Headless agent throughput on the Intees map: agents updated per millisecond at 1k, 10k and
+ * 100k agents, sequential and parallel, plus a check that both give identical positions.
+ *
+ * Usage: {@code ./gradlew core:runAgentBench} (optionally {@code -Pmap=path/to/map.tmx})
+ */
+public class AgentBenchmark {
+
+    private static final float DT = 1f / 60f;
+    private static final String[] BLOCKING_LAYERS = { "Walls", "Furnis" };
+
+    public static void main(String[] args) throws IOException {
+        File tmx = new File(args.length > 0 ? args[0] : "../assets/maps/Intees.tmx");
+        CompiledMap map = new MapCompiler().compile(tmx);
+
+        Array<Rectangle> colliderRects = new Array<>();
+        map.collidersTo(colliderRects);
+        RectIndex colliders = new RectIndex();
+        colliders.build(colliderRects, map.tileWidth);
+
+        Array<Rectangle> zoneRects = new Array<>();
+        map.zonesTo(zoneRects);
+        ZoneIndex zones = new ZoneIndex();
+        zones.build(zoneRects, map.zoneNames, map.tileWidth);
+
+        TileCollisionMap tiles = TileCollisionMap.fromCompiled(map, BLOCKING_LAYERS);
+        BitNavGrid nav = BitNavGrid.fromCollision(map.width * map.tileWidth, map.height * map.tileHeight,
+                AgentSystem.SIZE, AgentSystem.NAV_CLEARANCE, tiles, colliders);
+        FlowFieldCache fields = new FlowFieldCache(nav);
+
+        System.out.printf("%s: %d colliders, %d zones, %d blocked tiles, %d cores%n", tmx.getName(),
+                colliders.size(), zones.size(), tiles.getBlockedCount(), Runtime.getRuntime().availableProcessors());
+
+        for (int n : new int[]{ 1_000, 10_000, 100_000 }) {
+            int ticks = Math.max(20, 5_000_000 / n);
+
+            AgentSystem seq = populate(n, zones, colliders, tiles, nav, fields);
+            seq.setParallel(false);
+            double seqMs = run(seq, ticks);
+
+            AgentSystem par = populate(n, zones, colliders, tiles, nav, fields);
+            par.setParallel(true);
+            double parMs = run(par, ticks);
+
+            System.out.printf("%7d agents x %5d ticks: sequential %9.0f agents/ms, parallel %9.0f agents/ms%s  identical=%b%n",
+                    n, ticks, (double) n * ticks / seqMs, (double) n * ticks / parMs,
+                    n >= AgentSystem.PARALLEL_THRESHOLD ? "" : " (below threshold)", same(seq, par));
+        }
+    }
+
+    private static AgentSystem populate(int n, ZoneIndex zones, RectIndex colliders, TileCollisionMap tiles,
+                                        BitNavGrid nav, FlowFieldCache fields) {
+        AgentSystem agents = new AgentSystem(n, zones, colliders, tiles);
+        agents.setNavigation(nav, fields);
+        for (int i = 0; i < n; i++) agents.spawn(i % 5 == 0 ? AgentSystem.STAFF : AgentSystem.PATRON, 7919L * i + 1);
+        return agents;
+    }
+
+    /** Warms up, then returns the wall-clock ms for {@code ticks} updates. */
+    private static double run(AgentSystem agents, int ticks) {
+        for (int t = 0; t < Math.min(ticks, 60); t++) agents.update(DT);
+        long t0 = System.nanoTime();
+        for (int t = 0; t < ticks; t++) agents.update(DT);
+        return (System.nanoTime() - t0) / 1e6;
+    }
+
+    private static boolean same(AgentSystem a, AgentSystem b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (a.x[i] != b.x[i] || a.y[i] != b.y[i] || a.state[i] != b.state[i]) return false;
+        }
+        return true;
+    }
+}
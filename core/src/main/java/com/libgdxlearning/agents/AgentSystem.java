@@ -0,0 +1,325 @@
+package com.libgdxlearning.agents;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.libgdxlearning.nav.BitNavGrid;
+import com.libgdxlearning.nav.FlowField;
+import com.libgdxlearning.nav.FlowFieldCache;
+import com.libgdxlearning.world.RectIndex;
+import com.libgdxlearning.world.TileCollisionMap;
+import com.libgdxlearning.world.ZoneIndex;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Patrons and staff walking between the map's zones, stored as parallel primitive arrays
+ * (structure of arrays) and updated in one tight loop.
+ *
+ * Each agent idles for a while, picks a target point inside one of the zones its kind uses
+ * (patrons: public areas, toilets, entrance; staff: work areas, kitchens), walks to it and
+ * re-plans if it stays blocked. With navigation set, agents follow the target zone's shared flow
+ * field around walls and only head straight for the point once inside the zone; without it they
+ * walk straight at it. Movement is tested against the same RectIndex colliders and
+ * TileCollisionMap as the player. Nothing is allocated per tick.
+ *
+ * Above {@link #PARALLEL_THRESHOLD} agents the update is split into fixed slices run on the
+ * common ForkJoinPool. Agents only read shared data and each has its own random state, so the
+ * result is identical whether the update runs sequentially or in parallel.
+ */
+public class AgentSystem {
+
+    public static final byte PATRON = 0;
+    public static final byte STAFF  = 1;
+
+    public static final byte IDLE        = 0;
+    public static final byte WALKING     = 1;
+    /** Inside the target zone, heading straight for the target point (navigation only). */
+    public static final byte APPROACHING = 2;
+
+    /** Agent box side in world units. */
+    public static final float SIZE = 8f;
+
+    /** Entity size to rasterize navigation cells for: the agent plus a margin, so agents steering for cell centres do not graze walls. */
+    public static final float NAV_CLEARANCE = SIZE + 1f;
+
+    public static final float PATRON_SPEED = 40f;
+    public static final float STAFF_SPEED  = 70f;
+
+    /** Agent counts from which the update runs on several cores. */
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    /** Agents per parallel task. */
+    private static final int SLICE = 2048;
+
+    private static final float ARRIVE_DIST = 3f;
+    private static final float STUCK_TIME  = 1f;   // s blocked before re-planning
+    private static final float MIN_PROGRESS = 0.25f; // fraction of a full step below which the agent counts as blocked
+    private static final float MIN_IDLE = 2f, MAX_IDLE = 8f;
+    private static final int   TARGET_TRIES = 8;
+
+    public final int capacity;
+    private int count;
+
+    // Agent state, index = agent id
+    public final float[] x, y;       // box centre
+    public final float[] vx, vy;
+    public final float[] tx, ty;     // target point
+    public final float[] timer;      // idle countdown, or time blocked while walking
+    public final byte[]  kind;
+    public final byte[]  state;
+    public final int[]   targetZone;
+    private final long[] rng;
+
+    private final ZoneIndex zones;
+    private final RectIndex colliders;
+    private final TileCollisionMap tiles;
+    private final int[] patronZones, staffZones;
+
+    private FlowFieldCache navFields;   // null: walk straight at the target
+    private BitNavGrid navGrid;
+    private int[] zoneGoals;
+    private FlowField[] zoneFields;     // refreshed before each update, then only read
+
+    private boolean parallel = true;
+    private final Slice[] slices;
+    private final Root root = new Root();
+    private int activeSlices;
+    private float sliceDt;
+    private final Rectangle scratch = new Rectangle(); // sequential path
+
+    /**
+     * @param zones     zones agents walk between (must be built)
+     * @param colliders map collider rectangles, may be empty
+     * @param tiles     blocking tiles, may be null
+     */
+    public AgentSystem(int capacity, ZoneIndex zones, RectIndex colliders, TileCollisionMap tiles) {
+        this.capacity  = capacity;
+        this.zones     = zones;
+        this.colliders = colliders;
+        this.tiles     = tiles;
+
+        x = new float[capacity];  y = new float[capacity];
+        vx = new float[capacity]; vy = new float[capacity];
+        tx = new float[capacity]; ty = new float[capacity];
+        timer = new float[capacity];
+        kind  = new byte[capacity];
+        state = new byte[capacity];
+        targetZone = new int[capacity];
+        rng = new long[capacity];
+
+        patronZones = zonesByPrefix("publicArea", "mToilet", "fToilet", "entrance");
+        staffZones  = zonesByPrefix("staffWorkArea", "Kitchen");
+
+        slices = new Slice[(capacity + SLICE - 1) / SLICE];
+        for (int s = 0; s < slices.length; s++) slices[s] = new Slice();
+    }
+
+    private int[] zonesByPrefix(String... prefixes) {
+        IntArray out = new IntArray();
+        for (int z = 0; z < zones.size(); z++) {
+            for (String p : prefixes) {
+                if (zones.getName(z).startsWith(p)) { out.add(z); break; }
+            }
+        }
+        if (out.size == 0) for (int z = 0; z < zones.size(); z++) out.add(z); // unnamed maps: anywhere
+        return out.toArray();
+    }
+
+    public int size() { return count; }
+
+    /**
+     * Routes agents along flow fields over {@code grid}, one per zone, registered in
+     * {@code fields} (which may be shared with other systems on the same grid). The grid should
+     * be built with {@link #NAV_CLEARANCE}.
+     */
+    public void setNavigation(BitNavGrid grid, FlowFieldCache fields) {
+        navGrid   = grid;
+        navFields = fields;
+        zoneGoals  = new int[zones.size()];
+        zoneFields = new FlowField[zones.size()];
+        for (int z = 0; z < zones.size(); z++) zoneGoals[z] = grid.addGoal(fields, zones.getBounds(z));
+    }
+
+    /** Runs large updates on the common pool (default true). */
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+
+    /**
+     * Adds an agent at a free random point of one of its kind's zones, idling for a random
+     * time first. Returns its id, or -1 if full.
+     */
+    public int spawn(byte agentKind, long seed) {
+        if (count == capacity) return -1;
+        int i = count++;
+        rng[i]   = seed;
+        kind[i]  = agentKind;
+        state[i] = IDLE;
+        vx[i] = vy[i] = 0f;
+        pickTarget(i, scratch);
+        x[i] = tx[i];
+        y[i] = ty[i];
+        timer[i] = nextFloat(i) * MAX_IDLE;
+        return i;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // -------------------------------------------------------------------------
+    // Update
+    // -------------------------------------------------------------------------
+
+    public void update(float dt) {
+        if (navFields != null) {
+            navFields.prepareAll(); // rebuilds stale fields here, so slices only read them
+            for (int z = 0; z < zoneFields.length; z++) zoneFields[z] = navFields.get(zoneGoals[z]);
+        }
+
+        // Sub-step long frames so no step moves further than half an agent.
+        int steps = Math.min(8, Math.max(1, (int) Math.ceil(STAFF_SPEED * dt / (SIZE / 2f))));
+        float h = dt / steps;
+        for (int s = 0; s < steps; s++) {
+            if (parallel && count >= PARALLEL_THRESHOLD) {
+                activeSlices = (count + SLICE - 1) / SLICE;
+                sliceDt = h;
+                for (int k = 0; k < activeSlices; k++) {
+                    slices[k].reinitialize();
+                    slices[k].from = k * SLICE;
+                    slices[k].to   = Math.min(count, (k + 1) * SLICE);
+                }
+                root.reinitialize();
+                ForkJoinPool.commonPool().invoke(root);
+            } else {
+                updateRange(0, count, h, scratch);
+            }
+        }
+    }
+
+    private void updateRange(int from, int to, float dt, Rectangle box) {
+        for (int i = from; i < to; i++) {
+            if (state[i] == IDLE) {
+                timer[i] -= dt;
+                if (timer[i] <= 0f) {
+                    pickTarget(i, box);
+                    state[i] = WALKING;
+                    timer[i] = 0f;
+                }
+                continue;
+            }
+
+            float dx = tx[i] - x[i], dy = ty[i] - y[i];
+            float dist = (float) Math.sqrt(dx * dx + dy * dy);
+            if (dist < ARRIVE_DIST) {
+                state[i] = IDLE;
+                vx[i] = vy[i] = 0f;
+                timer[i] = MIN_IDLE + nextFloat(i) * (MAX_IDLE - MIN_IDLE);
+                continue;
+            }
+
+            if (zoneFields != null && state[i] == WALKING) {
+                // Steer for the centre of the next cell on the zone's field until inside the zone.
+                // Approaching is sticky: going back to the field there could bounce on the zone edge.
+                FlowField field = zoneFields[targetZone[i]];
+                int cx = navGrid.cellX(x[i]), cy = navGrid.cellY(y[i]);
+                int next = field.next(cx, cy);
+                if (next >= 0) {
+                    dx = navGrid.centerX(next % field.width) - x[i];
+                    dy = navGrid.centerY(next / field.width) - y[i];
+                    dist = (float) Math.sqrt(dx * dx + dy * dy);
+                } else if (field.getCost(cx, cy) == 0) {
+                    state[i] = APPROACHING;
+                }
+            }
+
+            float speed = kind[i] == STAFF ? STAFF_SPEED : PATRON_SPEED;
+            vx[i] = dx / dist * speed;
+            vy[i] = dy / dist * speed;
+            float stepX = Math.abs(vx[i] * dt) > Math.abs(dx) ? dx : vx[i] * dt;
+            float stepY = Math.abs(vy[i] * dt) > Math.abs(dy) ? dy : vy[i] * dt;
+
+            // Axis-separated move against the map colliders
+            float oldX = x[i], oldY = y[i];
+            if (stepX != 0 && !blocked(x[i] + stepX, y[i], box)) x[i] += stepX;
+            if (stepY != 0 && !blocked(x[i], y[i] + stepY, box)) y[i] += stepY;
+
+            // Crawling counts as blocked too, so rounding-sized steps cannot keep an agent walking forever
+            if (Math.abs(x[i] - oldX) + Math.abs(y[i] - oldY) < MIN_PROGRESS * speed * dt) {
+                timer[i] += dt;
+                if (timer[i] > STUCK_TIME) {
+                    pickTarget(i, box);
+                    state[i] = WALKING;
+                    timer[i] = 0f;
+                }
+            }
+        }
+    }
+
+    /**
+     * Feeds every agent's position to the zone index as entity {@code firstEntity + id}, firing
+     * its enter/exit events. Sequential (ZoneIndex is single-threaded); call after update().
+     */
+    public void trackZones(int firstEntity) {
+        for (int i = 0; i < count; i++) zones.track(firstEntity + i, x[i], y[i]);
+    }
+
+    /** True if an agent box centred at (cx, cy) hits a collider rectangle or blocked tile. */
+    private boolean blocked(float cx, float cy, Rectangle box) {
+        float half = SIZE / 2f;
+        if (tiles != null && tiles.overlaps(cx - half, cy - half, SIZE, SIZE)) return true;
+        return colliders.overlapsAny(box.set(cx - half, cy - half, SIZE, SIZE));
+    }
+
+    /** Chooses a zone for the agent's kind and a free point inside it. */
+    private void pickTarget(int i, Rectangle box) {
+        int[] candidates = kind[i] == STAFF ? staffZones : patronZones;
+        if (candidates.length == 0) return;
+        int z = candidates[(int) (nextFloat(i) * candidates.length) % candidates.length];
+        Rectangle r = zones.getBounds(z);
+        float px = 0, py = 0;
+        for (int t = 0; t < TARGET_TRIES; t++) {
+            px = r.x + nextFloat(i) * r.width;
+            py = r.y + nextFloat(i) * r.height;
+            if (!blocked(px, py, box)) break;
+        }
+        targetZone[i] = z;
+        tx[i] = px;
+        ty[i] = py;
+    }
+
+    /** Per-agent splitmix64 step, as a float in [0, 1). */
+    private float nextFloat(int i) {
+        long z = (rng[i] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 40) * 0x1.0p-24f;
+    }
+
+    // -------------------------------------------------------------------------
+    // Parallel slices (pre-allocated and reinitialized every step)
+    // -------------------------------------------------------------------------
+
+    private final class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        int from, to;
+        final Rectangle box = new Rectangle();
+
+        @Override
+        protected void compute() {
+            updateRange(from, to, sliceDt, box);
+        }
+    }
+
+    private final class Root extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            for (int k = 1; k < activeSlices; k++) slices[k].fork();
+            slices[0].invoke();
+            for (int k = 1; k < activeSlices; k++) slices[k].join();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.libgdxlearning.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.libgdxlearning.map.CompiledMap;
+import com.libgdxlearning.map.CompiledMapLoader;
+
+/**
+ * Shared, reference-counted asset cache on top of one AssetManager.
+ *
+ * Screens {@link #acquire} what they need when they are created (this only queues the load;
+ * decoding runs on the AssetManager's background thread), a {@code LoadingScreen} pumps
+ * {@link #update} within a per-frame time budget until everything is resident, and screens
+ * {@link #release} their references when disposed. Released assets stay cached, so coming
+ * back to a screen is a hit that re-parses nothing; {@link #evictUnused} frees them.
+ */
+public class Assets implements Disposable {
+
+    public static final AssetDescriptor<Skin> SKIN = new AssetDescriptor<>("assets/uiskin.json", Skin.class);
+
+    private final AssetManager manager;
+    private final ObjectIntMap<String> refs = new ObjectIntMap<>();
+
+    private int hits, misses;
+
+    public Assets() {
+        InternalFileHandleResolver resolver = new InternalFileHandleResolver();
+        manager = new AssetManager(resolver);
+        manager.setLoader(TiledMap.class, CompiledMap.EXTENSION, new CompiledMapLoader(resolver));
+    }
+
+    /**
+     * Takes a reference to the asset, queueing it for background loading unless it is already
+     * loaded or queued (a cache hit).
+     */
+    public void acquire(AssetDescriptor<?> asset) {
+        if (manager.contains(asset.fileName, asset.type)) {
+            hits++;
+        } else {
+            misses++;
+            manager.load(asset);
+        }
+        refs.getAndIncrement(asset.fileName, 0, 1);
+    }
+
+    /** Drops a reference taken by {@link #acquire}. The asset stays cached until evicted. */
+    public void release(AssetDescriptor<?> asset) {
+        int count = refs.get(asset.fileName, 0);
+        if (count <= 0) {
+            Gdx.app.error("Assets", "release without acquire: " + asset.fileName);
+            return;
+        }
+        refs.put(asset.fileName, count - 1);
+    }
+
+    /**
+     * Returns a loaded asset. If it is still loading (a screen shown without waiting on a
+     * LoadingScreen), blocks until it is done.
+     */
+    public <T> T get(AssetDescriptor<T> asset) {
+        if (!manager.isLoaded(asset.fileName, asset.type)) return manager.finishLoadingAsset(asset);
+        return manager.get(asset);
+    }
+
+    /**
+     * Advances loading for at most {@code millis} ms of this frame (one GPU upload per step).
+     * Returns true once nothing is queued.
+     */
+    public boolean update(int millis) {
+        return manager.update(millis);
+    }
+
+    /** Loading progress of the current queue, 0..1. */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    public boolean isFinished() {
+        return manager.isFinished();
+    }
+
+    /** Unloads every cached asset with no remaining references; returns how many were freed. */
+    public int evictUnused() {
+        Array<String> unused = new Array<>();
+        for (ObjectIntMap.Entry<String> e : refs) {
+            if (e.value == 0) unused.add(e.key);
+        }
+        for (String name : unused) {
+            refs.remove(name, 0);
+            if (manager.contains(name)) manager.unload(name);
+        }
+        return unused.size;
+    }
+
+    /** acquire() calls satisfied by an asset already loaded or queued. */
+    public int getHits()   { return hits; }
+    /** acquire() calls that had to queue a load. */
+    public int getMisses() { return misses; }
+
+    /** Assets (including dependencies such as textures) currently resident. */
+    public int getLoadedCount() {
+        return manager.getLoadedAssets();
+    }
+
+    @Override
+    public void dispose() {
+        manager.dispose();
+        refs.clear();
+    }
+}
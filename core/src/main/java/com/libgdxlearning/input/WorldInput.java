@@ -1,18 +1,28 @@
 package com.libgdxlearning.input;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
 import com.libgdxlearning.render.WorldView;
 import com.libgdxlearning.rooms.RoomPlacementSystem;
 
 /**
- * Handles hover preview (mouseMoved) and click-to-place (touchDown) for the world grid.
+ * Handles hover preview (mouseMoved), click-to-place (touchDown), panning (right/middle drag)
+ * and zoom (scroll wheel) for the world grid.
  * Registered after the Stage in the InputMultiplexer so that UI clicks take priority.
  */
 public class WorldInput extends InputAdapter {
 
+    /** Zoom factor applied per scroll-wheel notch. */
+    private static final float ZOOM_STEP = 1.1f;
+
     private final WorldView worldView;
     private final RoomPlacementSystem placer;
 
+    // Drag-to-pan state
+    private boolean panning;
+    private int lastX, lastY;
+
     public WorldInput(WorldView worldView, RoomPlacementSystem placer) {
         this.worldView = worldView;
         this.placer    = placer;
@@ -20,19 +30,19 @@ public class WorldInput extends InputAdapter {
 
     @Override
     public boolean mouseMoved(int screenX, int screenY) {
-        int[] cell = worldView.screenToGrid(screenX, screenY);
-        if (cell != null) {
-            placer.hoverX = cell[0];
-            placer.hoverY = cell[1];
-        } else {
-            placer.hoverX = -1;
-            placer.hoverY = -1;
-        }
+        updateHover(screenX, screenY);
         return false; // never steal the event
     }
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        if (button == Input.Buttons.RIGHT || button == Input.Buttons.MIDDLE) {
+            if (!worldView.isOverView(screenX, screenY)) return false;
+            panning = true;
+            lastX = screenX;
+            lastY = screenY;
+            return true; // consume: started a pan
+        }
         int[] cell = worldView.screenToGrid(screenX, screenY);
         if (cell != null) {
             placer.placeAt(cell[0], cell[1]);
@@ -40,4 +50,44 @@ public class WorldInput extends InputAdapter {
         }
         return false;
     }
+
+    @Override
+    public boolean touchDragged(int screenX, int screenY, int pointer) {
+        if (!panning) return false;
+        // Screen Y grows downward, world Y upward.
+        worldView.pan(screenX - lastX, lastY - screenY);
+        lastX = screenX;
+        lastY = screenY;
+        updateHover(screenX, screenY);
+        return true;
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        if (!panning) return false;
+        panning = false;
+        return true;
+    }
+
+    @Override
+    public boolean scrolled(float amountX, float amountY) {
+        if (amountY == 0) return false;
+        int x = Gdx.input.getX();
+        int y = Gdx.input.getY();
+        if (!worldView.isOverView(x, y)) return false;
+        worldView.zoomAt((float) Math.pow(ZOOM_STEP, amountY), x, y);
+        updateHover(x, y);
+        return true;
+    }
+
+    private void updateHover(int screenX, int screenY) {
+        int[] cell = worldView.screenToGrid(screenX, screenY);
+        if (cell != null) {
+            placer.hoverX = cell[0];
+            placer.hoverY = cell[1];
+        } else {
+            placer.hoverX = -1;
+            placer.hoverY = -1;
+        }
+    }
 }
@@ -0,0 +1,323 @@
+package com.libgdxlearning.map;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A TMX map pre-digested by {@link MapCompiler}: tile layers as packed gid arrays and the
+ * Colliders/Zones/Spawns object layers as rectangles already flipped to libGDX's Y-up world.
+ *
+ * Binary layout (big-endian), version {@value #VERSION}:
+ * <pre>
+ *   int magic 'GDXM', int version
+ *   int width, height, tileWidth, tileHeight            (tiles / pixels)
+ *   int tilesets; per tileset: int firstGid, str image, int tileW, tileH, margin, spacing, imageW, imageH
+ *   int layers;   per layer:   str name, byte visible, float opacity, int[width*height] gids (TMX row order)
+ *   byte hasSpawn, float spawnX, spawnY
+ *   int colliders, float[4 * colliders]                  (x, y, w, h)
+ *   int zones;    per zone:    str name, str type, float x, y, w, h
+ * </pre>
+ * Strings are a short length followed by UTF-8 bytes; image paths are relative to the map file.
+ */
+public class CompiledMap {
+
+    public static final int MAGIC   = 0x4744584D; // "GDXM"
+    public static final int VERSION = 1;
+
+    /** Extension used for compiled maps next to their source .tmx. */
+    public static final String EXTENSION = ".map";
+
+    // Tiled gid flags
+    static final int FLIP_H    = 0x80000000;
+    static final int FLIP_V    = 0x40000000;
+    static final int FLIP_D    = 0x20000000;
+    static final int GID_MASK  = ~(FLIP_H | FLIP_V | FLIP_D);
+
+    public static class Tileset {
+        public int firstGid;
+        public String image; // relative to the map file
+        public int tileWidth, tileHeight, margin, spacing, imageWidth, imageHeight;
+    }
+
+    public static class Layer {
+        public String name;
+        public boolean visible = true;
+        public float opacity = 1f;
+        /** gids[row * width + col], row 0 = top row as in the TMX file; high bits are flip flags. */
+        public int[] gids;
+    }
+
+    public int width, height, tileWidth, tileHeight;
+    public final Array<Tileset> tilesets = new Array<>();
+    public final Array<Layer>   layers   = new Array<>();
+
+    public boolean hasSpawn;
+    public float spawnX, spawnY;
+
+    /** Pre-flipped collider rectangles: x, y, w, h per collider. */
+    public float[] colliders = new float[0];
+
+    public final Array<String> zoneNames = new Array<>();
+    public final Array<String> zoneTypes = new Array<>();
+    /** Pre-flipped zone rectangles: x, y, w, h per zone. */
+    public float[] zones = new float[0];
+
+    public int colliderCount() { return colliders.length / 4; }
+    public int zoneCount()     { return zones.length / 4; }
+
+    public float heightPx() { return height * tileHeight; }
+
+    public Layer getLayer(String name) {
+        for (Layer l : layers) if (l.name.equals(name)) return l;
+        return null;
+    }
+
+    /** Appends the collider rectangles to {@code out}. */
+    public void collidersTo(Array<Rectangle> out) {
+        for (int i = 0; i < colliders.length; i += 4) {
+            out.add(new Rectangle(colliders[i], colliders[i + 1], colliders[i + 2], colliders[i + 3]));
+        }
+    }
+
+    /** Appends the zone rectangles to {@code out} (same order as zoneNames). */
+    public void zonesTo(Array<Rectangle> out) {
+        for (int i = 0; i < zones.length; i += 4) {
+            out.add(new Rectangle(zones[i], zones[i + 1], zones[i + 2], zones[i + 3]));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Binary I/O
+    // -------------------------------------------------------------------------
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(tileWidth);
+        out.writeInt(tileHeight);
+
+        out.writeInt(tilesets.size);
+        for (Tileset t : tilesets) {
+            out.writeInt(t.firstGid);
+            writeString(out, t.image);
+            out.writeInt(t.tileWidth);
+            out.writeInt(t.tileHeight);
+            out.writeInt(t.margin);
+            out.writeInt(t.spacing);
+            out.writeInt(t.imageWidth);
+            out.writeInt(t.imageHeight);
+        }
+
+        out.writeInt(layers.size);
+        for (Layer l : layers) {
+            writeString(out, l.name);
+            out.writeByte(l.visible ? 1 : 0);
+            out.writeFloat(l.opacity);
+            for (int gid : l.gids) out.writeInt(gid);
+        }
+
+        out.writeByte(hasSpawn ? 1 : 0);
+        out.writeFloat(spawnX);
+        out.writeFloat(spawnY);
+
+        out.writeInt(colliderCount());
+        for (float f : colliders) out.writeFloat(f);
+
+        out.writeInt(zoneCount());
+        for (int z = 0; z < zoneCount(); z++) {
+            writeString(out, zoneNames.get(z));
+            writeString(out, zoneTypes.get(z));
+            for (int k = 0; k < 4; k++) out.writeFloat(zones[z * 4 + k]);
+        }
+    }
+
+    /** Decodes a compiled map from {@code buf} (position at the magic number). */
+    public static CompiledMap read(ByteBuffer buf) {
+        if (buf.getInt() != MAGIC) throw new GdxRuntimeException("Not a compiled map");
+        int version = buf.getInt();
+        if (version != VERSION) throw new GdxRuntimeException("Unsupported compiled map version " + version);
+
+        CompiledMap m = new CompiledMap();
+        m.width      = buf.getInt();
+        m.height     = buf.getInt();
+        m.tileWidth  = buf.getInt();
+        m.tileHeight = buf.getInt();
+
+        int tilesetCount = buf.getInt();
+        for (int i = 0; i < tilesetCount; i++) {
+            Tileset t = new Tileset();
+            t.firstGid    = buf.getInt();
+            t.image       = readString(buf);
+            t.tileWidth   = buf.getInt();
+            t.tileHeight  = buf.getInt();
+            t.margin      = buf.getInt();
+            t.spacing     = buf.getInt();
+            t.imageWidth  = buf.getInt();
+            t.imageHeight = buf.getInt();
+            m.tilesets.add(t);
+        }
+
+        int layerCount = buf.getInt();
+        for (int i = 0; i < layerCount; i++) {
+            Layer l = new Layer();
+            l.name    = readString(buf);
+            l.visible = buf.get() != 0;
+            l.opacity = buf.getFloat();
+            l.gids    = new int[m.width * m.height];
+            buf.asIntBuffer().get(l.gids);                   // bulk copy
+            buf.position(buf.position() + 4 * l.gids.length);
+            m.layers.add(l);
+        }
+
+        m.hasSpawn = buf.get() != 0;
+        m.spawnX   = buf.getFloat();
+        m.spawnY   = buf.getFloat();
+
+        m.colliders = new float[4 * buf.getInt()];
+        buf.asFloatBuffer().get(m.colliders);
+        buf.position(buf.position() + 4 * m.colliders.length);
+
+        int zoneCount = buf.getInt();
+        m.zones = new float[4 * zoneCount];
+        for (int z = 0; z < zoneCount; z++) {
+            m.zoneNames.add(readString(buf));
+            m.zoneTypes.add(readString(buf));
+            for (int k = 0; k < 4; k++) m.zones[z * 4 + k] = buf.getFloat();
+        }
+        return m;
+    }
+
+    /**
+     * Loads a compiled map file. Files on disk are memory-mapped; classpath resources (which
+     * may live inside a jar) are read into a heap buffer.
+     */
+    public static CompiledMap load(FileHandle file) {
+        if (file.type() != FileType.Classpath && file.file().isFile()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.file(), "r");
+                 FileChannel channel = raf.getChannel()) {
+                return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Couldn't map " + file, e);
+            }
+        }
+        return read(ByteBuffer.wrap(file.readBytes()));
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // -------------------------------------------------------------------------
+    // Runtime TiledMap
+    // -------------------------------------------------------------------------
+
+    /**
+     * Builds a renderable TiledMap, loading each tileset image relative to {@code mapFile}.
+     * The textures are owned (and disposed) by the returned map.
+     */
+    public CompiledTiledMap toTiledMap(FileHandle mapFile) {
+        Array<Texture> textures = new Array<>(tilesets.size);
+        for (Tileset t : tilesets) textures.add(new Texture(mapFile.sibling(t.image)));
+        CompiledTiledMap map = toTiledMap(textures);
+        map.setOwnedResources(textures);
+        return map;
+    }
+
+    /**
+     * Builds a renderable TiledMap from already-loaded tileset textures (one per tileset, in
+     * order). The caller keeps ownership of the textures.
+     */
+    public CompiledTiledMap toTiledMap(Array<Texture> textures) {
+        CompiledTiledMap map = new CompiledTiledMap(this);
+        map.getProperties().put("width",      width);
+        map.getProperties().put("height",     height);
+        map.getProperties().put("tilewidth",  tileWidth);
+        map.getProperties().put("tileheight", tileHeight);
+
+        // Same region slicing as TmxMapLoader
+        for (int i = 0; i < tilesets.size; i++) {
+            Tileset t = tilesets.get(i);
+            Texture texture = textures.get(i);
+            TiledMapTileSet set = new TiledMapTileSet();
+            set.setName(t.image);
+            int id = t.firstGid;
+            for (int y = t.margin; y <= t.imageHeight - t.tileHeight; y += t.tileHeight + t.spacing) {
+                for (int x = t.margin; x <= t.imageWidth - t.tileWidth; x += t.tileWidth + t.spacing) {
+                    StaticTiledMapTile tile = new StaticTiledMapTile(
+                        new TextureRegion(texture, x, y, t.tileWidth, t.tileHeight));
+                    tile.setId(id);
+                    set.putTile(id++, tile);
+                }
+            }
+            map.getTileSets().addTileSet(set);
+        }
+
+        for (Layer l : layers) {
+            TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
+            layer.setName(l.name);
+            layer.setVisible(l.visible);
+            layer.setOpacity(l.opacity);
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    int raw = l.gids[row * width + col];
+                    if (raw == 0) continue;
+                    TiledMapTileLayer.Cell cell = createCell(raw);
+                    cell.setTile(map.getTileSets().getTile(raw & GID_MASK));
+                    layer.setCell(col, height - 1 - row, cell); // TMX rows run top-down
+                }
+            }
+            map.getLayers().add(layer);
+        }
+        return map;
+    }
+
+    /** Translates Tiled flip flags the same way TmxMapLoader does. */
+    private static TiledMapTileLayer.Cell createCell(int raw) {
+        boolean flipH = (raw & FLIP_H) != 0;
+        boolean flipV = (raw & FLIP_V) != 0;
+        boolean flipD = (raw & FLIP_D) != 0;
+        TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+        if (flipD) {
+            if (flipH && flipV) {
+                cell.setFlipHorizontally(true);
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            } else if (flipH) {
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            } else if (flipV) {
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_90);
+            } else {
+                cell.setFlipVertically(true);
+                cell.setRotation(TiledMapTileLayer.Cell.ROTATE_270);
+            }
+        } else {
+            cell.setFlipHorizontally(flipH);
+            cell.setFlipVertically(flipV);
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,72 @@
+package com.libgdxlearning.map;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * AssetManager loader for compiled {@code .map} files.
+ *
+ * The file is decoded on the AssetManager's executor thread (dependencies are resolved there
+ * too), each tileset image becomes a Texture dependency that is decoded in the background and
+ * uploaded on its own update step, and only the final TiledMap assembly runs on the GL thread.
+ * The textures belong to the AssetManager and are unloaded together with the map.
+ */
+public class CompiledMapLoader extends AsynchronousAssetLoader<TiledMap, CompiledMapLoader.Parameters> {
+
+    public static class Parameters extends AssetLoaderParameters<TiledMap> {
+        /** Texture parameters used for the tileset images. */
+        public Texture.TextureFilter textureMinFilter = Texture.TextureFilter.Nearest;
+        public Texture.TextureFilter textureMagFilter = Texture.TextureFilter.Nearest;
+    }
+
+    // Set by getDependencies() for the asset currently loading (AssetManager loads one at a time)
+    private CompiledMap data;
+    private final Array<String> texturePaths = new Array<>();
+
+    public CompiledMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // raw AssetDescriptor is forced by the AssetLoader signature
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameters parameter) {
+        data = CompiledMap.load(file);
+
+        TextureLoader.TextureParameter texParams = new TextureLoader.TextureParameter();
+        if (parameter != null) {
+            texParams.minFilter = parameter.textureMinFilter;
+            texParams.magFilter = parameter.textureMagFilter;
+        }
+
+        texturePaths.clear();
+        Array<AssetDescriptor> deps = new Array<>(data.tilesets.size);
+        for (CompiledMap.Tileset t : data.tilesets) {
+            FileHandle image = file.sibling(t.image);
+            texturePaths.add(image.path());
+            deps.add(new AssetDescriptor<>(image, Texture.class, texParams));
+        }
+        return deps;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        // Everything off-thread already happened in getDependencies().
+    }
+
+    @Override
+    public TiledMap loadSync(AssetManager manager, String fileName, FileHandle file, Parameters parameter) {
+        Array<Texture> textures = new Array<>(texturePaths.size);
+        for (String path : texturePaths) textures.add(manager.get(path, Texture.class));
+        CompiledTiledMap map = data.toTiledMap(textures);
+        data = null;
+        return map;
+    }
+}
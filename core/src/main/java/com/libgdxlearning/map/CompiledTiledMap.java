@@ -0,0 +1,16 @@
+package com.libgdxlearning.map;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+/**
+ * A TiledMap built from a {@link CompiledMap}. Keeps the source data so callers can use the
+ * pre-flipped spawn, colliders and zones instead of walking the map's object layers.
+ */
+public class CompiledTiledMap extends TiledMap {
+
+    public final CompiledMap data;
+
+    public CompiledTiledMap(CompiledMap data) {
+        this.data = data;
+    }
+}
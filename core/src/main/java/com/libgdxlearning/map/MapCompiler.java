@@ -0,0 +1,201 @@
+package com.libgdxlearning.map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.XmlReader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Build-time converter from Tiled's TMX/TSX XML to the {@link CompiledMap} binary format.
+ * Runs without a libGDX backend (plain java.io), so it can be invoked from Gradle:
+ *
+ * <pre>  ./gradlew core:compileMaps</pre>
+ *
+ * or directly with {@code MapCompiler <in.tmx|dir> <out.map|dir>}; directories convert every
+ * .tmx they contain. Supports orthogonal, finite maps with CSV or base64 (plain, zlib, gzip)
+ * tile data and external or embedded tilesets.
+ */
+public class MapCompiler {
+
+    private final XmlReader xml = new XmlReader();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: MapCompiler <in.tmx|dir> <out.map|dir>");
+            System.exit(1);
+        }
+        File in  = new File(args[0]);
+        File out = new File(args[1]);
+        MapCompiler compiler = new MapCompiler();
+
+        if (!in.isDirectory()) {
+            compiler.compileFile(in, out);
+            return;
+        }
+        File[] sources = in.listFiles((dir, name) -> name.endsWith(".tmx"));
+        if (sources == null) return;
+        for (File tmx : sources) {
+            String base = tmx.getName().substring(0, tmx.getName().length() - 4);
+            compiler.compileFile(tmx, new File(out, base + CompiledMap.EXTENSION));
+        }
+    }
+
+    /** Compiles {@code tmx} and writes the result to {@code out}, creating parent directories. */
+    public void compileFile(File tmx, File out) throws IOException {
+        long start = System.nanoTime();
+        CompiledMap map = compile(tmx);
+        File parent = out.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create " + parent);
+        }
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out)))) {
+            map.write(dos);
+        }
+        System.out.printf("%s -> %s (%d layers, %d colliders, %d zones, %d bytes, %.1f ms)%n",
+            tmx.getName(), out.getPath(), map.layers.size, map.colliderCount(), map.zoneCount(),
+            out.length(), (System.nanoTime() - start) / 1e6);
+    }
+
+    /** Parses a TMX file (and its external tilesets) into a CompiledMap. */
+    public CompiledMap compile(File tmx) throws IOException {
+        XmlReader.Element root = xml.parse(new FileHandle(tmx));
+        if (!"orthogonal".equals(root.getAttribute("orientation", "orthogonal"))) {
+            throw new GdxRuntimeException(tmx + ": only orthogonal maps are supported");
+        }
+        if (root.getIntAttribute("infinite", 0) != 0) {
+            throw new GdxRuntimeException(tmx + ": infinite maps are not supported");
+        }
+
+        CompiledMap map = new CompiledMap();
+        map.width      = root.getIntAttribute("width");
+        map.height     = root.getIntAttribute("height");
+        map.tileWidth  = root.getIntAttribute("tilewidth");
+        map.tileHeight = root.getIntAttribute("tileheight");
+        float heightPx = map.heightPx();
+
+        for (XmlReader.Element ts : root.getChildrenByName("tileset")) {
+            map.tilesets.add(readTileset(tmx.getParentFile(), ts));
+        }
+
+        FloatArray colliders = new FloatArray();
+        FloatArray zones     = new FloatArray();
+
+        for (int i = 0; i < root.getChildCount(); i++) {
+            XmlReader.Element child = root.getChild(i);
+            if ("layer".equals(child.getName())) {
+                map.layers.add(readLayer(map, child));
+            } else if ("objectgroup".equals(child.getName())) {
+                String group = child.getAttribute("name", "");
+                for (XmlReader.Element obj : child.getChildrenByName("object")) {
+                    float x = obj.getFloatAttribute("x", 0f);
+                    float y = obj.getFloatAttribute("y", 0f);
+                    float w = obj.getFloatAttribute("width", 0f);
+                    float h = obj.getFloatAttribute("height", 0f);
+                    String name = obj.getAttribute("name", "");
+
+                    if ("Spawns".equals(group) && "Player_Spawn".equals(name) && !map.hasSpawn) {
+                        map.hasSpawn = true;
+                        map.spawnX   = x;
+                        map.spawnY   = heightPx - y;
+                    } else if ("Colliders".equals(group) && isRectangle(obj)) {
+                        colliders.addAll(x, heightPx - y - h, w, h);
+                    } else if ("Zones".equals(group) && isRectangle(obj)) {
+                        map.zoneNames.add(name);
+                        map.zoneTypes.add(obj.getAttribute("type", obj.getAttribute("class", "")));
+                        zones.addAll(x, heightPx - y - h, w, h);
+                    }
+                }
+            }
+        }
+        map.colliders = colliders.toArray();
+        map.zones     = zones.toArray();
+        return map;
+    }
+
+    private CompiledMap.Tileset readTileset(File mapDir, XmlReader.Element ts) {
+        CompiledMap.Tileset t = new CompiledMap.Tileset();
+        t.firstGid = ts.getIntAttribute("firstgid");
+
+        // External tilesets: the image path is relative to the .tsx, re-base it onto the map
+        String prefix = "";
+        String source = ts.getAttribute("source", null);
+        if (source != null) {
+            ts = xml.parse(new FileHandle(new File(mapDir, source)));
+            int slash = source.lastIndexOf('/');
+            if (slash >= 0) prefix = source.substring(0, slash + 1);
+        }
+
+        XmlReader.Element image = ts.getChildByName("image");
+        if (image == null) {
+            throw new GdxRuntimeException("Tileset " + t.firstGid + ": image collections are not supported");
+        }
+        t.image       = prefix + image.getAttribute("source");
+        t.tileWidth   = ts.getIntAttribute("tilewidth");
+        t.tileHeight  = ts.getIntAttribute("tileheight");
+        t.margin      = ts.getIntAttribute("margin", 0);
+        t.spacing     = ts.getIntAttribute("spacing", 0);
+        t.imageWidth  = image.getIntAttribute("width");
+        t.imageHeight = image.getIntAttribute("height");
+        return t;
+    }
+
+    private CompiledMap.Layer readLayer(CompiledMap map, XmlReader.Element el) throws IOException {
+        CompiledMap.Layer l = new CompiledMap.Layer();
+        l.name    = el.getAttribute("name", "");
+        l.visible = el.getIntAttribute("visible", 1) == 1;
+        l.opacity = el.getFloatAttribute("opacity", 1f);
+        l.gids    = new int[map.width * map.height];
+
+        XmlReader.Element data = el.getChildByName("data");
+        if (data == null) return l;
+        String encoding    = data.getAttribute("encoding", null);
+        String compression = data.getAttribute("compression", null);
+        String text        = data.getText() == null ? "" : data.getText().trim();
+
+        if ("csv".equals(encoding)) {
+            String[] values = text.split("\\s*,\\s*");
+            for (int v = 0, i = 0; v < values.length && i < l.gids.length; v++) {
+                String value = values[v].trim();
+                if (value.isEmpty()) continue; // empty <data> splits to [""]; trailing commas too
+                // gids with flip flags exceed Integer.MAX_VALUE in the text form
+                l.gids[i++] = (int) Long.parseLong(value);
+            }
+        } else if ("base64".equals(encoding)) {
+            byte[] bytes = Base64.getMimeDecoder().decode(text);
+            InputStream in = new ByteArrayInputStream(bytes);
+            if ("zlib".equals(compression))      in = new InflaterInputStream(in);
+            else if ("gzip".equals(compression)) in = new GZIPInputStream(in);
+            else if (compression != null)        throw new GdxRuntimeException("Unsupported compression " + compression);
+            try (InputStream src = in) {
+                byte[] le = new byte[4];
+                for (int i = 0; i < l.gids.length; i++) {
+                    if (src.readNBytes(le, 0, 4) < 4) break;
+                    l.gids[i] = (le[0] & 0xFF) | (le[1] & 0xFF) << 8 | (le[2] & 0xFF) << 16 | (le[3] & 0xFF) << 24;
+                }
+            }
+        } else {
+            throw new GdxRuntimeException("Layer " + l.name + ": unsupported encoding " + encoding);
+        }
+        return l;
+    }
+
+    /** Objects without a shape child (point, ellipse, polygon, polyline, text) are rectangles. */
+    private static boolean isRectangle(XmlReader.Element obj) {
+        for (int i = 0; i < obj.getChildCount(); i++) {
+            String n = obj.getChild(i).getName();
+            if (!"properties".equals(n)) return false;
+        }
+        return obj.hasAttribute("width") && obj.hasAttribute("height");
+    }
+}
@@ -0,0 +1,144 @@
+package com.libgdxlearning.map;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless comparison of loading a map from its TMX source ({@link MapCompiler#compile}: XML
+ * parse, external tilesets, CSV/base64 decoding) with loading the compiled binary
+ * ({@link CompiledMap#load}: one memory-mapped read).
+ *
+ *  1. The Intees map as shipped (30×20 tiles).
+ *  2. A generated 512×512 map with four CSV layers, 2,000 colliders, 50 zones and an embedded
+ *     tileset. It also has a CSV layer whose {@code <data>} is empty, which must compile to an
+ *     all-zero layer.
+ *
+ * Every load is compared field by field with the compiled map.
+ *
+ * Usage: {@code ./gradlew core:runMapLoadBench} (optionally {@code -Pmap=path/to/map.tmx})
+ */
+public class MapLoadBenchmark {
+
+    private static final int BIG = 512;
+
+    public static void main(String[] args) throws IOException {
+        File dir = Files.createTempDirectory("maps").toFile();
+        boolean ok = run(new File(args.length > 0 ? args[0] : "../assets/maps/Intees.tmx"), new File(dir, "small.map"), 2_000);
+
+        File big = new File(dir, "big.tmx");
+        Files.write(big.toPath(), generate(BIG, new SplittableRandom(5)).getBytes(StandardCharsets.UTF_8));
+        ok &= run(big, new File(dir, "big.map"), 20);
+        CompiledMap.Layer empty = new MapCompiler().compile(big).getLayer("Empty");
+        boolean emptyOk = empty != null && Arrays.equals(empty.gids, new int[BIG * BIG]);
+        System.out.printf("CSV layer with empty <data>: compiles to %d zero gids: %b%n", BIG * BIG, emptyOk);
+        ok &= emptyOk;
+
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(File tmx, File out, int runs) throws IOException {
+        MapCompiler compiler = new MapCompiler();
+        CompiledMap compiled = compiler.compile(tmx);
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out)))) {
+            compiled.write(dos);
+        }
+        FileHandle handle = new FileHandle(out);
+
+        boolean same = true;
+        long compileNanos = 0, loadNanos = 0;
+        for (int run = 0; run < 2 * runs; run++) { // the first half is warm-up
+            long t0 = System.nanoTime();
+            CompiledMap fromXml = compiler.compile(tmx);
+            long t1 = System.nanoTime();
+            CompiledMap fromBinary = CompiledMap.load(handle);
+            long t2 = System.nanoTime();
+            same &= same(compiled, fromXml) && same(compiled, fromBinary);
+            if (run < runs) continue;
+            compileNanos += t1 - t0;
+            loadNanos    += t2 - t1;
+        }
+
+        double compileMs = compileNanos / 1e6 / runs, loadMs = loadNanos / 1e6 / runs;
+        System.out.printf("%s (%d×%d, %d layers, %d colliders, %d zones): TMX parse %.3f ms (%d KB), "
+                + "compiled load %.3f ms (%d KB), %.0fx; identical=%b%n",
+                tmx.getName(), compiled.width, compiled.height, compiled.layers.size, compiled.colliderCount(),
+                compiled.zoneCount(), compileMs, tmx.length() / 1024, loadMs, out.length() / 1024,
+                compileMs / loadMs, same);
+        return same;
+    }
+
+    private static boolean same(CompiledMap a, CompiledMap b) {
+        if (a.width != b.width || a.height != b.height || a.tileWidth != b.tileWidth || a.tileHeight != b.tileHeight
+                || a.hasSpawn != b.hasSpawn || a.spawnX != b.spawnX || a.spawnY != b.spawnY
+                || !Arrays.equals(a.colliders, b.colliders) || !Arrays.equals(a.zones, b.zones)
+                || !a.zoneNames.equals(b.zoneNames) || !a.zoneTypes.equals(b.zoneTypes)
+                || a.tilesets.size != b.tilesets.size || a.layers.size != b.layers.size) return false;
+        for (int i = 0; i < a.tilesets.size; i++) {
+            CompiledMap.Tileset s = a.tilesets.get(i), t = b.tilesets.get(i);
+            if (s.firstGid != t.firstGid || !s.image.equals(t.image) || s.tileWidth != t.tileWidth
+                    || s.tileHeight != t.tileHeight || s.margin != t.margin || s.spacing != t.spacing
+                    || s.imageWidth != t.imageWidth || s.imageHeight != t.imageHeight) return false;
+        }
+        for (int i = 0; i < a.layers.size; i++) {
+            CompiledMap.Layer l = a.layers.get(i), m = b.layers.get(i);
+            if (!l.name.equals(m.name) || l.visible != m.visible || l.opacity != m.opacity
+                    || !Arrays.equals(l.gids, m.gids)) return false;
+        }
+        return true;
+    }
+
+    /** A size×size TMX with random gids (some flipped), rectangle colliders and zones, and one empty CSV layer. */
+    private static String generate(int size, SplittableRandom rng) {
+        StringBuilder s = new StringBuilder(size * size * 4 * 6);
+        s.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+         .append("<map version=\"1.10\" orientation=\"orthogonal\" renderorder=\"right-down\" width=\"").append(size)
+         .append("\" height=\"").append(size).append("\" tilewidth=\"16\" tileheight=\"16\" infinite=\"0\">\n")
+         .append(" <tileset firstgid=\"1\" name=\"gen\" tilewidth=\"16\" tileheight=\"16\" tilecount=\"256\" columns=\"16\">\n")
+         .append("  <image source=\"gen.png\" width=\"256\" height=\"256\"/>\n")
+         .append(" </tileset>\n");
+        String[] layers = { "Ground", "Walls", "Furnis", "Decor" };
+        for (String name : layers) {
+            s.append(" <layer name=\"").append(name).append("\" width=\"").append(size).append("\" height=\"").append(size)
+             .append("\">\n  <data encoding=\"csv\">\n");
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    long gid = rng.nextInt(4) == 0 ? 0 : 1 + rng.nextInt(256);
+                    if (gid != 0 && rng.nextInt(16) == 0) gid |= 0x80000000L; // flipped horizontally
+                    s.append(gid);
+                    if (x < size - 1 || y < size - 1) s.append(',');
+                }
+                s.append('\n');
+            }
+            s.append("  </data>\n </layer>\n");
+        }
+        s.append(" <layer name=\"Empty\" width=\"").append(size).append("\" height=\"").append(size)
+         .append("\">\n  <data encoding=\"csv\">\n  </data>\n </layer>\n");
+        objects(s, "Colliders", 2_000, size, rng);
+        objects(s, "Zones", 50, size, rng);
+        return s.append("</map>\n").toString();
+    }
+
+    private static void objects(StringBuilder s, String group, int count, int size, SplittableRandom rng) {
+        s.append(" <objectgroup name=\"").append(group).append("\">\n");
+        for (int i = 0; i < count; i++) {
+            s.append("  <object name=\"").append(group).append(i).append("\" type=\"area\" x=\"").append(rng.nextInt(size * 16))
+             .append("\" y=\"").append(rng.nextInt(size * 16)).append("\" width=\"").append(16 + rng.nextInt(256))
+             .append("\" height=\"").append(16 + rng.nextInt(256)).append("\"/>\n");
+        }
+        s.append(" </objectgroup>\n");
+    }
+}
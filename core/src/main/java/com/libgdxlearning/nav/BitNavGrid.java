@@ -0,0 +1,103 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.libgdxlearning.world.RectIndex;
+import com.libgdxlearning.world.TileCollisionMap;
+
+/**
+ * NavGrid stored as one bit per cell, with square cells of {@code cellSize} world units.
+ *
+ * {@link #fromCollision} rasterizes a Tiled map's collision data (blocking tiles plus collider
+ * rectangles) for an entity of a given size: a cell is blocked when that entity, centred on the
+ * cell, would overlap something. Following free cells therefore keeps the entity clear of walls,
+ * including the thin collider rectangles that are narrower than a tile.
+ */
+public class BitNavGrid implements NavGrid {
+
+    public final int width, height;
+    public final float cellSize;
+
+    /** Row-major bitset, bit (y * width + x); y = 0 is the bottom row. */
+    private final long[] bits;
+    private final int regionsX;
+    private final int[] regionVersions;
+    private int modCount;
+
+    public BitNavGrid(int width, int height, float cellSize) {
+        this.width    = width;
+        this.height   = height;
+        this.cellSize = cellSize;
+        bits = new long[(width * height + 63) >>> 6];
+        regionsX = (width + REGION_SIZE - 1) >>> REGION_SHIFT;
+        regionVersions = new int[regionsX * ((height + REGION_SIZE - 1) >>> REGION_SHIFT)];
+    }
+
+    /**
+     * Builds cells covering {@code worldWidth × worldHeight} for an entity of side
+     * {@code clearance}. Either source may be null.
+     */
+    public static BitNavGrid fromCollision(float worldWidth, float worldHeight, float cellSize, float clearance,
+                                           TileCollisionMap tiles, RectIndex colliders) {
+        BitNavGrid nav = new BitNavGrid(MathUtils.ceil(worldWidth / cellSize), MathUtils.ceil(worldHeight / cellSize), cellSize);
+        float half = clearance / 2f;
+        Rectangle box = new Rectangle();
+        for (int y = 0; y < nav.height; y++) {
+            for (int x = 0; x < nav.width; x++) {
+                box.set(nav.centerX(x) - half, nav.centerY(y) - half, clearance, clearance);
+                boolean blocked = tiles != null && tiles.overlaps(box)
+                               || colliders != null && colliders.overlapsAny(box);
+                if (blocked) nav.set(x, y, true);
+            }
+        }
+        return nav;
+    }
+
+    public void set(int x, int y, boolean blocked) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return;
+        int i = y * width + x;
+        long mask = 1L << i;
+        if (((bits[i >>> 6] & mask) != 0) == blocked) return;
+        bits[i >>> 6] ^= mask;
+        modCount++;
+        regionVersions[(y >>> REGION_SHIFT) * regionsX + (x >>> REGION_SHIFT)]++;
+    }
+
+    /**
+     * Registers the cells whose centres lie inside the world rectangle {@code area} (at least the
+     * cell under its centre) as a goal of {@code fields}; returns the goal id.
+     */
+    public int addGoal(FlowFieldCache fields, Rectangle area) {
+        int x0 = MathUtils.ceil(area.x / cellSize - 0.5f), x1 = MathUtils.floor((area.x + area.width)  / cellSize - 0.5f) + 1;
+        int y0 = MathUtils.ceil(area.y / cellSize - 0.5f), y1 = MathUtils.floor((area.y + area.height) / cellSize - 0.5f) + 1;
+        if (x1 <= x0) { x0 = cellX(area.x + area.width  / 2f); x1 = x0 + 1; }
+        if (y1 <= y0) { y0 = cellY(area.y + area.height / 2f); y1 = y0 + 1; }
+        return fields.addGoal(x0, y0, x1, y1);
+    }
+
+    public int cellX(float worldX) { return MathUtils.floor(worldX / cellSize); }
+    public int cellY(float worldY) { return MathUtils.floor(worldY / cellSize); }
+
+    public float centerX(int x) { return (x + 0.5f) * cellSize; }
+    public float centerY(int y) { return (y + 0.5f) * cellSize; }
+
+    @Override public int width()  { return width; }
+    @Override public int height() { return height; }
+
+    @Override
+    public boolean isBlocked(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return true;
+        int i = y * width + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    public int regionVersion(int rx, int ry) {
+        return regionVersions[ry * regionsX + rx];
+    }
+
+    @Override
+    public int modCount() {
+        return modCount;
+    }
+}
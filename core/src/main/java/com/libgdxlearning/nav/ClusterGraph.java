@@ -0,0 +1,300 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical route planning for grids too large for per-cell searches (HPA*).
+ *
+ * The grid is cut into clusters the size of a region (a Grid chunk). Every run of free cells
+ * shared across a cluster border becomes a portal: a pair of cells, one on each side, joined by
+ * a straight step. Within a cluster, the path costs between all of its portals are precomputed.
+ * A route query then searches only this small portal graph, plus the start and goal clusters,
+ * and returns the portal cells to pass through; each leg stays inside one cluster and can be
+ * walked with a local search or plain steering.
+ *
+ * Portal slots are fixed per border (cluster, side, run index), so both clusters on a border agree
+ * on them without a lookup. When cells change, {@link #sync()} rebuilds only the changed clusters
+ * and their direct neighbours. Routes may be a few percent longer than the cell-level optimum,
+ * since each border run has one crossing point.
+ */
+public class ClusterGraph {
+
+    public static final int CLUSTER_SHIFT = NavGrid.REGION_SHIFT;
+    public static final int CLUSTER_SIZE  = NavGrid.REGION_SIZE;
+
+    /** Free and blocked cells alternate at most this often along one border. */
+    private static final int RUNS_PER_SIDE = CLUSTER_SIZE / 2;
+    private static final int SLOTS = 4 * RUNS_PER_SIDE;
+
+    private static final int EAST = 0, NORTH = 1, WEST = 2, SOUTH = 3;
+    private static final int[] SIDE_DX = { 1, 0, -1,  0 };
+    private static final int[] SIDE_DY = { 0, 1,  0, -1 };
+
+    private final NavGrid grid;
+    private final int width, height;
+    public final int clustersX, clustersY;
+
+    /** Portal cell (y * width + x) by slot id {@code cluster * SLOTS + side * RUNS_PER_SIDE + run}, or -1. */
+    private final int[] portalCell;
+    /** Position of a slot in its cluster's member list. */
+    private final int[] memberIndex;
+    /** Per cluster: used slot ids, and the k × k in-cluster path costs between them. */
+    private final int[][] members;
+    private final int[][] intra;
+
+    private final int[] seenVersions;
+    private final boolean[] rebuild;
+    private int seenModCount;
+    private int clustersRebuilt;
+
+    // Query state: nodes are slot ids plus one goal node, reset with a stamp.
+    private final int goalNode;
+    private final int[] g, parent, stamp;
+    private int query;
+    private final LongHeap open = new LongHeap();
+    private final DialSearch search = new DialSearch();
+    private final int[] local = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+    private final int[] goalCost = new int[SLOTS];
+    private final IntArray seeds = new IntArray();
+    private final IntArray scratchSlots = new IntArray();
+    private int expanded;
+
+    public ClusterGraph(NavGrid grid) {
+        this.grid = grid;
+        width  = grid.width();
+        height = grid.height();
+        clustersX = (width  + CLUSTER_SIZE - 1) >>> CLUSTER_SHIFT;
+        clustersY = (height + CLUSTER_SIZE - 1) >>> CLUSTER_SHIFT;
+        int clusters = clustersX * clustersY;
+
+        portalCell  = new int[clusters * SLOTS];
+        memberIndex = new int[clusters * SLOTS];
+        members = new int[clusters][];
+        intra   = new int[clusters][];
+        seenVersions = new int[clusters];
+        rebuild      = new boolean[clusters];
+
+        goalNode = clusters * SLOTS;
+        g      = new int[goalNode + 1];
+        parent = new int[goalNode + 1];
+        stamp  = new int[goalNode + 1];
+
+        for (int c = 0; c < clusters; c++) {
+            seenVersions[c] = grid.regionVersion(c % clustersX, c / clustersX);
+            build(c);
+        }
+        seenModCount = grid.modCount();
+    }
+
+    // -------------------------------------------------------------------------
+    // Graph maintenance
+    // -------------------------------------------------------------------------
+
+    /**
+     * Rebuilds the clusters whose cells changed since the last call, plus their neighbours
+     * (their shared borders may have new portals). Returns the number of clusters rebuilt.
+     */
+    public int sync() {
+        if (grid.modCount() == seenModCount) return 0;
+        seenModCount = grid.modCount();
+        Arrays.fill(rebuild, false);
+        for (int c = 0; c < seenVersions.length; c++) {
+            int v = grid.regionVersion(c % clustersX, c / clustersX);
+            if (v == seenVersions[c]) continue;
+            seenVersions[c] = v;
+            rebuild[c] = true;
+            for (int side = 0; side < 4; side++) {
+                int n = neighbour(c, side);
+                if (n >= 0) rebuild[n] = true;
+            }
+        }
+        int n = 0;
+        for (int c = 0; c < rebuild.length; c++) {
+            if (rebuild[c]) { build(c); n++; }
+        }
+        clustersRebuilt += n;
+        return n;
+    }
+
+    private void build(int c) {
+        int x0 = (c % clustersX) << CLUSTER_SHIFT, y0 = (c / clustersX) << CLUSTER_SHIFT;
+        int x1 = Math.min(x0 + CLUSTER_SIZE, width), y1 = Math.min(y0 + CLUSTER_SIZE, height);
+
+        Arrays.fill(portalCell, c * SLOTS, (c + 1) * SLOTS, -1);
+        scratchSlots.clear();
+        for (int side = 0; side < 4; side++) {
+            if (neighbour(c, side) < 0) continue;
+            int len = side == EAST || side == WEST ? y1 - y0 : x1 - x0;
+            int run = 0, start = -1;
+            for (int t = 0; t <= len; t++) {
+                boolean open = t < len && !grid.isBlocked(borderX(side, x0, x1, t), borderY(side, y0, y1, t))
+                        && !grid.isBlocked(borderX(side, x0, x1, t) + SIDE_DX[side], borderY(side, y0, y1, t) + SIDE_DY[side]);
+                if (open && start < 0) {
+                    start = t;
+                } else if (!open && start >= 0) {
+                    int mid = (start + t - 1) / 2;
+                    int slot = c * SLOTS + side * RUNS_PER_SIDE + run++;
+                    portalCell[slot] = borderY(side, y0, y1, mid) * width + borderX(side, x0, x1, mid);
+                    scratchSlots.add(slot);
+                    start = -1;
+                }
+            }
+        }
+
+        int k = scratchSlots.size;
+        int[] m = scratchSlots.toArray();
+        int[] costs = new int[k * k];
+        int w = x1 - x0;
+        for (int a = 0; a < k; a++) {
+            memberIndex[m[a]] = a;
+            int cell = portalCell[m[a]];
+            seeds.clear();
+            seeds.add((cell / width - y0) * w + (cell % width - x0));
+            search.fill(grid, x0, y0, x1, y1, local, seeds);
+            for (int b = 0; b < k; b++) {
+                int other = portalCell[m[b]];
+                costs[a * k + b] = local[(other / width - y0) * w + (other % width - x0)];
+            }
+        }
+        members[c] = m;
+        intra[c]   = costs;
+    }
+
+    /** Cell on this cluster's side of border {@code side}, t cells along it. */
+    private static int borderX(int side, int x0, int x1, int t) {
+        return side == EAST ? x1 - 1 : side == WEST ? x0 : x0 + t;
+    }
+
+    private static int borderY(int side, int y0, int y1, int t) {
+        return side == NORTH ? y1 - 1 : side == SOUTH ? y0 : y0 + t;
+    }
+
+    private int neighbour(int c, int side) {
+        int cx = c % clustersX + SIDE_DX[side], cy = c / clustersX + SIDE_DY[side];
+        if (cx < 0 || cy < 0 || cx >= clustersX || cy >= clustersY) return -1;
+        return cy * clustersX + cx;
+    }
+
+    /** The slot across the border from {@code slot}: same run, opposite side of the neighbour. */
+    private int partner(int slot) {
+        int c = slot / SLOTS, r = slot % SLOTS;
+        int side = r / RUNS_PER_SIDE;
+        return neighbour(c, side) * SLOTS + ((side + 2) & 3) * RUNS_PER_SIDE + r % RUNS_PER_SIDE;
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /**
+     * Plans a route from (sx, sy) to (gx, gy). Appends the waypoint cells (start, the portal cells
+     * crossed, goal) to {@code out} if it is not null. Returns the route cost, or -1 if the goal
+     * cannot be reached.
+     */
+    public int findPath(int sx, int sy, int gx, int gy, IntArray out) {
+        sync();
+        if (grid.isBlocked(sx, sy) || grid.isBlocked(gx, gy)) return -1;
+        if (++query == 0) {
+            Arrays.fill(stamp, 0);
+            query = 1;
+        }
+        open.clear();
+
+        int cs = clusterOf(sx, sy), cg = clusterOf(gx, gy);
+
+        // Goal cluster: cost from each of its portals to the goal
+        fillFrom(cg, gx, gy);
+        int[] gm = members[cg];
+        for (int a = 0; a < gm.length; a++) goalCost[a] = localCost(cg, portalCell[gm[a]]);
+
+        // Start cluster: cost to each of its portals, and straight to the goal if it is local
+        fillFrom(cs, sx, sy);
+        if (cs == cg) relax(goalNode, localCost(cs, gy * width + gx), -1, gx, gy);
+        int[] sm = members[cs];
+        for (int a = 0; a < sm.length; a++) {
+            int cost = localCost(cs, portalCell[sm[a]]);
+            if (cost != Steps.UNREACHABLE) relax(sm[a], cost, -1, gx, gy);
+        }
+
+        while (!open.isEmpty()) {
+            long top = open.pop();
+            int node = (int) top;
+            if ((int) (top >>> 32) != g[node] + heuristic(node, gx, gy)) continue; // stale
+            expanded++;
+
+            if (node == goalNode) {
+                if (out != null) {
+                    int from = out.size;
+                    out.add(gy * width + gx);
+                    for (int n = parent[goalNode]; n >= 0; n = parent[n]) out.add(portalCell[n]);
+                    out.add(sy * width + sx);
+                    GridAStar.reverse(out, from);
+                }
+                return g[goalNode];
+            }
+
+            int c = node / SLOTS;
+            int across = partner(node);
+            if (portalCell[across] >= 0) relax(across, g[node] + Steps.ORTHO, node, gx, gy);
+
+            int[] m = members[c];
+            int[] costs = intra[c];
+            int a = memberIndex[node], k = m.length;
+            for (int b = 0; b < k; b++) {
+                int d = costs[a * k + b];
+                if (b != a && d != Steps.UNREACHABLE) relax(m[b], g[node] + d, node, gx, gy);
+            }
+            if (c == cg && goalCost[a] != Steps.UNREACHABLE) relax(goalNode, g[node] + goalCost[a], node, gx, gy);
+        }
+        return -1;
+    }
+
+    private void relax(int node, int cost, int from, int gx, int gy) {
+        if (cost == Steps.UNREACHABLE) return;
+        if (stamp[node] == query && g[node] <= cost) return;
+        stamp[node]  = query;
+        g[node]      = cost;
+        parent[node] = from;
+        open.push(((long) (cost + heuristic(node, gx, gy)) << 32) | node);
+    }
+
+    private int heuristic(int node, int gx, int gy) {
+        if (node == goalNode) return 0;
+        int cell = portalCell[node];
+        return Steps.octile(cell % width - gx, cell / width - gy);
+    }
+
+    private int clusterOf(int x, int y) {
+        return (y >>> CLUSTER_SHIFT) * clustersX + (x >>> CLUSTER_SHIFT);
+    }
+
+    /** Fills {@link #local} with in-cluster costs from (x, y). */
+    private void fillFrom(int c, int x, int y) {
+        int x0 = (c % clustersX) << CLUSTER_SHIFT, y0 = (c / clustersX) << CLUSTER_SHIFT;
+        int x1 = Math.min(x0 + CLUSTER_SIZE, width), y1 = Math.min(y0 + CLUSTER_SIZE, height);
+        seeds.clear();
+        seeds.add((y - y0) * (x1 - x0) + (x - x0));
+        search.fill(grid, x0, y0, x1, y1, local, seeds);
+    }
+
+    private int localCost(int c, int cell) {
+        int x0 = (c % clustersX) << CLUSTER_SHIFT, y0 = (c / clustersX) << CLUSTER_SHIFT;
+        int w = Math.min(x0 + CLUSTER_SIZE, width) - x0;
+        return local[(cell / width - y0) * w + (cell % width - x0)];
+    }
+
+    /** Total portals (border crossings counted once per side). */
+    public int getPortalCount() {
+        int n = 0;
+        for (int[] m : members) n += m.length;
+        return n;
+    }
+
+    /** Clusters rebuilt by {@link #sync()} so far. */
+    public int getClustersRebuilt() { return clustersRebuilt; }
+
+    /** Portal-graph nodes expanded by all queries so far. */
+    public int getExpanded() { return expanded; }
+}
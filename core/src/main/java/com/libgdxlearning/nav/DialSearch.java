@@ -0,0 +1,124 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.Arrays;
+
+/**
+ * Multi-source Dijkstra over a rectangle of a NavGrid with a bucket queue. Step costs are at most
+ * {@link Steps#DIAG}, so every queued cost lies within 8 of the current one and eight circular
+ * buckets replace the heap: each cell is settled in O(1). {@link #repair} runs the same sweep from
+ * seeds at different costs, feeding each in when the sweep reaches its cost.
+ */
+final class DialSearch {
+
+    private static final int BUCKETS = 8; // > Steps.DIAG
+
+    private final IntArray[] buckets = new IntArray[BUCKETS];
+
+    DialSearch() {
+        for (int b = 0; b < BUCKETS; b++) buckets[b] = new IntArray();
+    }
+
+    /**
+     * Fills {@code cost} (index {@code (y - y0) * (x1 - x0) + (x - x0)}) with the cheapest cost from
+     * any seed to each cell of [x0, x1) × [y0, y1); paths never leave the rectangle. Seeds are
+     * local indices of free cells. Returns the number of cells reached.
+     */
+    int fill(NavGrid grid, int x0, int y0, int x1, int y1, int[] cost, IntArray seeds) {
+        int w = x1 - x0, h = y1 - y0;
+        Arrays.fill(cost, 0, w * h, Steps.UNREACHABLE);
+        for (IntArray b : buckets) b.clear();
+
+        int pending = 0;
+        for (int k = 0; k < seeds.size; k++) {
+            int s = seeds.get(k);
+            if (cost[s] == 0) continue;
+            cost[s] = 0;
+            buckets[0].add(s);
+            pending++;
+        }
+
+        int reached = 0;
+        for (int c = 0; pending > 0; c++) {
+            IntArray bucket = buckets[c & (BUCKETS - 1)];
+            int[] items = bucket.items;
+            for (int k = 0; k < bucket.size; k++) {
+                int i = items[k];
+                if (cost[i] != c) continue; // superseded by a cheaper entry
+                reached++;
+                int lx = i % w, ly = i / w;
+                int legal = Steps.legalSteps(grid, x0 + lx, y0 + ly);
+                for (int d = 0; d < 8; d++) {
+                    if ((legal & (1 << d)) == 0) continue;
+                    int nx = lx + Steps.DX[d], ny = ly + Steps.DY[d];
+                    if (nx < 0 || ny < 0 || nx >= w || ny >= h) continue;
+                    int j = ny * w + nx, nc = c + Steps.cost(d);
+                    if (nc < cost[j]) {
+                        cost[j] = nc;
+                        buckets[nc & (BUCKETS - 1)].add(j);
+                        pending++;
+                    }
+                }
+            }
+            pending -= bucket.size;
+            bucket.clear();
+        }
+        return reached;
+    }
+
+    /**
+     * Lowers {@code cost} (row-major over the whole grid, {@code w} wide) from seeds packed as
+     * {@code (long) cost << 32 | cell}, each at most the seed cell's current cost: a seed at its own
+     * cost just propagates it. Cells keep their cost unless a cheaper path is found. Every cell
+     * lowered is added to {@code lowered} (possibly more than once). Returns the number of cells
+     * that were unreachable before and are reached now.
+     */
+    int repair(NavGrid grid, int w, int h, int[] cost, LongArray seeds, IntArray lowered) {
+        Arrays.sort(seeds.items, 0, seeds.size);
+        for (IntArray b : buckets) b.clear();
+
+        int pending = 0, next = 0, newlyReached = 0;
+        int c = seeds.size > 0 ? (int) (seeds.get(0) >>> 32) : 0;
+        while (pending > 0 || next < seeds.size) {
+            if (pending == 0) c = (int) (seeds.get(next) >>> 32); // nothing queued: jump to the next seed
+            for (; next < seeds.size && (int) (seeds.get(next) >>> 32) == c; next++) {
+                int s = (int) seeds.get(next);
+                if (c > cost[s]) continue;
+                if (c < cost[s]) {
+                    if (cost[s] == Steps.UNREACHABLE) newlyReached++;
+                    cost[s] = c;
+                    lowered.add(s);
+                }
+                buckets[c & (BUCKETS - 1)].add(s);
+                pending++;
+            }
+            IntArray bucket = buckets[c & (BUCKETS - 1)];
+            int[] items = bucket.items;
+            for (int k = 0; k < bucket.size; k++) {
+                int i = items[k];
+                if (cost[i] != c) continue;
+                int x = i % w, y = i / w;
+                int legal = Steps.legalSteps(grid, x, y);
+                for (int d = 0; d < 8; d++) {
+                    if ((legal & (1 << d)) == 0) continue;
+                    int nx = x + Steps.DX[d], ny = y + Steps.DY[d];
+                    if (nx < 0 || ny < 0 || nx >= w || ny >= h) continue;
+                    int j = ny * w + nx, nc = c + Steps.cost(d);
+                    if (nc < cost[j]) {
+                        if (cost[j] == Steps.UNREACHABLE) newlyReached++;
+                        cost[j] = nc;
+                        lowered.add(j);
+                        buckets[nc & (BUCKETS - 1)].add(j);
+                        pending++;
+                    }
+                }
+            }
+            pending -= bucket.size;
+            bucket.clear();
+            c++;
+        }
+        return newlyReached;
+    }
+}
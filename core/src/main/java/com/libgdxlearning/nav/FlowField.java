@@ -0,0 +1,200 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * Cheapest-path cost from every cell of a NavGrid to a goal rectangle, plus the step each cell
+ * should take next. One field serves every entity heading to that goal: steering is an array
+ * read, however many entities follow it.
+ *
+ * Fields are owned and kept up to date by a {@link FlowFieldCache}. A change to the grid is
+ * repaired in place: only the cells whose path ran through a changed cell are recomputed, from
+ * the unchanged costs around them, so a room placed far from the goal costs little.
+ */
+public class FlowField {
+
+    public static final int UNREACHABLE = Steps.UNREACHABLE;
+
+    public final int width, height;
+
+    /** Goal cells [goalX0, goalX1) × [goalY0, goalY1), clamped to the grid. */
+    public final int goalX0, goalY0, goalX1, goalY1;
+
+    private final int[] cost;
+    private final byte[] dir;    // next step direction, -1 at goal cells and unreachable cells
+
+    boolean valid;               // false: never built, or too much changed to repair
+    final IntArray pending = new IntArray(); // changed cells not yet repaired
+    private int reached;
+
+    FlowField(int width, int height, int goalX0, int goalY0, int goalX1, int goalY1) {
+        this.width  = width;
+        this.height = height;
+        this.goalX0 = goalX0;
+        this.goalY0 = goalY0;
+        this.goalX1 = goalX1;
+        this.goalY1 = goalY1;
+        cost = new int[width * height];
+        dir  = new byte[width * height];
+    }
+
+    /** Integrates costs outward from the free goal cells, then picks each cell's downhill step. */
+    void compute(NavGrid grid, DialSearch search, IntArray seeds) {
+        seeds.clear();
+        for (int y = goalY0; y < goalY1; y++) {
+            for (int x = goalX0; x < goalX1; x++) {
+                if (!grid.isBlocked(x, y)) seeds.add(y * width + x);
+            }
+        }
+        reached = search.fill(grid, 0, 0, width, height, cost, seeds);
+
+        for (int y = 0, i = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i++) pickStep(grid, x, y, i);
+        }
+        pending.clear();
+        valid = true;
+    }
+
+    /** Sets the downhill step of cell i = (x, y) from its neighbours' costs. */
+    private void pickStep(NavGrid grid, int x, int y, int i) {
+        int c = cost[i];
+        if (c == 0 || c == UNREACHABLE) { dir[i] = -1; return; }
+        int best = -1, bestCost = UNREACHABLE;
+        int legal = Steps.legalSteps(grid, x, y);
+        for (int d = 0; d < 8; d++) {
+            if ((legal & (1 << d)) == 0) continue;
+            int n = cost[i + Steps.DY[d] * width + Steps.DX[d]];
+            if (n != UNREACHABLE && n + Steps.cost(d) < bestCost) {
+                bestCost = n + Steps.cost(d);
+                best = d;
+            }
+        }
+        dir[i] = (byte) best;
+    }
+
+    /**
+     * True if blocking or freeing cell i can alter this field: a reached cell is at or next to it
+     * (its steps, or steps past its corner, change), or it is a goal cell.
+     */
+    boolean dependsOn(int i) {
+        int x = i % width, y = i / width;
+        if (x >= goalX0 && x < goalX1 && y >= goalY0 && y < goalY1) return true;
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                if (cost[ny * width + nx] != UNREACHABLE) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Brings the field up to date with the {@link #pending} changed cells without a full rebuild.
+     * The cells whose steps may have changed (the changed cells and their neighbours) and every
+     * cell whose path led through one of them are reset; the search then restarts from the goal
+     * cells among them and from the unchanged cells bordering them, and only spreads past the
+     * reset cells where it finds a cheaper path (a wall removed). The result equals
+     * {@link #compute}. {@code marks} is a per-cell scratch array and {@code stamp} a value that,
+     * like the two after it, is not in it yet. Returns the number of cells whose cost was recomputed.
+     */
+    int repair(NavGrid grid, DialSearch search, int[] marks, int stamp, IntArray reset, IntArray lowered, LongArray seeds) {
+        int resetMark = stamp, seedMark = stamp + 1, stepMark = stamp + 2;
+        reset.clear();
+        for (int k = 0; k < pending.size; k++) {
+            int c = pending.get(k), x = c % width, y = c / width;
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    int n = ny * width + nx;
+                    if (marks[n] != resetMark) { marks[n] = resetMark; reset.add(n); }
+                }
+            }
+        }
+        pending.clear();
+        // Cells that step onto a reset cell lose their path too
+        for (int k = 0; k < reset.size; k++) {
+            int i = reset.get(k), x = i % width, y = i / width;
+            for (int d = 0; d < 8; d++) {
+                int nx = x - Steps.DX[d], ny = y - Steps.DY[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int j = ny * width + nx;
+                if (dir[j] == d && marks[j] != resetMark) { marks[j] = resetMark; reset.add(j); }
+            }
+        }
+
+        seeds.clear();
+        for (int k = 0; k < reset.size; k++) {
+            int i = reset.get(k);
+            if (cost[i] != UNREACHABLE) reached--;
+            cost[i] = UNREACHABLE;
+            dir[i] = -1;
+        }
+        for (int k = 0; k < reset.size; k++) {
+            int i = reset.get(k), x = i % width, y = i / width;
+            if (x >= goalX0 && x < goalX1 && y >= goalY0 && y < goalY1 && !grid.isBlocked(x, y)) seeds.add(i);
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    int n = ny * width + nx;
+                    if (marks[n] == resetMark || marks[n] == seedMark || cost[n] == UNREACHABLE) continue;
+                    marks[n] = seedMark;
+                    seeds.add((long) cost[n] << 32 | n);
+                }
+            }
+        }
+        lowered.clear();
+        reached += search.repair(grid, width, height, cost, seeds, lowered);
+
+        for (int k = 0; k < lowered.size; k++) {
+            int i = lowered.get(k);
+            if (marks[i] != resetMark) { marks[i] = resetMark; reset.add(i); }
+        }
+
+        // Steps change where a cell's own cost or a neighbour's did
+        for (int k = 0; k < reset.size; k++) {
+            int i = reset.get(k), x = i % width, y = i / width;
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    int n = ny * width + nx;
+                    if (marks[n] == stepMark) continue;
+                    marks[n] = stepMark;
+                    pickStep(grid, nx, ny, n);
+                }
+            }
+        }
+        return reset.size;
+    }
+
+    /** Path cost from (x, y) to the nearest goal cell (0 inside the goal), or UNREACHABLE. */
+    public int getCost(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return UNREACHABLE;
+        return cost[y * width + x];
+    }
+
+    /**
+     * Index ({@code y * width + x}) of the cell to step to from (x, y), or -1 at the goal and
+     * where no path exists. From a blocked cell (an entity pushed slightly into a wall) it returns
+     * the cheapest reachable neighbour, so followers recover instead of stopping.
+     */
+    public int next(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        int i = y * width + x;
+        int c = cost[i];
+        if (c == 0) return -1;
+        if (c != UNREACHABLE) {
+            int d = dir[i];
+            return d < 0 ? -1 : i + Steps.DY[d] * width + Steps.DX[d];
+        }
+        int best = -1, bestCost = UNREACHABLE;
+        for (int d = 0; d < 8; d++) {
+            int nx = x + Steps.DX[d], ny = y + Steps.DY[d];
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+            int n = cost[ny * width + nx];
+            if (n < bestCost) { bestCost = n; best = ny * width + nx; }
+        }
+        return best;
+    }
+
+    /** Number of cells that can reach the goal. */
+    public int getReached() { return reached; }
+
+    public boolean isValid() { return valid; }
+}
@@ -0,0 +1,192 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.Arrays;
+
+/**
+ * One lazily built {@link FlowField} per registered goal (a zone, a room interior, a door...).
+ *
+ * {@link #sync()} compares the grid's region versions with the ones seen last time, and the cells
+ * of changed regions with a one-bit-per-cell copy, to find exactly which cells were blocked or
+ * freed. A field is only affected if it reached a cell at or next to one of them (or has a goal
+ * cell there); it keeps the changed cells and is repaired locally the next time it is requested
+ * (see {@link FlowField#repair}). Other fields stay as they are. A field with more pending cells
+ * than 1/{@link #MAX_PENDING_FRACTION} of the grid is rebuilt instead. Nothing is allocated per query.
+ *
+ * Not thread-safe. Entities updated in parallel should call {@link #prepareAll()} first and then
+ * only read the fields.
+ */
+public class FlowFieldCache {
+
+    /** Pending changed cells, as a fraction of the grid, above which a field is rebuilt instead of repaired. */
+    static final int MAX_PENDING_FRACTION = 8;
+
+    private final NavGrid grid;
+    private final int regionsX, regionsY;
+    private final int[] seenVersions;
+    private final long[] seenBlocked;  // bit y * width + x: the cell was blocked at the last sync()
+    private final IntArray changed = new IntArray();
+    private int seenModCount;
+
+    private final Array<FlowField> fields = new Array<>();
+    private final DialSearch search = new DialSearch();
+    private final IntArray seeds = new IntArray();
+
+    // Repair scratch, shared by all fields
+    private final int[] marks;
+    private int stamp;
+    private final IntArray reset = new IntArray(), lowered = new IntArray();
+    private final LongArray repairSeeds = new LongArray();
+
+    private int builds;
+    private int repairs;
+    private long cellsRepaired;
+    private int invalidations;
+
+    public FlowFieldCache(NavGrid grid) {
+        this.grid = grid;
+        regionsX = (grid.width()  + NavGrid.REGION_SIZE - 1) >>> NavGrid.REGION_SHIFT;
+        regionsY = (grid.height() + NavGrid.REGION_SIZE - 1) >>> NavGrid.REGION_SHIFT;
+        seenVersions = new int[regionsX * regionsY];
+        seenBlocked  = new long[(grid.width() * grid.height() + 63) >>> 6];
+        marks        = new int[grid.width() * grid.height()];
+        snapshot();
+    }
+
+    public NavGrid getGrid() { return grid; }
+
+    /**
+     * Registers the goal cells [x0, x1) × [y0, y1) (clamped to the grid); returns its id.
+     * Registering the same cells again returns the existing id, so callers share the field.
+     */
+    public int addGoal(int x0, int y0, int x1, int y1) {
+        int w = grid.width(), h = grid.height();
+        x0 = MathUtils.clamp(x0, 0, w);
+        x1 = MathUtils.clamp(x1, x0, w);
+        y0 = MathUtils.clamp(y0, 0, h);
+        y1 = MathUtils.clamp(y1, y0, h);
+        for (int i = 0; i < fields.size; i++) {
+            FlowField f = fields.get(i);
+            if (f.goalX0 == x0 && f.goalY0 == y0 && f.goalX1 == x1 && f.goalY1 == y1) return i;
+        }
+        fields.add(new FlowField(w, h, x0, y0, x1, y1));
+        return fields.size - 1;
+    }
+
+    /** Number of registered goals. */
+    public int size() { return fields.size; }
+
+    /** The field leading to {@code goal}, built or repaired first if the grid changed under it. */
+    public FlowField get(int goal) {
+        sync();
+        FlowField f = fields.get(goal);
+        update(f);
+        return f;
+    }
+
+    /** Brings every field up to date, so they can then be read from any thread. */
+    public void prepareAll() {
+        sync();
+        for (int i = 0; i < fields.size; i++) update(fields.get(i));
+    }
+
+    /**
+     * Picks up grid changes made since the last call and hands the changed cells to the fields
+     * they affect. Costs one comparison when nothing changed. Returns the number of fields affected.
+     */
+    public int sync() {
+        if (grid.modCount() == seenModCount) return 0;
+        changed.clear();
+        for (int ry = 0, r = 0; ry < regionsY; ry++) {
+            for (int rx = 0; rx < regionsX; rx++, r++) {
+                int v = grid.regionVersion(rx, ry);
+                if (v == seenVersions[r]) continue;
+                seenVersions[r] = v;
+                diffRegion(rx, ry);
+            }
+        }
+        seenModCount = grid.modCount();
+        if (changed.size == 0) return 0;
+
+        int affected = 0, maxPending = grid.width() * grid.height() / MAX_PENDING_FRACTION;
+        for (int i = 0; i < fields.size; i++) {
+            FlowField f = fields.get(i);
+            if (!f.valid || !dependsOnChanged(f)) continue;
+            affected++;
+            if (f.pending.size + changed.size > maxPending) {
+                f.valid = false; // rebuilt from scratch on the next request
+                f.pending.clear();
+            } else {
+                f.pending.addAll(changed);
+            }
+        }
+        invalidations += affected;
+        return affected;
+    }
+
+    /** Adds the cells of region (rx, ry) whose blocked state differs from the snapshot to {@code changed}. */
+    private void diffRegion(int rx, int ry) {
+        int w = grid.width();
+        int x0 = rx << NavGrid.REGION_SHIFT, x1 = Math.min(w, x0 + NavGrid.REGION_SIZE);
+        int y0 = ry << NavGrid.REGION_SHIFT, y1 = Math.min(grid.height(), y0 + NavGrid.REGION_SIZE);
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                int i = y * w + x;
+                boolean was = (seenBlocked[i >>> 6] & (1L << i)) != 0;
+                if (grid.isBlocked(x, y) == was) continue;
+                seenBlocked[i >>> 6] ^= 1L << i;
+                changed.add(i);
+            }
+        }
+    }
+
+    private boolean dependsOnChanged(FlowField f) {
+        for (int k = 0; k < changed.size; k++) if (f.dependsOn(changed.get(k))) return true;
+        return false;
+    }
+
+    private void update(FlowField f) {
+        if (!f.valid) {
+            f.compute(grid, search, seeds);
+            builds++;
+        } else if (f.pending.size > 0) {
+            if (stamp > Integer.MAX_VALUE - 3) {
+                Arrays.fill(marks, 0);
+                stamp = 0;
+            }
+            cellsRepaired += f.repair(grid, search, marks, stamp + 1, reset, lowered, repairSeeds);
+            stamp += 3;
+            repairs++;
+        }
+    }
+
+    private void snapshot() {
+        for (int ry = 0, r = 0; ry < regionsY; ry++) {
+            for (int rx = 0; rx < regionsX; rx++, r++) seenVersions[r] = grid.regionVersion(rx, ry);
+        }
+        int w = grid.width();
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < w; x++) {
+                int i = y * w + x;
+                if (grid.isBlocked(x, y)) seenBlocked[i >>> 6] |= 1L << i;
+            }
+        }
+        seenModCount = grid.modCount();
+    }
+
+    /** Fields computed from scratch so far (first builds and rebuilds). */
+    public int getBuilds() { return builds; }
+
+    /** Fields repaired in place after grid changes so far. */
+    public int getRepairs() { return repairs; }
+
+    /** Cells whose cost those repairs recomputed, in total. */
+    public long getCellsRepaired() { return cellsRepaired; }
+
+    /** Times a grid change affected a field so far (each then repaired or rebuilt). */
+    public int getInvalidations() { return invalidations; }
+}
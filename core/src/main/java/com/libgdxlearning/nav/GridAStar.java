@@ -0,0 +1,95 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Plain cell-level A* on a NavGrid with the same moves and costs as the flow fields, for one-off
+ * routes and as the per-entity baseline in {@link NavBenchmark}. Search arrays are allocated once
+ * and reset with a query stamp, so a search allocates nothing.
+ */
+public class GridAStar {
+
+    private final NavGrid grid;
+    private final int width, height;
+
+    private final int[] g, parent, stamp;
+    private int query;
+    private final LongHeap open = new LongHeap();
+    private int expanded;
+
+    public GridAStar(NavGrid grid) {
+        this.grid = grid;
+        width  = grid.width();
+        height = grid.height();
+        g      = new int[width * height];
+        parent = new int[width * height];
+        stamp  = new int[width * height];
+    }
+
+    /**
+     * Cheapest path from (sx, sy) to any free cell of [gx0, gx1) × [gy0, gy1). Appends the cell
+     * indices ({@code y * width + x}) from start to goal to {@code out} if it is not null.
+     * Returns the path cost, or -1 if there is none.
+     */
+    public int findPath(int sx, int sy, int gx0, int gy0, int gx1, int gy1, IntArray out) {
+        if (grid.isBlocked(sx, sy)) return -1;
+        if (++query == 0) {
+            Arrays.fill(stamp, 0);
+            query = 1;
+        }
+        open.clear();
+        int start = sy * width + sx;
+        stamp[start]  = query;
+        g[start]      = 0;
+        parent[start] = -1;
+        open.push(((long) heuristic(sx, sy, gx0, gy0, gx1, gy1) << 32) | start);
+
+        while (!open.isEmpty()) {
+            long top = open.pop();
+            int i = (int) top;
+            int x = i % width, y = i / width;
+            if ((int) (top >>> 32) != g[i] + heuristic(x, y, gx0, gy0, gx1, gy1)) continue; // stale
+            expanded++;
+
+            if (x >= gx0 && x < gx1 && y >= gy0 && y < gy1) {
+                if (out != null) {
+                    int from = out.size;
+                    for (int c = i; c >= 0; c = parent[c]) out.add(c);
+                    reverse(out, from);
+                }
+                return g[i];
+            }
+
+            int legal = Steps.legalSteps(grid, x, y);
+            for (int d = 0; d < 8; d++) {
+                if ((legal & (1 << d)) == 0) continue;
+                int j = i + Steps.DY[d] * width + Steps.DX[d];
+                int ng = g[i] + Steps.cost(d);
+                if (stamp[j] == query && g[j] <= ng) continue;
+                stamp[j]  = query;
+                g[j]      = ng;
+                parent[j] = i;
+                int nx = x + Steps.DX[d], ny = y + Steps.DY[d];
+                open.push(((long) (ng + heuristic(nx, ny, gx0, gy0, gx1, gy1)) << 32) | j);
+            }
+        }
+        return -1;
+    }
+
+    /** Reverses out[from..size), the part a search just appended goal-first. */
+    static void reverse(IntArray out, int from) {
+        for (int a = from, b = out.size - 1; a < b; a++, b--) out.swap(a, b);
+    }
+
+    /** Octile distance to the nearest cell of the goal rectangle. */
+    private static int heuristic(int x, int y, int gx0, int gy0, int gx1, int gy1) {
+        int dx = x < gx0 ? gx0 - x : (x >= gx1 ? x - (gx1 - 1) : 0);
+        int dy = y < gy0 ? gy0 - y : (y >= gy1 ? y - (gy1 - 1) : 0);
+        return Steps.octile(dx, dy);
+    }
+
+    /** Cells expanded by all searches so far. */
+    public int getExpanded() { return expanded; }
+}
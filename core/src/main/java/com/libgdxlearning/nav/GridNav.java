@@ -0,0 +1,35 @@
+package com.libgdxlearning.nav;
+
+import com.libgdxlearning.world.Grid;
+
+/**
+ * NavGrid view of the room-building {@link Grid}: wall cells are blocked, floors, doors and empty
+ * ground are free. Regions are the grid's chunks, so room placement (RoomPlacementSystem.placeAt)
+ * shows up through {@link Grid#chunkVersion} without the placer knowing about navigation.
+ */
+public class GridNav implements NavGrid {
+
+    private final Grid grid;
+
+    public GridNav(Grid grid) {
+        this.grid = grid;
+    }
+
+    @Override public int width()  { return grid.width; }
+    @Override public int height() { return grid.height; }
+
+    @Override
+    public boolean isBlocked(int x, int y) {
+        return !grid.inBounds(x, y) || grid.isBlocked(x, y);
+    }
+
+    @Override
+    public int regionVersion(int rx, int ry) {
+        return grid.chunkVersion(rx, ry);
+    }
+
+    @Override
+    public int modCount() {
+        return grid.modCount();
+    }
+}
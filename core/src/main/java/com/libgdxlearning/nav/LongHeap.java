@@ -0,0 +1,45 @@
+package com.libgdxlearning.nav;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of longs. A* packs {@code (priority << 32) | node} into each entry and skips
+ * stale entries on pop instead of supporting decrease-key.
+ */
+final class LongHeap {
+
+    private long[] items = new long[256];
+    private int size;
+
+    boolean isEmpty() { return size == 0; }
+
+    void clear() { size = 0; }
+
+    void push(long v) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (items[parent] <= v) break;
+            items[i] = items[parent];
+            i = parent;
+        }
+        items[i] = v;
+    }
+
+    long pop() {
+        long top = items[0];
+        long last = items[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && items[child + 1] < items[child]) child++;
+            if (items[child] >= last) break;
+            items[i] = items[child];
+            i = child;
+        }
+        items[i] = last;
+        return top;
+    }
+}
@@ -0,0 +1,249 @@
+package com.libgdxlearning.nav;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.libgdxlearning.agents.AgentSystem;
+import com.libgdxlearning.map.CompiledMap;
+import com.libgdxlearning.map.MapCompiler;
+import com.libgdxlearning.rooms.RoomPlacement;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.rooms.RoomType;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.RectIndex;
+import com.libgdxlearning.world.TileCollisionMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Headless comparison of shared flow fields against per-entity A*:
+ *
+ *  1. Intees map (8-unit cells): routing N entities to the 14 zones.
+ *  2. A 512×512 room grid: routing N entities to 8 rooms, hierarchical portal routes, and the
+ *     incremental cost of placing one more room, once in a gap among the goals and once as far
+ *     from every goal as the layout allows.
+ *
+ * Every flow-field cost is checked against the A* cost for the same start and goal, and every
+ * field repaired after a placement against a field built from scratch.
+ *
+ * Usage: {@code ./gradlew core:runNavBench} (optionally {@code -Pmap=path/to/map.tmx})
+ */
+public class NavBenchmark {
+
+    private static final String[] BLOCKING_LAYERS = { "Walls", "Furnis" };
+    private static final float CELL = 8f;
+    private static final int[] ENTITIES = { 1_000, 10_000 };
+
+    public static void main(String[] args) throws IOException {
+        File tmx = new File(args.length > 0 ? args[0] : "../assets/maps/Intees.tmx");
+        benchmarkMap(tmx);
+        benchmarkRooms(512);
+    }
+
+    private static void benchmarkMap(File tmx) throws IOException {
+        CompiledMap map = new MapCompiler().compile(tmx);
+        Array<Rectangle> colliderRects = new Array<>();
+        map.collidersTo(colliderRects);
+        RectIndex colliders = new RectIndex();
+        colliders.build(colliderRects, map.tileWidth);
+        TileCollisionMap tiles = TileCollisionMap.fromCompiled(map, BLOCKING_LAYERS);
+
+        BitNavGrid nav = BitNavGrid.fromCollision(map.width * map.tileWidth, map.height * map.tileHeight,
+                CELL, AgentSystem.NAV_CLEARANCE, tiles, colliders);
+        FlowFieldCache fields = new FlowFieldCache(nav);
+        Array<Rectangle> zones = new Array<>();
+        map.zonesTo(zones);
+        int[] goals = new int[zones.size * 4];
+        for (int z = 0; z < zones.size; z++) {
+            FlowField f = fields.get(nav.addGoal(fields, zones.get(z)));
+            goals[z * 4]     = f.goalX0;
+            goals[z * 4 + 1] = f.goalY0;
+            goals[z * 4 + 2] = f.goalX1;
+            goals[z * 4 + 3] = f.goalY1;
+        }
+
+        System.out.printf("%s: %d×%d cells of %.0f units, %d zones%n", tmx.getName(), nav.width, nav.height, CELL, zones.size);
+        compare(nav, fields, goals);
+    }
+
+    private static void benchmarkRooms(int size) {
+        Grid grid = new Grid(size, size);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        Array<RoomPlacement> layout = new Array<>();
+        RoomType[] types = RoomType.values();
+        int holeX = 2 + 14 * 10, holeY = 2 + 12 * 10; // left free for the incremental test
+        for (int y = 2; y + 8 <= size; y += 12) {
+            for (int x = 2; x + 10 <= size; x += 14) {
+                if (x == holeX && y == holeY) continue;
+                layout.add(new RoomPlacement(new RoomTemplate(types[layout.size % types.length], 10, 8), x, y));
+            }
+        }
+        int[] goals = new int[8 * 4];
+        SplittableRandom rng = new SplittableRandom(7);
+        for (int k = 0; k < 8; k++) {
+            RoomPlacement p = layout.get(rng.nextInt(layout.size));
+            goals[k * 4]     = p.x + 1;
+            goals[k * 4 + 1] = p.y + 1;
+            goals[k * 4 + 2] = p.x + p.template.width - 1;
+            goals[k * 4 + 3] = p.y + p.template.height - 1;
+        }
+        // A second gap, at the room farthest from every goal
+        RoomPlacement far = null;
+        int farDistance = -1;
+        for (RoomPlacement p : layout) {
+            int d = nearestGoal(goals, p.x, p.y);
+            if (d > farDistance) { farDistance = d; far = p; }
+        }
+        layout.removeValue(far, true);
+        placer.placeAll(layout);
+
+        GridNav nav = new GridNav(grid);
+        FlowFieldCache fields = new FlowFieldCache(nav);
+        for (int k = 0; k < goals.length; k += 4) fields.addGoal(goals[k], goals[k + 1], goals[k + 2], goals[k + 3]);
+
+        System.out.printf("%nRoom grid: %d×%d cells, %d rooms, %d goal rooms%n", size, size, layout.size, goals.length / 4);
+        compare(nav, fields, goals);
+
+        // Hierarchical routes vs cell-level A*
+        long t0 = System.nanoTime();
+        ClusterGraph graph = new ClusterGraph(nav);
+        double buildMs = (System.nanoTime() - t0) / 1e6;
+        GridAStar astar = new GridAStar(nav);
+        int queries = 2_000;
+        int[] from = randomFree(nav, queries, rng), to = randomFree(nav, queries, rng);
+        IntArray route = new IntArray();
+        for (int w = 0; w < 200; w++) graph.findPath(from[w] % size, from[w] / size, to[w] % size, to[w] / size, route); // warm-up
+        long exactCost = 0, routeCost = 0;
+        int missed = 0;
+        long aNanos = 0, hNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            int sx = from[q] % size, sy = from[q] / size, gx = to[q] % size, gy = to[q] / size;
+            long a = System.nanoTime();
+            int exact = astar.findPath(sx, sy, gx, gy, gx + 1, gy + 1, null);
+            long b = System.nanoTime();
+            route.clear();
+            int cost = graph.findPath(sx, sy, gx, gy, route);
+            long c = System.nanoTime();
+            aNanos += b - a;
+            hNanos += c - b;
+            if (exact >= 0 && cost >= 0) { exactCost += exact; routeCost += cost; }
+            if ((exact >= 0) != (cost >= 0)) missed++;
+        }
+        System.out.printf("Portal graph: %d clusters, %d portals, built in %.1f ms%n",
+                graph.clustersX * graph.clustersY, graph.getPortalCount(), buildMs);
+        System.out.printf("%d point-to-point routes: A* %.1f µs/route, hierarchical %.1f µs/route, route cost +%.1f%%, reachability mismatches %d%n",
+                queries, aNanos / 1e3 / queries, hNanos / 1e3 / queries, 100.0 * (routeCost - exactCost) / Math.max(1, exactCost), missed);
+
+        // Incremental update: one more room through the normal placement path, in each gap
+        placer.activeTemplate = new RoomTemplate(RoomType.KITCHEN, 10, 8);
+        for (int w = 0; w < 5; w++) { // warm-up: place and undo, so the measured runs are compiled
+            placer.placeAt(holeX, holeY);
+            fields.prepareAll();
+            placer.undo();
+            fields.prepareAll();
+            graph.sync();
+        }
+        placeOne(placer, fields, graph, holeX, holeY, nearestGoal(goals, holeX, holeY));
+        placeOne(placer, fields, graph, far.x, far.y, farDistance);
+    }
+
+    /** Places the active template at (x, y), brings the fields and portal graph up to date, prints the cost. */
+    private static void placeOne(RoomPlacementSystem placer, FlowFieldCache fields, ClusterGraph graph, int x, int y, int goalDistance) {
+        int buildsBefore = fields.getBuilds(), repairsBefore = fields.getRepairs();
+        long cellsBefore = fields.getCellsRepaired();
+        long p0 = System.nanoTime();
+        placer.placeAt(x, y);
+        int affected = fields.sync();
+        fields.prepareAll();
+        double fieldMs = (System.nanoTime() - p0) / 1e6;
+        long p1 = System.nanoTime();
+        int clusters = graph.sync();
+        double graphMs = (System.nanoTime() - p1) / 1e6;
+
+        // Repaired fields must match fields built from scratch, cell for cell
+        NavGrid nav = fields.getGrid();
+        FlowFieldCache fresh = new FlowFieldCache(nav);
+        long mismatches = 0;
+        for (int k = 0; k < fields.size(); k++) {
+            FlowField f = fields.get(k), g = fresh.get(fresh.addGoal(f.goalX0, f.goalY0, f.goalX1, f.goalY1));
+            for (int cy = 0; cy < nav.height(); cy++) {
+                for (int cx = 0; cx < nav.width(); cx++) {
+                    if (f.getCost(cx, cy) != g.getCost(cx, cy) || f.next(cx, cy) != g.next(cx, cy)) mismatches++;
+                }
+            }
+        }
+        System.out.printf("placeAt(%d, %d), %d cells from the nearest goal: %d of %d fields affected, %d repaired "
+                + "(%d cells recomputed), %d rebuilt, in %.2f ms; %d cells differ from a fresh build; "
+                + "%d clusters rebuilt in %.2f ms%n",
+                x, y, goalDistance, affected, fields.size(), fields.getRepairs() - repairsBefore,
+                fields.getCellsRepaired() - cellsBefore, fields.getBuilds() - buildsBefore, fieldMs, mismatches,
+                clusters, graphMs);
+    }
+
+    private static int nearestGoal(int[] goals, int x, int y) {
+        int d = Integer.MAX_VALUE;
+        for (int k = 0; k < goals.length; k += 4) d = Math.min(d, Math.max(Math.abs(x - goals[k]), Math.abs(y - goals[k + 1])));
+        return d;
+    }
+
+    /**
+     * Routes N random entities to random goals both ways and prints the times. The flow-field
+     * time includes building every field once; each entity then walks its field to the goal.
+     */
+    private static void compare(NavGrid nav, FlowFieldCache fields, int[] goals) {
+        GridAStar astar = new GridAStar(nav);
+        int goalCount = goals.length / 4;
+        for (int n : ENTITIES) {
+            SplittableRandom rng = new SplittableRandom(n);
+            int[] starts = randomFree(nav, n, rng);
+            int[] targets = new int[n];
+            for (int i = 0; i < n; i++) targets[i] = rng.nextInt(goalCount);
+
+            // Flow fields: build every goal's field from scratch, then walk each entity home
+            FlowFieldCache fresh = new FlowFieldCache(nav);
+            for (int k = 0; k < goalCount; k++) fresh.addGoal(goals[k * 4], goals[k * 4 + 1], goals[k * 4 + 2], goals[k * 4 + 3]);
+            long t0 = System.nanoTime();
+            fresh.prepareAll();
+            long t1 = System.nanoTime();
+            long steps = 0;
+            for (int i = 0; i < n; i++) {
+                FlowField f = fresh.get(targets[i]);
+                for (int c = starts[i]; (c = f.next(c % nav.width(), c / nav.width())) >= 0; ) steps++;
+            }
+            long t2 = System.nanoTime();
+
+            // Per-entity A*
+            int mismatches = 0, unreachable = 0;
+            int expandedBefore = astar.getExpanded();
+            long aStart = System.nanoTime();
+            IntArray path = new IntArray();
+            for (int i = 0; i < n; i++) {
+                int g = targets[i] * 4, s = starts[i];
+                path.clear();
+                int cost = astar.findPath(s % nav.width(), s / nav.width(), goals[g], goals[g + 1], goals[g + 2], goals[g + 3], path);
+                int flow = fresh.get(targets[i]).getCost(s % nav.width(), s / nav.width());
+                if (cost < 0) unreachable++;
+                if ((cost < 0 ? FlowField.UNREACHABLE : cost) != flow) mismatches++;
+            }
+            long aEnd = System.nanoTime();
+
+            System.out.printf("%6d entities: flow fields %.2f ms (build %.2f + walk %.2f, %d steps), per-entity A* %.2f ms"
+                    + " (%d expanded), %d unreachable, cost mismatches %d%n",
+                    n, (t2 - t0) / 1e6, (t1 - t0) / 1e6, (t2 - t1) / 1e6, steps,
+                    (aEnd - aStart) / 1e6, astar.getExpanded() - expandedBefore, unreachable, mismatches);
+        }
+        fields.prepareAll();
+    }
+
+    private static int[] randomFree(NavGrid nav, int n, SplittableRandom rng) {
+        int[] cells = new int[n];
+        for (int i = 0; i < n; ) {
+            int x = rng.nextInt(nav.width()), y = rng.nextInt(nav.height());
+            if (!nav.isBlocked(x, y)) cells[i++] = y * nav.width() + x;
+        }
+        return cells;
+    }
+}
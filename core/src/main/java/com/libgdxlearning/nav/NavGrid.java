@@ -0,0 +1,29 @@
+package com.libgdxlearning.nav;
+
+import com.libgdxlearning.world.Grid;
+
+/**
+ * Walkable cells as seen by the navigation code: a width × height grid where each cell is free or
+ * blocked, plus change counters so cached fields and portal graphs can tell what moved.
+ *
+ * Cells are grouped into square regions the size of a Grid chunk. A region's version is bumped
+ * whenever one of its cells changes; static grids keep every version at 0.
+ */
+public interface NavGrid {
+
+    /** Region side as a shift (regions match Grid chunks). */
+    int REGION_SHIFT = Grid.CHUNK_SHIFT;
+    int REGION_SIZE  = 1 << REGION_SHIFT;
+
+    int width();
+    int height();
+
+    /** True if the cell cannot be entered. Cells outside the grid are blocked. */
+    boolean isBlocked(int x, int y);
+
+    /** Version of region (rx, ry), bumped on every change to one of its cells. */
+    int regionVersion(int rx, int ry);
+
+    /** Bumped on every change anywhere; lets caches skip the per-region diff when nothing moved. */
+    int modCount();
+}
@@ -0,0 +1,55 @@
+package com.libgdxlearning.nav;
+
+/**
+ * The 8-way move set shared by every search in this package. Costs are small integers
+ * (5 straight, 7 diagonal ≈ 5·√2) so searches can use bucket queues and exact comparisons.
+ */
+final class Steps {
+
+    static final int ORTHO = 5;
+    static final int DIAG  = 7;
+
+    /** Directions 0-3 are straight, 4-7 diagonal, so scans in order prefer straight moves. */
+    static final int[] DX = { 1, 0, -1,  0, 1, -1, -1,  1 };
+    static final int[] DY = { 0, 1,  0, -1, 1,  1, -1, -1 };
+
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /** STEPS[mask] has bit d set when direction d is a legal step given free-neighbour bits {@code mask}. */
+    private static final byte[] STEPS = new byte[256];
+    static {
+        for (int mask = 0; mask < 256; mask++) {
+            int legal = mask & 0x0F;
+            if ((mask & 0x10) != 0 && (mask & 0x03) == 0x03) legal |= 0x10; // (+1,+1) needs E and N
+            if ((mask & 0x20) != 0 && (mask & 0x06) == 0x06) legal |= 0x20; // (-1,+1) needs N and W
+            if ((mask & 0x40) != 0 && (mask & 0x0C) == 0x0C) legal |= 0x40; // (-1,-1) needs W and S
+            if ((mask & 0x80) != 0 && (mask & 0x09) == 0x09) legal |= 0x80; // (+1,-1) needs S and E
+            STEPS[mask] = (byte) legal;
+        }
+    }
+
+    private Steps() {}
+
+    /**
+     * Bit d set for every legal step from free cell (x, y), from one read per neighbour.
+     * Diagonal steps need both straight neighbours free, so paths never cut a wall corner.
+     */
+    static int legalSteps(NavGrid grid, int x, int y) {
+        int free = 0;
+        for (int d = 0; d < 8; d++) {
+            if (!grid.isBlocked(x + DX[d], y + DY[d])) free |= 1 << d;
+        }
+        return STEPS[free] & 0xFF;
+    }
+
+    static int cost(int d) {
+        return d < 4 ? ORTHO : DIAG;
+    }
+
+    /** Octile distance in step costs: a consistent A* heuristic for this move set. */
+    static int octile(int dx, int dy) {
+        dx = Math.abs(dx);
+        dy = Math.abs(dy);
+        return dx < dy ? DIAG * dx + ORTHO * (dy - dx) : DIAG * dy + ORTHO * (dx - dy);
+    }
+}
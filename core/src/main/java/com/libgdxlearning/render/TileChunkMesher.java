@@ -0,0 +1,66 @@
+package com.libgdxlearning.render;
+
+import com.badlogic.gdx.graphics.Color;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+/**
+ * Builds the placed-tile geometry of one grid chunk as coloured quads.
+ * Pure CPU work (no GL), so it can run headless.
+ *
+ * Vertex layout: x, y, packed colour (3 floats); 4 vertices per quad, in cell order.
+ */
+public class TileChunkMesher {
+
+    public static final int FLOATS_PER_VERTEX = 3;
+    public static final int FLOATS_PER_QUAD   = 4 * FLOATS_PER_VERTEX;
+    public static final int MAX_QUADS         = Grid.CHUNK_SIZE * Grid.CHUNK_SIZE;
+
+    // Tile colours
+    private static final Color COL_FLOOR_WOOD    = new Color(0.60f, 0.45f, 0.25f, 1f);
+    private static final Color COL_FLOOR_KITCHEN = new Color(0.50f, 0.55f, 0.70f, 1f);
+    private static final Color COL_WALL_WOOD     = new Color(0.35f, 0.25f, 0.15f, 1f);
+    private static final Color COL_DOOR_WOOD     = new Color(0.80f, 0.60f, 0.20f, 1f);
+
+    /** Packed colour per TileType ordinal. */
+    private static final float[] PACKED = new float[TileType.values().length];
+    static {
+        for (TileType t : TileType.values()) PACKED[t.ordinal()] = tileColor(t).toFloatBits();
+    }
+
+    public static Color tileColor(TileType type) {
+        switch (type) {
+            case FLOOR_WOOD:    return COL_FLOOR_WOOD;
+            case FLOOR_KITCHEN: return COL_FLOOR_KITCHEN;
+            case WALL_WOOD:     return COL_WALL_WOOD;
+            case DOOR_WOOD:     return COL_DOOR_WOOD;
+            default:            return Color.BLACK;
+        }
+    }
+
+    /**
+     * Writes one quad per non-EMPTY cell of chunk (cx,cy) into {@code out}, positioned in
+     * pixels at {@code tilePx} per cell. {@code out} must hold MAX_QUADS * FLOATS_PER_QUAD floats.
+     * Returns the number of quads written.
+     */
+    public static int build(Grid grid, int cx, int cy, float tilePx, float[] out) {
+        int x0 = cx << Grid.CHUNK_SHIFT, x1 = Math.min(grid.width,  x0 + Grid.CHUNK_SIZE);
+        int y0 = cy << Grid.CHUNK_SHIFT, y1 = Math.min(grid.height, y0 + Grid.CHUNK_SIZE);
+        int quads = 0;
+        int o = 0;
+        for (int gy = y0; gy < y1; gy++) {
+            for (int gx = x0; gx < x1; gx++) {
+                TileType t = grid.getType(gx, gy);
+                if (t == TileType.EMPTY) continue;
+                float c  = PACKED[t.ordinal()];
+                float px = gx * tilePx, py = gy * tilePx;
+                out[o++] = px;          out[o++] = py;          out[o++] = c;
+                out[o++] = px + tilePx; out[o++] = py;          out[o++] = c;
+                out[o++] = px + tilePx; out[o++] = py + tilePx; out[o++] = c;
+                out[o++] = px;          out[o++] = py + tilePx; out[o++] = c;
+                quads++;
+            }
+        }
+        return quads;
+    }
+}
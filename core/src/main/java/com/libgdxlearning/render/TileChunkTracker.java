@@ -0,0 +1,67 @@
+package com.libgdxlearning.render;
+
+import com.badlogic.gdx.utils.IntIntMap;
+import com.libgdxlearning.world.Grid;
+
+/**
+ * Which grid chunks have up-to-date tile geometry, and how many quads each holds.
+ * A chunk is re-meshed only when its {@link Grid#chunkVersion} moved since the last build.
+ * No GL: {@link TileLayerCache} uploads what {@link #update} hands it into its Meshes, and
+ * TileChunkTrackerCheck drives it headless.
+ *
+ * State is kept only for chunks that have been written: a chunk still at version 0 was never
+ * written, so it is empty and needs no build. Memory follows what was built, not the grid size.
+ */
+public class TileChunkTracker {
+
+    /** Receives the geometry of a re-meshed chunk; {@code quads} may be 0 if it was emptied. */
+    public interface Upload {
+        void upload(int chunk, float[] vertices, int quads);
+    }
+
+    private final Grid grid;
+    private final float tilePx;
+
+    /** Chunk index → version its geometry was built from; absent means version 0 (empty). */
+    private final IntIntMap builtVersion = new IntIntMap();
+    /** Chunk index → quads in its geometry; absent means 0. */
+    private final IntIntMap quadCounts = new IntIntMap();
+    private final float[] scratch = new float[TileChunkMesher.MAX_QUADS * TileChunkMesher.FLOATS_PER_QUAD];
+
+    public TileChunkTracker(Grid grid, float tilePx) {
+        this.grid   = grid;
+        this.tilePx = tilePx;
+    }
+
+    /**
+     * Re-meshes the chunks in [cx0, cx1] × [cy0, cy1] (inclusive, in range) whose version
+     * moved, handing each to {@code upload}. Returns how many were re-meshed.
+     */
+    public int update(int cx0, int cy0, int cx1, int cy1, Upload upload) {
+        int rebuilt = 0;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int version = grid.chunkVersion(cx, cy);
+                int i = cy * grid.chunksX + cx;
+                if (builtVersion.get(i, 0) == version) continue;
+                int quads = TileChunkMesher.build(grid, cx, cy, tilePx, scratch);
+                builtVersion.put(i, version);
+                if (quads == 0) quadCounts.remove(i, 0);
+                else            quadCounts.put(i, quads);
+                upload.upload(i, scratch, quads);
+                rebuilt++;
+            }
+        }
+        return rebuilt;
+    }
+
+    /** Quads in the geometry of chunk {@code chunk} (cy * chunksX + cx) as last built. */
+    public int quadCount(int chunk) {
+        return quadCounts.get(chunk, 0);
+    }
+
+    /** Chunks whose geometry has been built at least once. */
+    public int trackedChunks() {
+        return builtVersion.size;
+    }
+}
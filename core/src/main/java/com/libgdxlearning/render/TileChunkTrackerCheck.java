@@ -0,0 +1,153 @@
+package com.libgdxlearning.render;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.rooms.RoomType;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Headless check of the chunk re-meshing behind {@link TileLayerCache}, through
+ * {@link TileChunkTracker} with the whole grid in view; needs no GL context.
+ *
+ * On a dense 512×512 grid and a chunked 4096×4096 one, with random rooms of 4 to 40 cells a side:
+ * - the first frame after building meshes exactly the chunks that were written;
+ * - 100 steady-state frames re-mesh 0 chunks;
+ * - each placeAt(), and each undo(), re-meshes exactly the chunks the room covers;
+ * - every chunk's quad count equals its non-EMPTY cells, and each upload carries that many quads.
+ *
+ * Usage: {@code ./gradlew core:runTileChunkCheck}
+ */
+public class TileChunkTrackerCheck {
+
+    private static final int ROOMS = 300;
+    private static final int PLACEMENTS = 200;
+    private static final int UNDOS = 50;
+    private static final int STEADY_FRAMES = 100;
+
+    public static void main(String[] args) {
+        boolean ok = run(new Grid(512, 512), new SplittableRandom(6));
+        ok &= run(new Grid(4096, 4096, true), new SplittableRandom(6));
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(Grid grid, SplittableRandom rng) {
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        TileChunkTracker chunks = new TileChunkTracker(grid, WorldView.TILE_PX);
+        Recorder rec = new Recorder(grid);
+        int cx1 = grid.chunksX - 1, cy1 = grid.chunksY - 1;
+
+        for (int r = 0; r < ROOMS; r++) place(placer, rng, null);
+        int written = 0;
+        for (int cy = 0; cy <= cy1; cy++) {
+            for (int cx = 0; cx <= cx1; cx++) if (grid.chunkVersion(cx, cy) != 0) written++;
+        }
+        int first = chunks.update(0, 0, cx1, cy1, rec);
+
+        long steadyRebuilt = 0, t0 = System.nanoTime();
+        for (int f = 0; f < STEADY_FRAMES; f++) steadyRebuilt += chunks.update(0, 0, cx1, cy1, rec);
+        double steadyUs = (System.nanoTime() - t0) / 1e3 / STEADY_FRAMES;
+
+        // Single placements, then undoing the last few: each re-meshes the room's chunks only.
+        int[] rects = new int[4 * PLACEMENTS];
+        IntSet expected = new IntSet();
+        long editMismatches = 0, editRebuilt = 0;
+        int placed = 0;
+        while (placed < PLACEMENTS) {
+            if (!place(placer, rng, rects, placed)) continue;
+            rec.uploaded.clear();
+            editRebuilt += chunks.update(0, 0, cx1, cy1, rec);
+            if (!sameChunks(grid, rects, placed, rec.uploaded, expected)) editMismatches++;
+            placed++;
+        }
+        for (int u = 0; u < UNDOS; u++) {
+            placer.undo();
+            rec.uploaded.clear();
+            editRebuilt += chunks.update(0, 0, cx1, cy1, rec);
+            if (!sameChunks(grid, rects, PLACEMENTS - 1 - u, rec.uploaded, expected)) editMismatches++;
+        }
+
+        long quadMismatches = rec.quadMismatches;
+        for (int cy = 0; cy <= cy1; cy++) {
+            for (int cx = 0; cx <= cx1; cx++) {
+                if (chunks.quadCount(cy * grid.chunksX + cx) != nonEmpty(grid, cx, cy)) quadMismatches++;
+            }
+        }
+
+        boolean ok = first == written && steadyRebuilt == 0 && editMismatches == 0 && quadMismatches == 0;
+        System.out.printf("%s %d×%d, %d rooms: first frame meshed %d of %d written chunks; %d steady frames "
+                + "(%.1f us each) re-meshed %d; %d placements + %d undos re-meshed %d chunks, %d not exactly "
+                + "the room's; %d quad-count mismatches; %d chunks tracked of %d%n",
+                grid.isChunked() ? "chunked" : "dense", grid.width, grid.height, ROOMS, first, written,
+                STEADY_FRAMES, steadyUs, steadyRebuilt, PLACEMENTS, UNDOS, editRebuilt, editMismatches,
+                quadMismatches, chunks.trackedChunks(), grid.chunksX * grid.chunksY);
+        return ok;
+    }
+
+    /** Places a random room somewhere it fits, retrying until it does. */
+    private static void place(RoomPlacementSystem placer, SplittableRandom rng, int[] rects) {
+        while (!place(placer, rng, rects, 0)) { }
+    }
+
+    /** Tries a random room at a random spot; on success records its rect at slot {@code k} of {@code rects}. */
+    private static boolean place(RoomPlacementSystem placer, SplittableRandom rng, int[] rects, int k) {
+        Grid grid = placer.getGrid();
+        RoomTemplate t = new RoomTemplate(RoomType.MAIN_BAR, 4 + rng.nextInt(37), 4 + rng.nextInt(37));
+        int x = rng.nextInt(grid.width - t.width + 1), y = rng.nextInt(grid.height - t.height + 1);
+        placer.activeTemplate = t;
+        if (!placer.canPlaceAt(x, y)) return false;
+        placer.placeAt(x, y);
+        if (rects != null) {
+            rects[4 * k] = x;
+            rects[4 * k + 1] = y;
+            rects[4 * k + 2] = x + t.width;
+            rects[4 * k + 3] = y + t.height;
+        }
+        return true;
+    }
+
+    /** True if {@code uploaded} holds exactly the chunks overlapped by rect {@code k}. */
+    private static boolean sameChunks(Grid grid, int[] rects, int k, IntArray uploaded, IntSet expected) {
+        expected.clear();
+        for (int cy = rects[4 * k + 1] >> Grid.CHUNK_SHIFT; cy <= (rects[4 * k + 3] - 1) >> Grid.CHUNK_SHIFT; cy++) {
+            for (int cx = rects[4 * k] >> Grid.CHUNK_SHIFT; cx <= (rects[4 * k + 2] - 1) >> Grid.CHUNK_SHIFT; cx++) {
+                expected.add(cy * grid.chunksX + cx);
+            }
+        }
+        if (uploaded.size != expected.size) return false;
+        for (int i = 0; i < uploaded.size; i++) if (!expected.contains(uploaded.get(i))) return false;
+        return true;
+    }
+
+    private static int nonEmpty(Grid grid, int cx, int cy) {
+        int n = 0;
+        int x0 = cx << Grid.CHUNK_SHIFT, x1 = Math.min(grid.width,  x0 + Grid.CHUNK_SIZE);
+        int y0 = cy << Grid.CHUNK_SHIFT, y1 = Math.min(grid.height, y0 + Grid.CHUNK_SIZE);
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) if (grid.getType(x, y) != TileType.EMPTY) n++;
+        }
+        return n;
+    }
+
+    /** Records which chunks were uploaded and checks each upload's quad count against the grid. */
+    private static class Recorder implements TileChunkTracker.Upload {
+        final Grid grid;
+        final IntArray uploaded = new IntArray();
+        long quadMismatches;
+
+        Recorder(Grid grid) { this.grid = grid; }
+
+        @Override
+        public void upload(int chunk, float[] vertices, int quads) {
+            uploaded.add(chunk);
+            if (quads != nonEmpty(grid, chunk % grid.chunksX, chunk / grid.chunksX)) quadMismatches++;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.libgdxlearning.render;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.libgdxlearning.world.Grid;
+
+/**
+ * Keeps one static Mesh per grid chunk holding that chunk's placed tiles.
+ * {@link TileChunkTracker} decides which chunks to re-mesh (only those whose
+ * {@link Grid#chunkVersion} moved), so a steady-state frame costs one draw call per visible
+ * non-empty chunk.
+ */
+public class TileLayerCache implements Disposable {
+
+    private static final short[] INDICES = new short[TileChunkMesher.MAX_QUADS * 6];
+    static {
+        for (int q = 0, i = 0; q < TileChunkMesher.MAX_QUADS; q++) {
+            short v = (short) (q * 4);
+            INDICES[i++] = v;
+            INDICES[i++] = (short) (v + 1);
+            INDICES[i++] = (short) (v + 2);
+            INDICES[i++] = (short) (v + 2);
+            INDICES[i++] = (short) (v + 3);
+            INDICES[i++] = v;
+        }
+    }
+
+    private final Grid grid;
+    private final ShaderProgram shader;
+    private final TileChunkTracker chunks;
+    private final TileChunkTracker.Upload upload = this::upload;
+
+    /** Chunk index → mesh; created the first time the chunk has tiles. */
+    private final IntMap<Mesh> meshes = new IntMap<>();
+
+    // Per-frame counters
+    private int rebuiltLastFrame;
+    private int drawnLastFrame;
+
+    public TileLayerCache(Grid grid, float tilePx) {
+        this.grid = grid;
+        shader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
+        chunks = new TileChunkTracker(grid, tilePx);
+    }
+
+    /**
+     * Re-meshes dirty chunks overlapping cells [cellX0, cellX1) × [cellY0, cellY1)
+     * and draws them with the given projection.
+     */
+    public void render(Matrix4 projection, int cellX0, int cellY0, int cellX1, int cellY1) {
+        rebuiltLastFrame = 0;
+        drawnLastFrame   = 0;
+        if (cellX1 <= cellX0 || cellY1 <= cellY0) return;
+
+        int cx0 = Math.max(0, cellX0 >> Grid.CHUNK_SHIFT);
+        int cy0 = Math.max(0, cellY0 >> Grid.CHUNK_SHIFT);
+        int cx1 = Math.min(grid.chunksX - 1, (cellX1 - 1) >> Grid.CHUNK_SHIFT);
+        int cy1 = Math.min(grid.chunksY - 1, (cellY1 - 1) >> Grid.CHUNK_SHIFT);
+        rebuiltLastFrame = chunks.update(cx0, cy0, cx1, cy1, upload);
+
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", projection);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int i = cy * grid.chunksX + cx;
+                int quads = chunks.quadCount(i);
+                if (quads == 0) continue;
+                meshes.get(i).render(shader, GL20.GL_TRIANGLES, 0, quads * 6);
+                drawnLastFrame++;
+            }
+        }
+    }
+
+    private void upload(int i, float[] vertices, int quads) {
+        if (quads == 0) return; // an emptied chunk keeps its mesh for when it is built on again
+        Mesh mesh = meshes.get(i);
+        if (mesh == null) {
+            mesh = new Mesh(true, TileChunkMesher.MAX_QUADS * 4, INDICES.length,
+                new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(Usage.ColorPacked, 4, GL20.GL_UNSIGNED_BYTE, true, ShaderProgram.COLOR_ATTRIBUTE));
+            mesh.setIndices(INDICES);
+            meshes.put(i, mesh);
+        }
+        mesh.setVertices(vertices, 0, quads * TileChunkMesher.FLOATS_PER_QUAD);
+    }
+
+    /** Chunks re-meshed during the last render() call. */
+    public int getRebuiltLastFrame() { return rebuiltLastFrame; }
+
+    /** Draw calls issued during the last render() call. */
+    public int getDrawnLastFrame() { return drawnLastFrame; }
+
+    @Override
+    public void dispose() {
+        for (Mesh m : meshes.values()) m.dispose();
+        shader.dispose();
+    }
+}
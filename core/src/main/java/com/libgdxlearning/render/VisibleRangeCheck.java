@@ -0,0 +1,90 @@
+package com.libgdxlearning.render;
+
+import java.util.SplittableRandom;
+
+/**
+ * Headless check of {@link WorldView#visibleCellRange} on a 10,000×10,000 grid; needs no GL context.
+ *
+ * For random pans, zooms and viewport sizes (including views hanging off every edge of the grid):
+ * - the range matches the cells screenToGrid() reports under the viewport's corner pixels: the
+ *   bottom-left corner's cell is the minimum, the top-right corner's cell is the last one in
+ *   range (or the one before it, when that pixel straddles a cell boundary), and all four corner
+ *   cells that lie on the grid are inside the range;
+ * - the number of cells in range is the same as for the same view over grids of other sizes
+ *   that contain it, and never exceeds what the viewport can show at that zoom.
+ *
+ * Usage: {@code ./gradlew core:runVisibleRangeCheck}
+ */
+public class VisibleRangeCheck {
+
+    private static final int GRID = 10_000;
+    private static final int VIEWS = 200_000;
+
+    public static void main(String[] args) {
+        SplittableRandom rng = new SplittableRandom(7);
+        int[] range = new int[4], other = new int[4];
+        long cornerMismatches = 0, sizeMismatches = 0, maxCells = 0;
+
+        for (int v = 0; v < VIEWS; v++) {
+            int vpW = 1 + rng.nextInt(2560), vpH = 1 + rng.nextInt(1440);
+            float zoom = WorldView.MIN_ZOOM + (float) rng.nextDouble() * (WorldView.MAX_ZOOM - WorldView.MIN_ZOOM);
+            float world = GRID * WorldView.TILE_PX;
+            float panX = (float) (rng.nextDouble() * (world + 2 * vpW * zoom)) - vpW * zoom; // past both edges too
+            float panY = (float) (rng.nextDouble() * (world + 2 * vpH * zoom)) - vpH * zoom;
+
+            WorldView.visibleCellRange(panX, panY, zoom, vpW, vpH, GRID, GRID, range);
+            if (!matchesCorners(range, panX, zoom, vpW, 0) || !matchesCorners(range, panY, zoom, vpH, 1)) cornerMismatches++;
+            for (int lx : new int[]{ 0, vpW - 1 }) {
+                for (int ly : new int[]{ 0, vpH - 1 }) {
+                    int gx = WorldView.localToCell(panX, zoom, lx), gy = WorldView.localToCell(panY, zoom, ly);
+                    boolean onGrid = gx >= 0 && gy >= 0 && gx < GRID && gy < GRID; // screenToGrid() != null
+                    if (onGrid && (gx < range[0] || gx >= range[2] || gy < range[1] || gy >= range[3])) cornerMismatches++;
+                }
+            }
+
+            // The same view over a grid just big enough to contain it, and over one four times wider.
+            long cells = cells(range);
+            maxCells = Math.max(maxCells, cells);
+            if (range[0] > 0 && range[1] > 0 && range[2] < GRID && range[3] < GRID) {
+                WorldView.visibleCellRange(panX, panY, zoom, vpW, vpH, range[2] + 1, range[3] + 1, other);
+                if (cells(other) != cells) sizeMismatches++;
+                WorldView.visibleCellRange(panX, panY, zoom, vpW, vpH, 4 * GRID, 4 * GRID, other);
+                if (cells(other) != cells) sizeMismatches++;
+            }
+            long bound = (long) (Math.ceil(vpW * zoom / WorldView.TILE_PX) + 1) * (long) (Math.ceil(vpH * zoom / WorldView.TILE_PX) + 1);
+            if (cells > bound) sizeMismatches++;
+        }
+
+        int[] full = new int[4];
+        WorldView.visibleCellRange(0, 0, WorldView.MAX_ZOOM, 2560, 1440, GRID, GRID, full);
+        System.out.printf("%d views over a %d×%d grid: %d corner mismatches, %d grid-size dependencies; "
+                + "at most %d cells in range (2560×1440 at max zoom: %d of %d)%n",
+                VIEWS, GRID, GRID, cornerMismatches, sizeMismatches, maxCells, cells(full), (long) GRID * GRID);
+        if (cornerMismatches != 0 || sizeMismatches != 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * One axis (0 = columns, 1 = rows): the minimum is the cell under the first pixel and the
+     * maximum is one past the cell under the last pixel, or two past it when that pixel's far edge
+     * reaches into the next cell; both clamped to the grid like the range itself.
+     */
+    private static boolean matchesCorners(int[] range, float pan, float zoom, int vp, int axis) {
+        int first = WorldView.localToCell(pan, zoom, 0);
+        int last  = WorldView.localToCell(pan, zoom, vp - 1);
+        int min = range[axis], max = range[axis + 2];
+        if (min != clamp(first)) return false;
+        boolean straddles = WorldView.localToCell(pan, zoom, vp) > last;
+        return max == clamp(last + 1) || (straddles && max == clamp(last + 2));
+    }
+
+    private static int clamp(int cell) {
+        return Math.max(0, Math.min(GRID, cell));
+    }
+
+    private static long cells(int[] range) {
+        return (long) Math.max(0, range[2] - range[0]) * Math.max(0, range[3] - range[1]);
+    }
+}
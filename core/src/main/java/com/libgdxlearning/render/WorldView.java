@@ -1,43 +1,58 @@
 package com.libgdxlearning.render;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.libgdxlearning.rooms.RoomPlacementSystem;
 import com.libgdxlearning.world.Grid;
-import com.libgdxlearning.world.tiles.TileCell;
-import com.libgdxlearning.world.tiles.TileType;
 
 /**
  * Scene2D Actor that renders the world grid and room placement preview.
  * Breaks out of the Stage's Batch to draw with ShapeRenderer, then resumes.
+ *
+ * The view can be panned and zoomed. World units are pixels at zoom 1 (TILE_PX per cell);
+ * (panX, panY) is the world point shown at the actor's bottom-left corner, and one screen
+ * pixel covers {@code zoom} world units. Only the cells inside the camera frustum are drawn.
  */
 public class WorldView extends Actor {
 
     /** Pixels rendered per grid cell (screen scale). */
     public static final float TILE_PX = 64f;
 
+    public static final float MIN_ZOOM = 0.25f;
+    public static final float MAX_ZOOM = 8f;
+
     private final Grid grid;
     private final RoomPlacementSystem placer;
     private final ShapeRenderer shapes;
     private final OrthographicCamera camera;
+    private final TileLayerCache tileLayer;
+
+    // View state
+    private float panX, panY;
+    private float zoom = 1f;
+
+    // Scratch to avoid per-frame / per-event allocations.
+    private final Vector2 tmp = new Vector2();
+    private final int[] visible = new int[4];
 
     public WorldView(Grid grid, RoomPlacementSystem placer) {
         this.grid   = grid;
         this.placer = placer;
         shapes = new ShapeRenderer();
         camera = new OrthographicCamera();
+        tileLayer = new TileLayerCache(grid, TILE_PX);
     }
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
         // Actor's bottom-left in stage coords (ScreenViewport: stage == screen pixels).
-        Vector2 pos = localToStageCoordinates(new Vector2(0, 0));
+        Vector2 pos = localToStageCoordinates(tmp.set(0, 0));
         int vpX = (int) pos.x;
         int vpY = (int) pos.y;
         int vpW = (int) getWidth();
@@ -52,45 +67,40 @@ public class WorldView extends Actor {
         Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
         Gdx.gl.glScissor(vpX, vpY, vpW, vpH);
 
-        // Camera covers exactly the actor's local area (1 unit = 1 pixel).
+        // Camera covers the actor's area, offset by the pan and scaled by the zoom.
         camera.setToOrtho(false, vpW, vpH);
+        camera.zoom = zoom;
+        camera.position.set(panX + vpW * zoom / 2f, panY + vpH * zoom / 2f, 0f);
         camera.update();
         shapes.setProjectionMatrix(camera.combined);
 
         // --- Background ---
         shapes.begin(ShapeRenderer.ShapeType.Filled);
         shapes.setColor(0.18f, 0.22f, 0.18f, 1f);
-        shapes.rect(0, 0, vpW, vpH);
+        shapes.rect(panX, panY, vpW * zoom, vpH * zoom);
         shapes.end();
 
         // --- Grid lines (only visible tiles) ---
-        int colMax = Math.min(grid.width,  (int)(vpW / TILE_PX) + 2);
-        int rowMax = Math.min(grid.height, (int)(vpH / TILE_PX) + 2);
-
-        shapes.begin(ShapeRenderer.ShapeType.Line);
-        shapes.setColor(0.28f, 0.33f, 0.28f, 1f);
-        for (int gx = 0; gx <= colMax; gx++) {
-            float px = gx * TILE_PX;
-            shapes.line(px, 0, px, rowMax * TILE_PX);
-        }
-        for (int gy = 0; gy <= rowMax; gy++) {
-            float py = gy * TILE_PX;
-            shapes.line(0, py, colMax * TILE_PX, py);
-        }
-        shapes.end();
-
-        // --- Placed tiles ---
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        for (int gx = 0; gx < colMax && gx < grid.width; gx++) {
-            for (int gy = 0; gy < rowMax && gy < grid.height; gy++) {
-                TileCell c = grid.get(gx, gy);
-                if (c != null && c.type != TileType.EMPTY) {
-                    shapes.setColor(tileColor(c.type));
-                    shapes.rect(gx * TILE_PX, gy * TILE_PX, TILE_PX, TILE_PX);
-                }
+        visibleCellRange(panX, panY, zoom, vpW, vpH, grid.width, grid.height, visible);
+        int colMin = visible[0], rowMin = visible[1];
+        int colMax = visible[2], rowMax = visible[3];
+
+        if (colMax > colMin && rowMax > rowMin) {
+            shapes.begin(ShapeRenderer.ShapeType.Line);
+            shapes.setColor(0.28f, 0.33f, 0.28f, 1f);
+            for (int gx = colMin; gx <= colMax; gx++) {
+                float px = gx * TILE_PX;
+                shapes.line(px, rowMin * TILE_PX, px, rowMax * TILE_PX);
             }
+            for (int gy = rowMin; gy <= rowMax; gy++) {
+                float py = gy * TILE_PX;
+                shapes.line(colMin * TILE_PX, py, colMax * TILE_PX, py);
+            }
+            shapes.end();
         }
-        shapes.end();
+
+        // --- Placed tiles (cached per-chunk meshes; only dirty chunks are rebuilt) ---
+        tileLayer.render(camera.combined, colMin, rowMin, colMax, rowMax);
 
         // --- Preview overlay (semi-transparent) ---
         int hx = placer.hoverX;
@@ -117,20 +127,60 @@ public class WorldView extends Actor {
         batch.begin();
     }
 
-    // Cached tile colours to avoid per-frame allocations.
-    private static final Color COL_FLOOR_WOOD    = new Color(0.60f, 0.45f, 0.25f, 1f);
-    private static final Color COL_FLOOR_KITCHEN = new Color(0.50f, 0.55f, 0.70f, 1f);
-    private static final Color COL_WALL_WOOD     = new Color(0.35f, 0.25f, 0.15f, 1f);
-    private static final Color COL_DOOR_WOOD     = new Color(0.80f, 0.60f, 0.20f, 1f);
-
-    private Color tileColor(TileType type) {
-        switch (type) {
-            case FLOOR_WOOD:    return COL_FLOOR_WOOD;
-            case FLOOR_KITCHEN: return COL_FLOOR_KITCHEN;
-            case WALL_WOOD:     return COL_WALL_WOOD;
-            case DOOR_WOOD:     return COL_DOOR_WOOD;
-            default:            return Color.BLACK;
+    /**
+     * Writes the grid cells intersecting the camera frustum of a vpW×vpH pixel viewport, panned to
+     * (panX, panY) at the given zoom, into {@code out} as {colMin, rowMin, colMax, rowMax} (max
+     * exclusive, clamped to a gridW×gridH grid). The range size depends only on the viewport and
+     * zoom, never on the grid size. Pure, so it can be checked without a GL context.
+     */
+    public static void visibleCellRange(float panX, float panY, float zoom, float vpW, float vpH,
+                                        int gridW, int gridH, int[] out) {
+        float left   = panX,               bottom = panY;
+        float right  = panX + vpW * zoom,  top    = panY + vpH * zoom;
+        out[0] = MathUtils.clamp(MathUtils.floor(left   / TILE_PX), 0, gridW);
+        out[1] = MathUtils.clamp(MathUtils.floor(bottom / TILE_PX), 0, gridH);
+        out[2] = MathUtils.clamp(MathUtils.ceil(right   / TILE_PX), 0, gridW);
+        out[3] = MathUtils.clamp(MathUtils.ceil(top     / TILE_PX), 0, gridH);
+    }
+
+    /**
+     * Grid column (or row) under the actor-local pixel coordinate {@code local}, for a view panned
+     * to {@code pan} at the given zoom. Not clamped; screenToGrid() rejects cells off the grid.
+     */
+    public static int localToCell(float pan, float zoom, float local) {
+        return MathUtils.floor((pan + local * zoom) / TILE_PX);
+    }
+
+    /** Moves the view by the given amount of screen pixels (drag direction: content follows the pointer). */
+    public void pan(float screenDx, float screenDy) {
+        panX -= screenDx * zoom;
+        panY -= screenDy * zoom;
+    }
+
+    /**
+     * Multiplies the zoom by {@code factor} (clamped to MIN_ZOOM..MAX_ZOOM), keeping the world
+     * point under the given screen position fixed.
+     */
+    public void zoomAt(float factor, int screenX, int screenY) {
+        float newZoom = MathUtils.clamp(zoom * factor, MIN_ZOOM, MAX_ZOOM);
+        if (screenToLocal(screenX, screenY, tmp)) {
+            float wx = panX + tmp.x * zoom;
+            float wy = panY + tmp.y * zoom;
+            panX = wx - tmp.x * newZoom;
+            panY = wy - tmp.y * newZoom;
         }
+        zoom = newZoom;
+    }
+
+    public float getZoom() { return zoom; }
+    public float getPanX() { return panX; }
+    public float getPanY() { return panY; }
+
+    /** Sets the world point shown at the bottom-left corner and the zoom level. */
+    public void setView(float panX, float panY, float zoom) {
+        this.panX = panX;
+        this.panY = panY;
+        this.zoom = MathUtils.clamp(zoom, MIN_ZOOM, MAX_ZOOM);
     }
 
     /**
@@ -138,23 +188,36 @@ public class WorldView extends Actor {
      * Returns null if the pointer is outside this actor's bounds or off the grid.
      */
     public int[] screenToGrid(int screenX, int screenY) {
-        if (getStage() == null) return null;
+        if (!screenToLocal(screenX, screenY, tmp)) return null;
 
-        // Stage.screenToStageCoordinates handles the Y flip.
-        Vector2 stageCoords = getStage().screenToStageCoordinates(new Vector2(screenX, screenY));
-        Vector2 local = stageToLocalCoordinates(stageCoords);
-
-        if (local.x < 0 || local.y < 0 || local.x >= getWidth() || local.y >= getHeight()) {
-            return null;
-        }
-
-        int gx = (int)(local.x / TILE_PX);
-        int gy = (int)(local.y / TILE_PX);
+        int gx = localToCell(panX, zoom, tmp.x);
+        int gy = localToCell(panY, zoom, tmp.y);
         if (gx < 0 || gy < 0 || gx >= grid.width || gy >= grid.height) return null;
         return new int[]{gx, gy};
     }
 
+    /** True if the screen point (Gdx.input style) lies over this view. */
+    public boolean isOverView(int screenX, int screenY) {
+        return screenToLocal(screenX, screenY, tmp);
+    }
+
+    /** Screen → actor-local pixels into {@code out}; false if outside the actor's bounds. */
+    private boolean screenToLocal(int screenX, int screenY, Vector2 out) {
+        if (getStage() == null) return false;
+
+        // Stage.screenToStageCoordinates handles the Y flip.
+        getStage().screenToStageCoordinates(out.set(screenX, screenY));
+        stageToLocalCoordinates(out);
+        return out.x >= 0 && out.y >= 0 && out.x < getWidth() && out.y < getHeight();
+    }
+
+    /** Cached tile layer, exposing per-frame rebuild/draw counters. */
+    public TileLayerCache getTileLayer() {
+        return tileLayer;
+    }
+
     public void dispose() {
         shapes.dispose();
+        tileLayer.dispose();
     }
 }
@@ -0,0 +1,150 @@
+package com.libgdxlearning.rooms;
+
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.world.Grid;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless benchmark of {@link RoomPlacementSystem#placeAll} against the loop it replaces, one
+ * placeAt() per entry.
+ *
+ * Each scenario generates a scripted layout (random templates and positions, so some entries
+ * overlap each other, some land on rooms placed beforehand and some stick out of the grid),
+ * places it both ways on identically pre-built grids and times each. The outcome must match:
+ * every placeAll() result equals a brute-force classification of the entry, the entries placed
+ * are exactly those placeAt() placed, and both grids end with the same cells and the same rooms.
+ *
+ * Usage: {@code ./gradlew core:runPlaceAllBench}
+ */
+public class PlaceAllBenchmark {
+
+    private static final int RUNS = 5;
+    private static final RoomType[] TYPES = RoomType.values();
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        ok &= run("512×512 dense", 512, false, 5_000);
+        ok &= run("4096×4096 chunked", 4096, true, 40_000);
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String label, int size, boolean chunked, int entries) {
+        Array<RoomPlacement> layout = layout(size, entries, 3);
+        PlacementResult[] expected = expected(prebuilt(size, chunked).getGrid(), layout);
+        boolean same = true;
+        long loopNanos = 0, batchNanos = 0;
+        int placed = 0, undoSteps = 0;
+        int[] counts = new int[PlacementResult.values().length];
+
+        for (int run = 0; run <= RUNS; run++) { // run 0 is warm-up
+            RoomPlacementSystem loop  = prebuilt(size, chunked);
+            RoomPlacementSystem batch = prebuilt(size, chunked);
+
+            boolean[] placedByLoop = new boolean[entries];
+            long t0 = System.nanoTime();
+            for (int i = 0; i < entries; i++) {
+                RoomPlacement p = layout.get(i);
+                int rooms = loop.getRooms().size();
+                loop.activeTemplate = p.template;
+                loop.placeAt(p.x, p.y);
+                placedByLoop[i] = loop.getRooms().size() > rooms;
+            }
+            long t1 = System.nanoTime();
+            PlacementResult[] results = batch.placeAll(layout);
+            long t2 = System.nanoTime();
+
+            same &= Arrays.equals(results, expected);
+            for (int i = 0; i < entries; i++) same &= placedByLoop[i] == (results[i] == PlacementResult.PLACED);
+            same &= sameCells(loop.getGrid(), batch.getGrid()) && sameRooms(loop.getRooms(), batch.getRooms());
+            if (run == 0) continue;
+
+            loopNanos  += t1 - t0;
+            batchNanos += t2 - t1;
+            if (run == 1) {
+                for (PlacementResult r : results) counts[r.ordinal()]++;
+                placed = counts[PlacementResult.PLACED.ordinal()];
+                undoSteps = loop.getJournal().getUndoCount() - 1; // less the pre-built batch
+            }
+        }
+
+        double loopMs = loopNanos / 1e6 / RUNS, batchMs = batchNanos / 1e6 / RUNS;
+        System.out.printf("%s, %d entries: placeAt loop %.2f ms (%d undo steps), placeAll %.2f ms (1 undo step), %.1fx; "
+                + "%d placed, %d blocked, %d overlapping the batch, %d invalid; identical=%b%n",
+                label, entries, loopMs, undoSteps, batchMs, loopMs / batchMs, placed,
+                counts[PlacementResult.BLOCKED.ordinal()], counts[PlacementResult.OVERLAPS_BATCH.ordinal()],
+                counts[PlacementResult.INVALID.ordinal()], same);
+        return same;
+    }
+
+    /** Entries of 3..12 cells a side; one in twenty sticks out past the grid's right edge. */
+    private static Array<RoomPlacement> layout(int size, int entries, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        Array<RoomPlacement> layout = new Array<>(entries);
+        for (int i = 0; i < entries; i++) {
+            RoomTemplate t = new RoomTemplate(TYPES[rng.nextInt(TYPES.length)], 3 + rng.nextInt(10), 3 + rng.nextInt(10));
+            int x = rng.nextInt(size - t.width + 1), y = rng.nextInt(size - t.height + 1);
+            if (rng.nextInt(20) == 0) x = size - t.width + 1 + rng.nextInt(t.width - 1);
+            layout.add(new RoomPlacement(t, x, y));
+        }
+        return layout;
+    }
+
+    /** A placer on a grid that already holds a few hundred rooms, the same ones every time. */
+    private static RoomPlacementSystem prebuilt(int size, boolean chunked) {
+        RoomPlacementSystem placer = new RoomPlacementSystem(new Grid(size, size, chunked));
+        placer.placeAll(layout(size, size / 2, 1));
+        return placer;
+    }
+
+    /** Classifies each entry from its rectangle alone: the grid before the batch, then the earlier entries. */
+    private static PlacementResult[] expected(Grid grid, Array<RoomPlacement> layout) {
+        PlacementResult[] out = new PlacementResult[layout.size];
+        for (int i = 0; i < layout.size; i++) {
+            RoomPlacement p = layout.get(i);
+            int w = p.template.width, h = p.template.height;
+            if (p.x < 0 || p.y < 0 || p.x + w > grid.width || p.y + h > grid.height) {
+                out[i] = PlacementResult.INVALID;
+            } else if (!grid.isRegionEmpty(p.x, p.y, w, h)) {
+                out[i] = PlacementResult.BLOCKED;
+            } else {
+                out[i] = PlacementResult.PLACED;
+                for (int j = 0; j < i; j++) {
+                    RoomPlacement q = layout.get(j);
+                    if (out[j] == PlacementResult.PLACED
+                            && q.x < p.x + w && p.x < q.x + q.template.width
+                            && q.y < p.y + h && p.y < q.y + q.template.height) {
+                        out[i] = PlacementResult.OVERLAPS_BATCH;
+                        break;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    private static boolean sameCells(Grid a, Grid b) {
+        byte[] ca = new byte[Grid.CHUNK_SIZE * Grid.CHUNK_SIZE], cb = new byte[ca.length];
+        for (int cy = 0; cy < a.chunksY; cy++) {
+            for (int cx = 0; cx < a.chunksX; cx++) {
+                int n = a.readChunk(cx, cy, ca);
+                b.readChunk(cx, cy, cb);
+                if (!Arrays.equals(ca, 0, n, cb, 0, n)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameRooms(RoomGraph a, RoomGraph b) {
+        if (a.size() != b.size()) return false;
+        for (int r = 0; r < a.size(); r++) {
+            if (a.getType(r) != b.getType(r) || a.getX(r) != b.getX(r) || a.getY(r) != b.getY(r)
+                    || a.getWidth(r) != b.getWidth(r) || a.getHeight(r) != b.getHeight(r)) return false;
+        }
+        return true;
+    }
+}
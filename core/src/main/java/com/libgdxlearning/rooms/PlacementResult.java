@@ -0,0 +1,12 @@
+package com.libgdxlearning.rooms;
+
+/** Per-entry outcome of {@link RoomPlacementSystem#placeAll}. */
+public enum PlacementResult {
+    PLACED,
+    /** Template smaller than 3×3 or not fully inside the grid. */
+    INVALID,
+    /** Overlaps cells that were already occupied before the batch. */
+    BLOCKED,
+    /** Overlaps an earlier entry of the same batch that was placed. */
+    OVERLAPS_BATCH
+}
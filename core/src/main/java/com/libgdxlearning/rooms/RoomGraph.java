@@ -0,0 +1,689 @@
+package com.libgdxlearning.rooms;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.libgdxlearning.world.Grid;
+
+import java.util.Arrays;
+
+/**
+ * Registry of placed rooms plus walkable connectivity over the Grid, so "is the kitchen reachable
+ * from the bar" and "which room is this cell in" are array lookups instead of flood fills.
+ *
+ * Rooms are registered by RoomPlacementSystem, unregistered again when a placement is undone,
+ * and found through per-chunk buckets. Connectivity is computed over all unblocked cells (floors,
+ * doors and empty ground), 4-connected:
+ * <ul>
+ *   <li>each written 32×32 chunk labels its own connected regions;</li>
+ *   <li>never-written chunks are all open, so each 4-connected piece of them counts as one region
+ *       (normally there is just one, around everything built);</li>
+ *   <li>regions facing each other across a chunk border are linked;</li>
+ *   <li>a union-find over the links yields one component id per region.</li>
+ * </ul>
+ * State is kept only for chunks that have been written or hold rooms, so a huge chunked grid
+ * costs in proportion to what has been built. Registering, removing and restoring a room marks
+ * the chunks under it dirty (that covers placeAt, placeAll, undo and redo); other writes to the
+ * grid must be reported through {@link #markDirty}. The next query relabels only the dirty chunks,
+ * gives their regions fresh union-find nodes and unions just their links into the existing
+ * forest. That is only sound when the change cannot split a component, so the ports of the
+ * relabelled chunks (the regions and pieces bordering them) are grouped once by the old labels and
+ * once by the new: if every old group still lies in one new group, connectivity only grew. Otherwise
+ * (walls cutting a chunk through, a never-written piece enclosed), and once stale nodes outnumber
+ * live ones, the forest is rebuilt over all regions of written chunks. Doors need no special case: a
+ * door is an unblocked wall cell, so a room whose door opens onto a wall or the grid edge is
+ * correctly unreachable, and so are pockets of ground enclosed by other rooms.
+ */
+public class RoomGraph {
+
+    private static final int SHIFT = Grid.CHUNK_SHIFT;
+    private static final int SIZE  = Grid.CHUNK_SIZE;
+
+    /** What the graph knows about one chunk; only chunks that were written or hold rooms have one. */
+    private static final class Chunk {
+        final int index, cx, cy;
+        IntArray rooms;        // live room ids overlapping the chunk, null if none
+        short[] labels;        // local region per cell (row-major within the chunk), -1 blocked; null until written
+        int regions;
+        int base;              // first global region id
+        int version;           // grid chunk version the labels were built from
+        Chunk east, north;     // written neighbours, null if never written or off the grid
+        IntArray eastLinks;    // (here << 16 | there) region pairs across the border with east
+        IntArray northLinks;   // ... and with north
+        IntArray openLinks;    // (region, neighbour chunk) pairs facing never-written neighbours
+        boolean dirty, relink, changed;
+
+        Chunk(int index, int cx, int cy) {
+            this.index = index;
+            this.cx = cx;
+            this.cy = cy;
+        }
+    }
+
+    private final Grid grid;
+
+    // Registry, index = room id
+    private final Array<RoomType> types = new Array<>();
+    private final IntArray roomX = new IntArray(), roomY = new IntArray();
+    private final IntArray roomW = new IntArray(), roomH = new IntArray();
+    private boolean[] alive = new boolean[16];
+    private int liveCount;
+    private int liveChanges;
+
+    // Connectivity
+    private final IntMap<Chunk> chunks = new IntMap<>();
+    private final Array<Chunk> written = new Array<>(); // by chunk index, so region ids run row-major like the cells
+    private final Array<Chunk> dirty   = new Array<>();
+    private final Array<Chunk> relinks = new Array<>();
+    private final Array<Chunk> changed = new Array<>(); // dirty chunks whose version moved, this sync()
+    private final IntIntMap pieceOf = new IntIntMap(); // never-written chunk -> piece; absent = piece 0
+    private int pieces = 1;
+    private final IntArray pieceNodes = new IntArray(); // piece -> union-find node
+    private int[] parent = new int[16];                // union-find forest; a component is a root
+    private int nodes;                                 // nodes in use, stale ones included
+    private int liveNodes;                             // regions of written chunks plus pieces
+    private final IntArray queue = new IntArray();
+
+    // Scratch for the split test in sync(): ports grouped by the old and by the new labels
+    private static final int OLD = 0, NEW = 1, FOREST = 2;
+    private final IntIntMap oldGroups = new IntIntMap(), newGroups = new IntIntMap(), groupOf = new IntIntMap();
+    private final IntArray ports = new IntArray();
+
+    // Scratch for splitPiece()
+    private final IntIntMap searchOf = new IntIntMap();
+    private final IntArray[] found = { new IntArray(), new IntArray(), new IntArray(), new IntArray() };
+    private final int[] heads = new int[4], searchParent = new int[4];
+
+    private int chunksRelabelled;
+    private int syncs, rebuilds;
+
+    /** Picks up whatever the grid already holds (a loaded save, say) on the first query. */
+    public RoomGraph(Grid grid) {
+        this.grid = grid;
+        pieceNodes.add(addNodes(1)); // piece 0: all the ground, until something is written
+        liveNodes = 1;
+        IntArray written = grid.writtenChunks(new IntArray());
+        for (int k = 0; k < written.size; k++) markChunk(written.get(k));
+    }
+
+    // -------------------------------------------------------------------------
+    // Registry
+    // -------------------------------------------------------------------------
+
+    /** Registers a room stamped with its bottom-left corner at (x, y); returns its id. */
+    public int add(RoomTemplate template, int x, int y) {
+        int id = types.size;
+        types.add(template.type);
+        roomX.add(x);
+        roomY.add(y);
+        roomW.add(template.width);
+        roomH.add(template.height);
+        if (id == alive.length) alive = Arrays.copyOf(alive, id * 2);
+        register(id);
+        return id;
+    }
+
+    /**
+     * Unregisters a room whose cells have been taken back (undo). Its id stays reserved so
+     * {@link #restore} can bring it back; a removed room is in no component.
+     */
+    public void remove(int room) {
+        if (!alive[room]) return;
+        alive[room] = false;
+        liveCount--;
+        liveChanges++;
+        for (int cy = roomY.get(room) >> SHIFT; cy <= (roomY.get(room) + roomH.get(room) - 1) >> SHIFT; cy++) {
+            for (int cx = roomX.get(room) >> SHIFT; cx <= (roomX.get(room) + roomW.get(room) - 1) >> SHIFT; cx++) {
+                chunks.get(cy * grid.chunksX + cx).rooms.removeValue(room);
+            }
+        }
+        markDirty(roomX.get(room), roomY.get(room), roomW.get(room), roomH.get(room)); // its cells were taken back
+    }
+
+    /** Re-registers a removed room (redo). */
+    public void restore(int room) {
+        if (alive[room]) return;
+        liveChanges++;
+        register(room);
+    }
+
+    private void register(int room) {
+        alive[room] = true;
+        liveCount++;
+        for (int cy = roomY.get(room) >> SHIFT; cy <= (roomY.get(room) + roomH.get(room) - 1) >> SHIFT; cy++) {
+            for (int cx = roomX.get(room) >> SHIFT; cx <= (roomX.get(room) + roomW.get(room) - 1) >> SHIFT; cx++) {
+                Chunk k = chunk(cy * grid.chunksX + cx);
+                if (k.rooms == null) k.rooms = new IntArray(4);
+                k.rooms.add(room);
+            }
+        }
+        markDirty(roomX.get(room), roomY.get(room), roomW.get(room), roomH.get(room)); // its cells were just stamped
+    }
+
+    /** Ids ever issued; some may belong to removed rooms. */
+    public int size() { return types.size; }
+
+    /** Rooms currently registered. */
+    public int liveCount() { return liveCount; }
+
+    public boolean isAlive(int room) { return alive[room]; }
+
+    /** Copy of the alive flags of rooms [0, size()), for snapshotting without a call per room. */
+    public boolean[] copyAlive() { return Arrays.copyOf(alive, size()); }
+
+    /** Bumped by every remove() and restore() (not by add()), so savers can tell the live set changed. */
+    public int getLiveChanges() { return liveChanges; }
+
+    public RoomType getType(int room) { return types.get(room); }
+    public int getX(int room)      { return roomX.get(room); }
+    public int getY(int room)      { return roomY.get(room); }
+    public int getWidth(int room)  { return roomW.get(room); }
+    public int getHeight(int room) { return roomH.get(room); }
+
+    /** Room whose footprint (walls included) contains (x, y), or -1. */
+    public int roomAt(int x, int y) {
+        if (!grid.inBounds(x, y)) return -1;
+        Chunk chunk = chunks.get((y >> SHIFT) * grid.chunksX + (x >> SHIFT));
+        IntArray bucket = chunk == null ? null : chunk.rooms;
+        if (bucket == null) return -1;
+        for (int k = 0; k < bucket.size; k++) {
+            int r = bucket.get(k);
+            int rx = roomX.get(r), ry = roomY.get(r);
+            if (x >= rx && y >= ry && x < rx + roomW.get(r) && y < ry + roomH.get(r)) return r;
+        }
+        return -1;
+    }
+
+    // -------------------------------------------------------------------------
+    // Connectivity queries
+    // -------------------------------------------------------------------------
+
+    /** True if someone can walk from room a's interior to room b's interior. */
+    public boolean isReachable(int a, int b) {
+        int ca = getComponent(a);
+        return ca >= 0 && ca == getComponent(b);
+    }
+
+    /** True if both cells are unblocked and joined by a 4-connected walk. */
+    public boolean isConnected(int x0, int y0, int x1, int y1) {
+        int c = componentAt(x0, y0);
+        return c >= 0 && c == componentAt(x1, y1);
+    }
+
+    /** Connectivity component of the room's interior (-1 if removed); equal ids mean mutually reachable. */
+    public int getComponent(int room) {
+        if (!alive[room]) return -1;
+        return componentAt(roomX.get(room) + 1, roomY.get(room) + 1);
+    }
+
+    /** Component of the cell, or -1 if it is blocked or out of bounds. */
+    public int componentAt(int x, int y) {
+        if (!grid.inBounds(x, y)) return -1;
+        sync();
+        int c = (y >> SHIFT) * grid.chunksX + (x >> SHIFT);
+        Chunk k = chunks.get(c);
+        if (k == null || k.labels == null) return find(pieceNodes.get(pieceOf.get(c, 0)));
+        int local = k.labels[(y & (SIZE - 1)) * SIZE + (x & (SIZE - 1))];
+        return local < 0 ? -1 : find(k.base + local);
+    }
+
+    /** Appends every room reachable from {@code room} (itself included) to {@code out}. */
+    public void reachableRooms(int room, IntArray out) {
+        int c = getComponent(room);
+        if (c < 0) { if (alive[room]) out.add(room); return; }
+        for (int r = 0; r < types.size; r++) {
+            if (getComponent(r) == c) out.add(r);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Maintenance
+    // -------------------------------------------------------------------------
+
+    /**
+     * Marks the chunks overlapping the w×h rectangle at (x,y) for relabelling on the next query.
+     * Rooms registered, removed or restored here mark themselves; grid writes made any other way
+     * must be reported through this.
+     */
+    public void markDirty(int x, int y, int w, int h) {
+        int x0 = Math.max(x, 0), y0 = Math.max(y, 0);
+        int x1 = Math.min(x + w, grid.width) - 1, y1 = Math.min(y + h, grid.height) - 1;
+        if (x1 < x0 || y1 < y0) return;
+        for (int cy = y0 >> SHIFT; cy <= y1 >> SHIFT; cy++) {
+            for (int cx = x0 >> SHIFT; cx <= x1 >> SHIFT; cx++) markChunk(cy * grid.chunksX + cx);
+        }
+    }
+
+    private void markChunk(int c) {
+        Chunk k = chunk(c);
+        if (k.dirty) return;
+        k.dirty = true;
+        dirty.add(k);
+    }
+
+    private Chunk chunk(int c) {
+        Chunk k = chunks.get(c);
+        if (k == null) chunks.put(c, k = new Chunk(c, c % grid.chunksX, c / grid.chunksX));
+        return k;
+    }
+
+    /** The chunk's state if it has been written, else null. */
+    private Chunk writtenChunk(int c) {
+        Chunk k = chunks.get(c);
+        return k != null && k.labels != null ? k : null;
+    }
+
+    /**
+     * Relabels the dirty chunks whose version moved and updates components: incrementally when
+     * the change can only merge them, by a rebuild when it may split one. Runs on demand from
+     * the queries; costs one comparison when nothing was marked.
+     */
+    public void sync() {
+        if (dirty.size == 0) return;
+        for (int i = 0; i < dirty.size; i++) {
+            Chunk k = dirty.get(i);
+            k.dirty = false;
+            if (grid.chunkVersion(k.cx, k.cy) == k.version) continue; // never written, or already labelled at this version
+            k.changed = true;
+            changed.add(k);
+        }
+        dirty.clear();
+        if (changed.size == 0) return;
+        syncs++;
+
+        // Group the ports by the old labels and links, before they are replaced
+        oldGroups.clear();
+        ports.clear();
+        for (int i = 0; i < changed.size; i++) edges(changed.get(i), OLD);
+
+        int cxs = grid.chunksX;
+        boolean merge = true;
+        for (int i = 0; i < changed.size; i++) {
+            Chunk k = changed.get(i);
+            k.version = grid.chunkVersion(k.cx, k.cy);
+            if (k.labels == null && addWritten(k)) merge = false; // a never-written piece was enclosed
+            liveNodes -= k.regions;
+            label(k);
+            liveNodes += k.regions;
+            k.base = addNodes(k.regions); // the old nodes go stale; unions through them stay valid
+            // A chunk's links read its own labels and its neighbours'
+            relink(k);
+            if (k.cx > 0)                relink(writtenChunk(k.index - 1));
+            if (k.cx + 1 < cxs)          relink(writtenChunk(k.index + 1));
+            if (k.cy > 0)                relink(writtenChunk(k.index - cxs));
+            if (k.cy + 1 < grid.chunksY) relink(writtenChunk(k.index + cxs));
+        }
+        for (int i = 0; i < relinks.size; i++) {
+            Chunk k = relinks.get(i);
+            k.relink = false;
+            link(k);
+        }
+        relinks.clear();
+
+        if (merge) {
+            newGroups.clear();
+            for (int i = 0; i < changed.size; i++) edges(changed.get(i), NEW);
+            merge = onlyMerges() && nodes <= 2 * liveNodes + 1024;
+        }
+        if (merge) {
+            for (int i = 0; i < changed.size; i++) edges(changed.get(i), FOREST);
+        } else {
+            rebuild();
+        }
+        for (int i = 0; i < changed.size; i++) changed.get(i).changed = false;
+        changed.clear();
+    }
+
+    /**
+     * Feeds every link between a changed chunk's regions and what borders it to
+     * {@link #edge}: as labelled before this sync() (OLD) or after (NEW, FOREST). Links between
+     * two changed chunks are fed once, by the west or south one. A chunk that was never written
+     * was part of its piece, so before this sync() its bordering regions all met in that piece.
+     */
+    private void edges(Chunk k, int mode) {
+        int cxs = grid.chunksX;
+        if (k.labels == null) { // OLD only: written chunks are labelled by the time NEW runs
+            int piece = pieceNodes.get(pieceOf.get(k.index, 0));
+            port(piece);
+            for (int d = 0; d < 4; d++) {
+                int nb = neighbour(k.index, d);
+                Chunk n = nb < 0 ? null : writtenChunk(nb);
+                if (n == null) continue;
+                IntArray open = n.openLinks;
+                for (int j = 0; j < open.size; j += 2) {
+                    if (open.get(j + 1) != k.index) continue;
+                    if (!n.changed) port(n.base + open.get(j));
+                    edge(mode, n.base + open.get(j), piece);
+                }
+            }
+            return;
+        }
+        if (k.east != null)  pairs(mode, k.eastLinks,  k, k.east);
+        if (k.north != null) pairs(mode, k.northLinks, k, k.north);
+        IntArray open = k.openLinks;
+        for (int j = 0; j < open.size; j += 2) {
+            int piece = pieceNodes.get(pieceOf.get(open.get(j + 1), 0));
+            port(piece);
+            edge(mode, k.base + open.get(j), piece);
+        }
+        Chunk west  = k.cx > 0 ? writtenChunk(k.index - 1) : null;
+        Chunk south = k.cy > 0 ? writtenChunk(k.index - cxs) : null;
+        if (west != null && !west.changed && west.east == k)    pairs(mode, west.eastLinks,  west,  k);
+        if (south != null && !south.changed && south.north == k) pairs(mode, south.northLinks, south, k);
+    }
+
+    private void pairs(int mode, IntArray pairs, Chunk a, Chunk b) {
+        for (int j = 0; j < pairs.size; j++) {
+            int pair = pairs.get(j);
+            int na = a.base + (pair >>> 16), nb = b.base + (pair & 0xFFFF);
+            if (!a.changed) port(na);
+            if (!b.changed) port(nb);
+            edge(mode, na, nb);
+        }
+    }
+
+    /** Records a node outside the changed chunks that borders them, for the split test. */
+    private void port(int node) {
+        if (!oldGroups.containsKey(node)) {
+            oldGroups.put(node, node);
+            ports.add(node);
+        }
+    }
+
+    private void edge(int mode, int a, int b) {
+        switch (mode) {
+            case OLD: union(oldGroups, a, b); break;
+            case NEW: union(newGroups, a, b); break;
+            default:  union(a, b);
+        }
+    }
+
+    /**
+     * True if every pair of ports joined through the old labels is still joined through the new
+     * ones, i.e. the change cannot have split a component. Ports that no longer border any new
+     * region fail the test unless they were on their own before.
+     */
+    private boolean onlyMerges() {
+        groupOf.clear();
+        for (int i = 0; i < ports.size; i++) {
+            int p = ports.get(i);
+            int was = find(oldGroups, p), now = find(newGroups, p);
+            int seen = groupOf.get(was, -1);
+            if (seen < 0) groupOf.put(was, now);
+            else if (seen != now) return false;
+        }
+        return true;
+    }
+
+    private void relink(Chunk k) {
+        if (k == null || k.relink) return;
+        k.relink = true;
+        relinks.add(k);
+    }
+
+    /**
+     * First write to a chunk: gives it labels and links, and takes it out of its never-written
+     * piece. Returns true if that enclosed part of the piece as a new one.
+     */
+    private boolean addWritten(Chunk k) {
+        k.labels     = new short[SIZE * SIZE];
+        k.eastLinks  = new IntArray();
+        k.northLinks = new IntArray();
+        k.openLinks  = new IntArray();
+        int at = written.size;
+        while (at > 0 && written.get(at - 1).index > k.index) at--;
+        written.insert(at, k);
+        int before = pieces;
+        splitPiece(k, pieceOf.remove(k.index, 0));
+        return pieces != before;
+    }
+
+    /**
+     * Chunk k was just written, which may have cut its never-written piece in two (a ring of
+     * built chunks closing around untouched ones). Searches the never-written chunks outward from
+     * k's never-written neighbours in lock step, merging searches that meet; each search that
+     * runs out on its own has enumerated an enclosed piece, which gets a new id. Stops as soon as
+     * at most one search is still going, so it costs about four times the enclosed pieces, and a
+     * few steps when nothing is enclosed.
+     */
+    private void splitPiece(Chunk k, int piece) {
+        int n = 0;
+        for (int d = 0; d < 4; d++) {
+            int nb = neighbour(k.index, d);
+            if (nb < 0 || writtenChunk(nb) != null) continue;
+            found[n].clear();
+            found[n].add(nb);
+            heads[n] = 0;
+            searchParent[n] = n;
+            searchOf.put(nb, n);
+            n++;
+        }
+        if (n >= 2) {
+            while (activeSearches(n) > 1) {
+                for (int s = 0; s < n; s++) {
+                    if (heads[s] == found[s].size) continue;
+                    int q = found[s].get(heads[s]++);
+                    for (int d = 0; d < 4; d++) {
+                        int nb = neighbour(q, d);
+                        if (nb < 0 || writtenChunk(nb) != null) continue;
+                        int other = searchOf.get(nb, -1);
+                        if (other < 0) {
+                            searchOf.put(nb, s);
+                            found[s].add(nb);
+                        } else {
+                            int a = searchRoot(s), b = searchRoot(other);
+                            if (a != b) searchParent[Math.max(a, b)] = Math.min(a, b);
+                        }
+                    }
+                }
+            }
+            // Finished searches are closed pieces; the one still going (or, if none is, the
+            // first) keeps the old id.
+            int keep = -1;
+            for (int s = 0; s < n; s++) if (heads[s] < found[s].size) keep = searchRoot(s);
+            if (keep < 0) keep = searchRoot(0);
+            for (int root = 0; root < n; root++) {
+                if (searchParent[root] != root || root == keep) continue;
+                int id = pieces++;
+                for (int s = 0; s < n; s++) {
+                    if (searchRoot(s) != root) continue;
+                    for (int i = 0; i < found[s].size; i++) pieceOf.put(found[s].get(i), id);
+                }
+            }
+        }
+        searchOf.clear();
+    }
+
+    /** Searches groups (merged searches) that still have chunks to expand. */
+    private int activeSearches(int n) {
+        int mask = 0;
+        for (int s = 0; s < n; s++) if (heads[s] < found[s].size) mask |= 1 << searchRoot(s);
+        return Integer.bitCount(mask);
+    }
+
+    private int searchRoot(int s) {
+        while (searchParent[s] != s) s = searchParent[s];
+        return s;
+    }
+
+    /** Chunk next to chunk c in direction d (0 west, 1 east, 2 south, 3 north), or -1 off the grid. */
+    private int neighbour(int c, int d) {
+        int cx = c % grid.chunksX, cy = c / grid.chunksX;
+        switch (d) {
+            case 0:  return cx > 0 ? c - 1 : -1;
+            case 1:  return cx + 1 < grid.chunksX ? c + 1 : -1;
+            case 2:  return cy > 0 ? c - grid.chunksX : -1;
+            default: return cy + 1 < grid.chunksY ? c + grid.chunksX : -1;
+        }
+    }
+
+    /** Flood-fills the chunk's unblocked cells into local regions. */
+    private void label(Chunk k) {
+        chunksRelabelled++;
+        short[] l = k.labels;
+        Arrays.fill(l, (short) -2); // unvisited
+
+        int x0 = k.cx << SHIFT, y0 = k.cy << SHIFT;
+        int w = Math.min(SIZE, grid.width - x0), h = Math.min(SIZE, grid.height - y0);
+        int regions = 0;
+        for (int ly = 0; ly < h; ly++) {
+            for (int lx = 0; lx < w; lx++) {
+                int i = ly * SIZE + lx;
+                if (l[i] != -2) continue;
+                if (grid.isBlocked(x0 + lx, y0 + ly)) { l[i] = -1; continue; }
+                short id = (short) regions++;
+                l[i] = id;
+                queue.clear();
+                queue.add(i);
+                while (queue.size > 0) {
+                    int j = queue.pop();
+                    int jx = j & (SIZE - 1), jy = j >> SHIFT;
+                    if (jx > 0)     visit(l, j - 1,    x0 + jx - 1, y0 + jy, id);
+                    if (jx < w - 1) visit(l, j + 1,    x0 + jx + 1, y0 + jy, id);
+                    if (jy > 0)     visit(l, j - SIZE, x0 + jx, y0 + jy - 1, id);
+                    if (jy < h - 1) visit(l, j + SIZE, x0 + jx, y0 + jy + 1, id);
+                }
+            }
+        }
+        k.regions = regions;
+    }
+
+    private void visit(short[] l, int i, int x, int y, short id) {
+        if (l[i] != -2) return;
+        if (grid.isBlocked(x, y)) { l[i] = -1; return; }
+        l[i] = id;
+        queue.add(i);
+    }
+
+    /**
+     * Records the region pairs facing a written chunk across the east and north borders, and the
+     * regions touching never-written chunks on any side.
+     */
+    private void link(Chunk k) {
+        int x0 = k.cx << SHIFT, y0 = k.cy << SHIFT;
+        int w = Math.min(SIZE, grid.width - x0), h = Math.min(SIZE, grid.height - y0);
+        int cxs = grid.chunksX;
+        short[] here = k.labels;
+        k.eastLinks.clear();
+        k.northLinks.clear();
+        k.openLinks.clear();
+
+        k.east  = k.cx + 1 < cxs ? writtenChunk(k.index + 1) : null;
+        k.north = k.cy + 1 < grid.chunksY ? writtenChunk(k.index + cxs) : null;
+
+        if (k.cx + 1 < cxs) {
+            Chunk east = k.east;
+            if (east == null) addOpen(k.openLinks, here, w - 1, SIZE, h, k.index + 1);
+            else {
+                int last = -1;
+                for (int ly = 0; ly < h; ly++) last = addPair(k.eastLinks, here[ly * SIZE + w - 1], east.labels[ly * SIZE], last);
+            }
+        }
+        if (k.cy + 1 < grid.chunksY) {
+            Chunk north = k.north;
+            if (north == null) addOpen(k.openLinks, here, (h - 1) * SIZE, 1, w, k.index + cxs);
+            else {
+                int last = -1;
+                for (int lx = 0; lx < w; lx++) last = addPair(k.northLinks, here[(h - 1) * SIZE + lx], north.labels[lx], last);
+            }
+        }
+        // Written west/south neighbours own the pairs on those borders
+        if (k.cx > 0 && writtenChunk(k.index - 1) == null)   addOpen(k.openLinks, here, 0, SIZE, h, k.index - 1);
+        if (k.cy > 0 && writtenChunk(k.index - cxs) == null) addOpen(k.openLinks, here, 0, 1, w, k.index - cxs);
+    }
+
+    /** Adds the pair unless either side is blocked or it repeats the previous cell's pair; returns the new previous. */
+    private static int addPair(IntArray out, int a, int b, int last) {
+        if (a < 0 || b < 0) return -1;
+        int pair = a << 16 | b;
+        if (pair != last) out.add(pair);
+        return pair;
+    }
+
+    /** Adds (region, neighbour) for the unblocked cells of one border row/column, skipping repeats. */
+    private static void addOpen(IntArray out, short[] here, int start, int step, int n, int neighbour) {
+        int last = -1;
+        for (int i = 0; i < n; i++) {
+            int r = here[start + i * step];
+            if (r >= 0 && r != last) out.add(r, neighbour);
+            last = r;
+        }
+    }
+
+    /** Hands out {@code n} fresh nodes, each its own root; returns the first. */
+    private int addNodes(int n) {
+        if (parent.length < nodes + n) parent = Arrays.copyOf(parent, Math.max(nodes + n, parent.length * 2));
+        for (int r = nodes; r < nodes + n; r++) parent[r] = r;
+        int first = nodes;
+        nodes += n;
+        return first;
+    }
+
+    /** Rebuilds the forest from scratch over the regions of written chunks, the never-written pieces and all links. */
+    private void rebuild() {
+        rebuilds++;
+        nodes = 0;
+        for (int i = 0; i < written.size; i++) {
+            Chunk k = written.get(i);
+            k.base = addNodes(k.regions);
+        }
+        pieceNodes.clear();
+        for (int p = 0; p < pieces; p++) pieceNodes.add(addNodes(1));
+        liveNodes = nodes;
+
+        for (int i = 0; i < written.size; i++) {
+            Chunk k = written.get(i);
+            if (k.east != null)  unionAll(k.eastLinks,  k.base, k.east.base);
+            if (k.north != null) unionAll(k.northLinks, k.base, k.north.base);
+            IntArray open = k.openLinks;
+            for (int j = 0; j < open.size; j += 2) union(k.base + open.get(j), pieceNodes.get(pieceOf.get(open.get(j + 1), 0)));
+        }
+    }
+
+    private void unionAll(IntArray pairs, int base, int otherBase) {
+        for (int k = 0; k < pairs.size; k++) {
+            int pair = pairs.get(k);
+            union(base + (pair >>> 16), otherBase + (pair & 0xFFFF));
+        }
+    }
+
+    private int find(int r) {
+        while (parent[r] != r) {
+            parent[r] = parent[parent[r]]; // path halving
+            r = parent[r];
+        }
+        return r;
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+    }
+
+    /** find() over a scratch forest kept in a map; absent nodes are their own root. */
+    private static int find(IntIntMap groups, int r) {
+        int p;
+        while ((p = groups.get(r, r)) != r) r = p;
+        return r;
+    }
+
+    private static void union(IntIntMap groups, int a, int b) {
+        a = find(groups, a);
+        b = find(groups, b);
+        if (a != b) groups.put(Math.max(a, b), Math.min(a, b));
+    }
+
+    /** Chunks labelled so far (first builds and relabels after writes). */
+    public int getChunksRelabelled() { return chunksRelabelled; }
+
+    /** sync() calls that had chunks to relabel. */
+    public int getSyncs() { return syncs; }
+
+    /** Of those, how many rebuilt the whole forest (a possible split, or too many stale nodes). */
+    public int getRebuilds() { return rebuilds; }
+
+    /** Chunks the graph keeps state for (written or holding rooms). */
+    public int getTrackedChunks() { return chunks.size; }
+}
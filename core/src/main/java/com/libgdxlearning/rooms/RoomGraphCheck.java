@@ -0,0 +1,306 @@
+package com.libgdxlearning.rooms;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless check of RoomGraph against a brute-force flood fill of the Grid.
+ *
+ *  1. Small dense and chunked grids: after every placement, undo and redo, room-to-room
+ *     reachability for all pairs and room-of-cell for every cell must match the flood fill and a
+ *     scan of all live rooms.
+ *  2. Walls drawn straight into the grid (reported through markDirty) closing around
+ *     never-written chunks, then rooms, undo and redo on top: the component of every cell must
+ *     partition the grid exactly like the flood fill.
+ *  3. A 2048×2048 chunked grid filled with tens of thousands of rooms: incremental update cost
+ *     per placement, how many updates had to rebuild the union-find, query cost, and a sampled comparison with one full flood fill.
+ *  4. A 100,000×100,000 chunked grid with a few thousand rooms: memory and time to construct,
+ *     first query, and placeAt()/undo() plus a query, which must not depend on the grid size.
+ *
+ * Usage: {@code ./gradlew core:runRoomGraphCheck}
+ */
+public class RoomGraphCheck {
+
+    public static void main(String[] args) {
+        int failures = 0;
+        for (int seed = 1; seed <= 20; seed++) {
+            failures += checkSmall(96, 72, seed % 2 == 0, seed);
+        }
+        System.out.printf("Small grids: 20 layouts, %d mismatches%n", failures);
+
+        int enclosed = checkEnclosed();
+        System.out.printf("Walls around never-written chunks: %d mismatches%n", enclosed);
+        failures += enclosed;
+
+        failures += checkLarge(2048, 40_000);
+        failures += checkHuge(100_000, 3_000);
+        if (failures > 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static int checkSmall(int w, int h, boolean chunked, long seed) {
+        Grid grid = new Grid(w, h, chunked);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        RoomGraph rooms = placer.getRooms();
+        SplittableRandom rng = new SplittableRandom(seed);
+        int[] flood = new int[w * h];
+        int mismatches = 0;
+
+        for (int attempt = 0; attempt < 400; attempt++) {
+            int roll = rng.nextInt(10);
+            if (roll == 0) {
+                if (!placer.undo()) continue;
+            } else if (roll == 1) {
+                if (!placer.redo()) continue;
+            } else {
+                int before = rooms.size();
+                place(placer, rng, w, h);
+                if (rooms.size() == before) continue;
+            }
+
+            floodFill(grid, flood);
+            for (int a = 0; a < rooms.size(); a++) {
+                int fa = rooms.isAlive(a) ? flood[interior(rooms, a, w)] : -1;
+                for (int b = a + 1; b < rooms.size(); b++) {
+                    boolean expected = fa >= 0 && rooms.isAlive(b) && fa == flood[interior(rooms, b, w)];
+                    if (rooms.isReachable(a, b) != expected) mismatches++;
+                }
+            }
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    if (rooms.roomAt(x, y) != scanRoomAt(rooms, x, y)) mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static int checkLarge(int size, int targetRooms) {
+        Grid grid = new Grid(size, size, true);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        RoomGraph rooms = placer.getRooms();
+        SplittableRandom rng = new SplittableRandom(42);
+
+        long updateNanos = 0;
+        int placed = 0;
+        while (rooms.size() < targetRooms) {
+            int before = rooms.size();
+            place(placer, rng, size, size);
+            if (rooms.size() == before) continue;
+            long t0 = System.nanoTime();
+            rooms.sync();
+            updateNanos += System.nanoTime() - t0;
+            placed++;
+        }
+
+        int queries = 1_000_000;
+        int[] a = new int[queries], b = new int[queries];
+        for (int q = 0; q < queries; q++) { a[q] = rng.nextInt(rooms.size()); b[q] = rng.nextInt(rooms.size()); }
+        int reachable = 0;
+        long q0 = System.nanoTime();
+        for (int q = 0; q < queries; q++) if (rooms.isReachable(a[q], b[q])) reachable++;
+        double queryNs = (System.nanoTime() - q0) / (double) queries;
+
+        int[] cx = new int[queries], cy = new int[queries];
+        for (int q = 0; q < queries; q++) { cx[q] = rng.nextInt(size); cy[q] = rng.nextInt(size); }
+        int inRoom = 0;
+        long l0 = System.nanoTime();
+        for (int q = 0; q < queries; q++) if (rooms.roomAt(cx[q], cy[q]) >= 0) inRoom++;
+        double lookupNs = (System.nanoTime() - l0) / (double) queries;
+
+        long f0 = System.nanoTime();
+        int[] flood = new int[size * size];
+        floodFill(grid, flood);
+        double floodMs = (System.nanoTime() - f0) / 1e6;
+
+        int mismatches = 0;
+        for (int q = 0; q < 100_000; q++) {
+            int fa = flood[interior(rooms, a[q], size)];
+            boolean expected = fa >= 0 && fa == flood[interior(rooms, b[q], size)];
+            if (rooms.isReachable(a[q], b[q]) != expected) mismatches++;
+        }
+
+        System.out.printf("%d×%d chunked grid, %d rooms: update %.1f µs/placement (%d chunk relabels, "
+                + "%d of %d updates rebuilt the union-find), isReachable %.0f ns (%d%% reachable), "
+                + "roomAt %.0f ns (%d%% in rooms)%n",
+                size, size, rooms.size(), updateNanos / 1e3 / placed, rooms.getChunksRelabelled(),
+                rooms.getRebuilds(), rooms.getSyncs(), queryNs, 100L * reachable / queries, lookupNs, 100L * inRoom / queries);
+        System.out.printf("One brute-force flood fill: %.1f ms; 100000 sampled pairs, %d mismatches%n", floodMs, mismatches);
+        return mismatches;
+    }
+
+    private static int checkEnclosed() {
+        int size = 224; // 7×7 chunks
+        Grid grid = new Grid(size, size, true);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        RoomGraph rooms = placer.getRooms();
+        int[] flood = new int[size * size];
+
+        // A ring whose inside (chunks 1..2 × 1..2) is never written, and a second one around
+        // chunks 1..3 × 5 that is then cut in two by writing a wall across chunk (2,5)
+        ring(grid, rooms, 31, 31, 96, 96);
+        int mismatches = compare(grid, rooms, flood);
+        ring(grid, rooms, 31, 159, 128, 192);
+        mismatches += compare(grid, rooms, flood);
+        for (int y = 160; y < 192; y++) grid.set(80, y, TileType.WALL_WOOD, true);
+        rooms.markDirty(80, 160, 1, 32);
+        mismatches += compare(grid, rooms, flood);
+
+        // A gap in the first ring joins inside and outside; closing it splits them again
+        grid.set(31, 60, TileType.EMPTY, false);
+        rooms.markDirty(31, 60, 1, 1);
+        mismatches += compare(grid, rooms, flood);
+        grid.set(31, 60, TileType.WALL_WOOD, true);
+        rooms.markDirty(31, 60, 1, 1);
+        mismatches += compare(grid, rooms, flood);
+
+        SplittableRandom rng = new SplittableRandom(7);
+        for (int attempt = 0; attempt < 300; attempt++) {
+            int roll = rng.nextInt(10);
+            if (roll == 0) placer.undo();
+            else if (roll == 1) placer.redo();
+            else place(placer, rng, size, size);
+            mismatches += compare(grid, rooms, flood);
+        }
+        return mismatches;
+    }
+
+    /** Blocked wall outline of the rectangle [x0, x1] × [y0, y1], reported once as a whole. */
+    private static void ring(Grid grid, RoomGraph rooms, int x0, int y0, int x1, int y1) {
+        for (int x = x0; x <= x1; x++) {
+            grid.set(x, y0, TileType.WALL_WOOD, true);
+            grid.set(x, y1, TileType.WALL_WOOD, true);
+        }
+        for (int y = y0; y <= y1; y++) {
+            grid.set(x0, y, TileType.WALL_WOOD, true);
+            grid.set(x1, y, TileType.WALL_WOOD, true);
+        }
+        rooms.markDirty(x0, y0, x1 - x0 + 1, y1 - y0 + 1);
+    }
+
+    /** Cells whose component disagrees with the flood fill (blocked, or the pairing of ids is not one-to-one). */
+    private static int compare(Grid grid, RoomGraph rooms, int[] flood) {
+        int w = grid.width;
+        floodFill(grid, flood);
+        IntIntMap floodToGraph = new IntIntMap(), graphToFlood = new IntIntMap();
+        int mismatches = 0;
+        for (int i = 0; i < flood.length; i++) {
+            int c = rooms.componentAt(i % w, i / w);
+            if (flood[i] < 0 || c < 0) {
+                if (flood[i] != -1 || c != -1) mismatches++;
+                continue;
+            }
+            if (floodToGraph.get(flood[i], c) != c || graphToFlood.get(c, flood[i]) != flood[i]) mismatches++;
+            floodToGraph.put(flood[i], c);
+            graphToFlood.put(c, flood[i]);
+        }
+        return mismatches;
+    }
+
+    private static int checkHuge(int size, int targetRooms) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+
+        long a0 = threads.getThreadAllocatedBytes(id);
+        Grid grid = new Grid(size, size, true);
+        long a1 = threads.getThreadAllocatedBytes(id);
+        long t0 = System.nanoTime();
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        double constructMs = (System.nanoTime() - t0) / 1e6;
+        long a2 = threads.getThreadAllocatedBytes(id);
+        RoomGraph rooms = placer.getRooms();
+
+        t0 = System.nanoTime();
+        boolean corners = rooms.isConnected(0, 0, size - 1, size - 1);
+        double firstQueryMs = (System.nanoTime() - t0) / 1e6;
+
+        // Rooms scattered over the whole site: every door opens onto never-written ground, so
+        // all of them must come out reachable from the first.
+        SplittableRandom rng = new SplittableRandom(5);
+        int mismatches = corners ? 0 : 1;
+        long placeNanos = 0;
+        while (rooms.size() < targetRooms) {
+            int before = rooms.size();
+            placer.activeTemplate = new RoomTemplate(RoomType.KITCHEN, 3 + rng.nextInt(10), 3 + rng.nextInt(10));
+            int x = rng.nextInt(size - 12), y = 1 + rng.nextInt(size - 13);
+            long p0 = System.nanoTime();
+            placer.placeAt(x, y);
+            boolean reachable = rooms.size() > before && rooms.isReachable(0, rooms.size() - 1);
+            placeNanos += System.nanoTime() - p0;
+            if (rooms.size() > before && !reachable) mismatches++;
+        }
+        int undos = targetRooms / 2;
+        t0 = System.nanoTime();
+        for (int k = 0; k < undos; k++) {
+            placer.undo();
+            rooms.isConnected(0, 0, size - 1, size - 1);
+        }
+        double undoUs = (System.nanoTime() - t0) / 1e3 / undos;
+        long a3 = threads.getThreadAllocatedBytes(id);
+
+        System.out.printf("%d×%d chunked grid: grid %.0f MB; placer + graph %.1f MB and %.1f ms to construct, first query %.2f ms%n",
+                size, size, (a1 - a0) / 1048576.0, (a2 - a1) / 1048576.0, constructMs, firstQueryMs);
+        System.out.printf("  %d rooms: placeAt + isReachable %.1f µs, undo + query %.1f µs, %d chunks tracked, "
+                + "%.1f MB allocated in total after construction; %d mismatches%n",
+                targetRooms, placeNanos / 1e3 / targetRooms, undoUs, rooms.getTrackedChunks(), (a3 - a2) / 1048576.0, mismatches);
+        return mismatches;
+    }
+
+    /** Tries one random room (3..12 cells a side) at a random position. */
+    private static void place(RoomPlacementSystem placer, SplittableRandom rng, int w, int h) {
+        RoomType[] types = RoomType.values();
+        placer.activeTemplate = new RoomTemplate(types[rng.nextInt(types.length)], 3 + rng.nextInt(10), 3 + rng.nextInt(10));
+        placer.placeAt(rng.nextInt(w), rng.nextInt(h));
+    }
+
+    private static int interior(RoomGraph rooms, int room, int width) {
+        return (rooms.getY(room) + 1) * width + rooms.getX(room) + 1;
+    }
+
+    /** Labels every unblocked cell with a 4-connected component id, blocked cells with -1. */
+    private static void floodFill(Grid grid, int[] out) {
+        int w = grid.width, h = grid.height;
+        Arrays.fill(out, -2);
+        IntArray stack = new IntArray();
+        int next = 0;
+        for (int start = 0; start < w * h; start++) {
+            if (out[start] != -2) continue;
+            if (grid.isBlocked(start % w, start / w)) { out[start] = -1; continue; }
+            int id = next++;
+            out[start] = id;
+            stack.add(start);
+            while (stack.size > 0) {
+                int i = stack.pop();
+                int x = i % w, y = i / w;
+                if (x > 0)     push(grid, out, stack, i - 1, x - 1, y, id);
+                if (x < w - 1) push(grid, out, stack, i + 1, x + 1, y, id);
+                if (y > 0)     push(grid, out, stack, i - w, x, y - 1, id);
+                if (y < h - 1) push(grid, out, stack, i + w, x, y + 1, id);
+            }
+        }
+    }
+
+    private static void push(Grid grid, int[] out, IntArray stack, int i, int x, int y, int id) {
+        if (out[i] != -2) return;
+        if (grid.isBlocked(x, y)) { out[i] = -1; return; }
+        out[i] = id;
+        stack.add(i);
+    }
+
+    private static int scanRoomAt(RoomGraph rooms, int x, int y) {
+        for (int r = 0; r < rooms.size(); r++) {
+            if (!rooms.isAlive(r)) continue;
+            int rx = rooms.getX(r), ry = rooms.getY(r);
+            if (x >= rx && y >= ry && x < rx + rooms.getWidth(r) && y < ry + rooms.getHeight(r)) return r;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.libgdxlearning.rooms;
+
+/** One entry of a batch placement: a template stamped with its bottom-left corner at (x,y). */
+public class RoomPlacement {
+
+    public final RoomTemplate template;
+    public final int x;
+    public final int y;
+
+    public RoomPlacement(RoomTemplate template, int x, int y) {
+        this.template = template;
+        this.x = x;
+        this.y = y;
+    }
+}
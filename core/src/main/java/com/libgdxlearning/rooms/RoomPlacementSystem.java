@@ -1,13 +1,34 @@
 package com.libgdxlearning.rooms;
 
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.libgdxlearning.world.EditJournal;
 import com.libgdxlearning.world.Grid;
-import com.libgdxlearning.world.tiles.TileCell;
+import com.libgdxlearning.world.OccupancyTable;
 import com.libgdxlearning.world.tiles.TileType;
 
+import java.util.Arrays;
+
 public class RoomPlacementSystem {
 
+    /** Memory budget of the undo history; the oldest placements are forgotten beyond it. */
+    public static final int UNDO_BUDGET_BYTES = 4 << 20;
+
+    /** placeAll() sweeps its entries in bands of 16 rows. */
+    private static final int BAND_SHIFT = 4;
+
     private final Grid grid;
 
+    /** O(1) emptiness queries for dense grids; null for chunked grids (they skip untouched chunks themselves). */
+    private final OccupancyTable occupancy;
+
+    /** Every room placed through this system, with reachability between them. */
+    private final RoomGraph rooms;
+
+    /** Undo/redo of placements, as the cells each one changed; tags are the room ids it added. */
+    private final EditJournal journal;
+    private final IntArray tags = new IntArray();
+
     /** The template currently selected for placement. Swap to change templates. */
     public RoomTemplate activeTemplate;
 
@@ -16,23 +37,21 @@ public class RoomPlacementSystem {
     public int hoverY = -1;
 
     public RoomPlacementSystem(Grid grid) {
+        this(grid, UNDO_BUDGET_BYTES);
+    }
+
+    /** @param undoBudgetBytes memory budget of the undo history */
+    public RoomPlacementSystem(Grid grid, int undoBudgetBytes) {
         this.grid = grid;
+        occupancy = grid.isChunked() ? null : new OccupancyTable(grid);
+        rooms = new RoomGraph(grid);
+        journal = new EditJournal(grid, undoBudgetBytes);
         activeTemplate = new RoomTemplate(RoomType.MAIN_BAR, 10, 8);
     }
 
     /** Returns true if the active template fits entirely within the grid and all cells are empty. */
     public boolean canPlaceAt(int x, int y) {
-        int w = activeTemplate.width;
-        int h = activeTemplate.height;
-        // Require at least 3×3 so that interior floors and border walls both exist.
-        if (w < 3 || h < 3) return false;
-        if (x < 0 || y < 0 || x + w > grid.width || y + h > grid.height) return false;
-        for (int gx = x; gx < x + w; gx++) {
-            for (int gy = y; gy < y + h; gy++) {
-                if (!grid.isFloorEmpty(gx, gy)) return false;
-            }
-        }
-        return true;
+        return fits(activeTemplate, x, y) && isEmpty(activeTemplate, x, y);
     }
 
     /**
@@ -43,39 +62,156 @@ public class RoomPlacementSystem {
      */
     public void placeAt(int x, int y) {
         if (!canPlaceAt(x, y)) return;
+        journal.begin();
+        journal.capture(x, y, activeTemplate.width, activeTemplate.height);
+        stamp(activeTemplate, x, y); // the occupancy table catches up through the chunk versions
+        tags.clear();
+        tags.add(rooms.add(activeTemplate, x, y));
+        journal.commit(tags);
+    }
+
+    /** Takes back the last placement (or batch); returns false if there is nothing to undo. */
+    public boolean undo() {
+        tags.clear();
+        if (!journal.undo(tags)) return false;
+        for (int k = 0; k < tags.size; k++) rooms.remove(tags.get(k));
+        return true;
+    }
 
-        int w = activeTemplate.width;
-        int h = activeTemplate.height;
-        TileType floor = activeTemplate.floorType();
-        TileType wall  = activeTemplate.wallType();
-        TileType door  = activeTemplate.doorType();
-
-        // Fill interior floors
-        for (int gx = x + 1; gx < x + w - 1; gx++) {
-            for (int gy = y + 1; gy < y + h - 1; gy++) {
-                TileCell c = grid.get(gx, gy);
-                c.type    = floor;
-                c.blocked = false;
+    /** Re-applies the last undone placement (or batch); returns false if there is nothing to redo. */
+    public boolean redo() {
+        tags.clear();
+        if (!journal.redo(tags)) return false;
+        for (int k = 0; k < tags.size; k++) rooms.restore(tags.get(k));
+        return true;
+    }
+
+    /** Undo/redo history of this system's placements. */
+    public EditJournal getJournal() {
+        return journal;
+    }
+
+    /** The grid this system places into. */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /** Room registry and connectivity for everything placed so far. */
+    public RoomGraph getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Places a whole batch with one validation pass and one stamping pass.
+     * Entries are checked against the grid and against each other (x-sorted sweep in bands of
+     * rows); where two entries overlap, the earlier one in the batch wins, so the outcome matches
+     * calling placeAt() for each entry in order. Returns one result per entry, in batch order.
+     */
+    public PlacementResult[] placeAll(Array<RoomPlacement> batch) {
+        int n = batch.size;
+        PlacementResult[] results = new PlacementResult[n];
+
+        // 1. Validate every entry against the grid as it was before the batch.
+        long[] byX = new long[n];
+        int candidates = 0;
+        for (int i = 0; i < n; i++) {
+            RoomPlacement p = batch.get(i);
+            if (!fits(p.template, p.x, p.y))        results[i] = PlacementResult.INVALID;
+            else if (!isEmpty(p.template, p.x, p.y)) results[i] = PlacementResult.BLOCKED;
+            else byX[candidates++] = ((long) p.x << 32) | i;
+        }
+
+        // 2. Sweep candidates by x to collect overlapping pairs within the batch. Entries still
+        //    active are kept per band of rows, so each is compared only with those sharing a band.
+        Arrays.sort(byX, 0, candidates);
+        IntArray[] bands = new IntArray[(grid.height >> BAND_SHIFT) + 1];
+        IntArray pairs = new IntArray();
+        for (int k = 0; k < candidates; k++) {
+            int i = (int) byX[k];
+            RoomPlacement p = batch.get(i);
+            int b0 = p.y >> BAND_SHIFT, b1 = (p.y + p.template.height - 1) >> BAND_SHIFT;
+            for (int b = b0; b <= b1; b++) {
+                IntArray active = bands[b];
+                if (active == null) active = bands[b] = new IntArray(false, 16);
+                for (int a = active.size - 1; a >= 0; a--) {
+                    int j = active.get(a);
+                    RoomPlacement q = batch.get(j);
+                    if (q.x + q.template.width <= p.x) { active.removeIndex(a); continue; }
+                    if (Math.max(b0, q.y >> BAND_SHIFT) != b) continue; // counted in the first band both share
+                    if (q.y < p.y + p.template.height && p.y < q.y + q.template.height) {
+                        pairs.add(Math.min(i, j), Math.max(i, j));
+                    }
+                }
+                active.add(i);
             }
         }
 
-        // Border walls
-        for (int gx = x; gx < x + w; gx++) {
-            for (int gy = y; gy < y + h; gy++) {
-                boolean isBorder = (gx == x || gx == x + w - 1 || gy == y || gy == y + h - 1);
-                if (isBorder) {
-                    TileCell c = grid.get(gx, gy);
-                    c.type    = wall;
-                    c.blocked = true;
+        // 3. Resolve in batch order: an entry loses to any overlapping earlier entry that was placed.
+        int[] start = new int[n + 1];
+        for (int k = 1; k < pairs.size; k += 2) start[pairs.get(k) + 1]++;
+        for (int i = 0; i < n; i++) start[i + 1] += start[i];
+        int[] earlier = new int[pairs.size / 2];
+        int[] fill = new int[n];
+        for (int k = 0; k < pairs.size; k += 2) {
+            int later = pairs.get(k + 1);
+            earlier[start[later] + fill[later]++] = pairs.get(k);
+        }
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) continue;
+            results[i] = PlacementResult.PLACED;
+            for (int k = start[i]; k < start[i + 1]; k++) {
+                if (results[earlier[k]] == PlacementResult.PLACED) {
+                    results[i] = PlacementResult.OVERLAPS_BATCH;
+                    break;
                 }
             }
         }
 
-        // Door at bottom-middle
-        int doorX = x + w / 2;
-        int doorY = y;
-        TileCell doorCell = grid.get(doorX, doorY);
-        doorCell.type    = door;
-        doorCell.blocked = false;
+        // 4. Stamp everything that survived as one journal entry.
+        journal.begin();
+        tags.clear();
+        for (int i = 0; i < n; i++) {
+            if (results[i] != PlacementResult.PLACED) continue;
+            RoomPlacement p = batch.get(i);
+            journal.capture(p.x, p.y, p.template.width, p.template.height);
+            stamp(p.template, p.x, p.y);
+            tags.add(rooms.add(p.template, p.x, p.y));
+        }
+        journal.commit(tags); // one undo step for the whole batch
+        return results;
+    }
+
+    /** Template is at least 3×3 (so interior floors and border walls both exist) and inside the grid. */
+    private boolean fits(RoomTemplate t, int x, int y) {
+        int w = t.width;
+        int h = t.height;
+        if (w < 3 || h < 3) return false;
+        return x >= 0 && y >= 0 && x + w <= grid.width && y + h <= grid.height;
+    }
+
+    /** All cells under the template are EMPTY. Caller has checked fits(). */
+    private boolean isEmpty(RoomTemplate t, int x, int y) {
+        return occupancy != null
+            ? occupancy.isEmpty(x, y, t.width, t.height)
+            : grid.isRegionEmpty(x, y, t.width, t.height);
+    }
+
+    /** Writes every cell of the template exactly once. */
+    private void stamp(RoomTemplate t, int x, int y) {
+        int w = t.width;
+        int h = t.height;
+        TileType floor = t.floorType();
+        TileType wall  = t.wallType();
+        TileType door  = t.doorType();
+        int doorX = x + w / 2; // door at bottom-middle
+
+        for (int gy = y; gy < y + h; gy++) {
+            boolean edgeRow = gy == y || gy == y + h - 1;
+            for (int gx = x; gx < x + w; gx++) {
+                if (gy == y && gx == doorX)                       grid.set(gx, gy, door, false);
+                else if (edgeRow || gx == x || gx == x + w - 1)    grid.set(gx, gy, wall, true);
+                else                                               grid.set(gx, gy, floor, false);
+            }
+        }
     }
 }
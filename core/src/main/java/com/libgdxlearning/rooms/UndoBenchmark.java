@@ -0,0 +1,128 @@
+package com.libgdxlearning.rooms;
+
+import com.libgdxlearning.world.EditJournal;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless benchmark of the placement undo journal against full-grid snapshots.
+ *
+ * A 10,000-action session (70% placements, 20% undos, 10% redos) runs on a dense and a chunked
+ * grid, reporting time per action and the journal's memory; then again with a small budget to
+ * show the oldest actions being dropped. The snapshot alternative (one byte per cell, saved per
+ * action and written back on undo) is timed on a few hundred actions and its memory extrapolated.
+ * Each run also checks that undoing everything and redoing it again restores the grid exactly.
+ *
+ * Usage: {@code ./gradlew core:runUndoBench}
+ */
+public class UndoBenchmark {
+
+    private static final int ACTIONS = 10_000;
+    private static final TileType[] TYPES = TileType.values();
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        ok &= session(new Grid(512, 512), RoomPlacementSystem.UNDO_BUDGET_BYTES, "512×512 dense");
+        ok &= session(new Grid(2048, 2048, true), RoomPlacementSystem.UNDO_BUDGET_BYTES, "2048×2048 chunked");
+        ok &= session(new Grid(512, 512), 64 << 10, "512×512 dense, 64 KB budget");
+        snapshots(new Grid(512, 512), 300);
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean session(Grid grid, int budget, String label) {
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid, budget);
+        EditJournal journal = placer.getJournal();
+        SplittableRandom rng = new SplittableRandom(7);
+
+        long maxBytes = 0, nanos = 0, undoNanos = 0;
+        int undos = 0;
+        for (int a = 0; a < ACTIONS; a++) {
+            int roll = rng.nextInt(10);
+            long t0 = System.nanoTime();
+            if (roll < 2) {
+                placer.undo();
+                undoNanos += System.nanoTime() - t0;
+                undos++;
+            } else if (roll < 3) {
+                placer.redo();
+            } else {
+                place(placer, rng, grid.width, grid.height);
+            }
+            nanos += System.nanoTime() - t0;
+            maxBytes = Math.max(maxBytes, journal.getBytes());
+        }
+
+        // Undo everything kept, then redo as many: must land on the same cells.
+        byte[] end = capture(grid);
+        int kept = journal.getUndoCount();
+        while (placer.undo()) { }
+        boolean emptied = journal.getDropped() > 0 || isEmpty(grid);
+        for (int k = 0; k < kept; k++) placer.redo();
+        boolean restored = Arrays.equals(end, capture(grid));
+
+        System.out.printf("%s: %d actions, %.1f µs/action (undo %.1f µs), journal %d KB (peak %d KB, budget %d KB), "
+                + "%d undoable, %d dropped, %d live rooms; undo-all %s, redo-all %s%n",
+                label, ACTIONS, nanos / 1e3 / ACTIONS, undoNanos / 1e3 / Math.max(1, undos),
+                journal.getBytes() >> 10, maxBytes >> 10, budget >> 10, kept, journal.getDropped(),
+                placer.getRooms().liveCount(), emptied ? "ok" : "NOT EMPTY", restored ? "ok" : "MISMATCH");
+        return emptied && restored && maxBytes <= budget;
+    }
+
+    /** Same session shape, undoing by restoring a full copy of the grid taken before each action. */
+    private static void snapshots(Grid grid, int actions) {
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        SplittableRandom rng = new SplittableRandom(7);
+        byte[][] history = new byte[actions][];
+        int top = 0;
+        long nanos = 0;
+        for (int a = 0; a < actions; a++) {
+            long t0 = System.nanoTime();
+            if (rng.nextInt(10) < 2) {
+                if (top > 0) restore(grid, history[--top]);
+            } else {
+                history[top++] = capture(grid);
+                place(placer, rng, grid.width, grid.height);
+            }
+            nanos += System.nanoTime() - t0;
+        }
+        long perSnapshot = (long) grid.width * grid.height + 16;
+        System.out.printf("Full snapshots, %d×%d: %.1f µs/action over %d actions, %d KB each, %d MB for %d actions%n",
+                grid.width, grid.height, nanos / 1e3 / actions, actions, perSnapshot >> 10,
+                perSnapshot * ACTIONS >> 20, ACTIONS);
+    }
+
+    private static void place(RoomPlacementSystem placer, SplittableRandom rng, int w, int h) {
+        RoomType[] types = RoomType.values();
+        placer.activeTemplate = new RoomTemplate(types[rng.nextInt(types.length)], 3 + rng.nextInt(10), 3 + rng.nextInt(10));
+        placer.placeAt(rng.nextInt(w), rng.nextInt(h));
+    }
+
+    /** One byte per cell: type ordinal << 1 | blocked. */
+    private static byte[] capture(Grid grid) {
+        byte[] out = new byte[grid.width * grid.height];
+        for (int y = 0, i = 0; y < grid.height; y++) {
+            for (int x = 0; x < grid.width; x++, i++) {
+                out[i] = (byte) (grid.getType(x, y).ordinal() << 1 | (grid.isBlocked(x, y) ? 1 : 0));
+            }
+        }
+        return out;
+    }
+
+    private static void restore(Grid grid, byte[] cells) {
+        for (int y = 0, i = 0; y < grid.height; y++) {
+            for (int x = 0; x < grid.width; x++, i++) {
+                grid.set(x, y, TYPES[cells[i] >> 1], (cells[i] & 1) != 0);
+            }
+        }
+    }
+
+    private static boolean isEmpty(Grid grid) {
+        return grid.isRegionEmpty(0, 0, grid.width, grid.height);
+    }
+}
@@ -0,0 +1,148 @@
+package com.libgdxlearning.save;
+
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.world.Grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless game-thread pause per autosave on a 4096×4096 grid (16.8M cells) covered with rooms,
+ * dense and chunked. Simulates frames that each place a room (with the odd undo) and autosave
+ * every {@link #SAVE_EVERY} frames, first through {@link Autosaver} (capture on the "game"
+ * thread, write in the background) and then with a synchronous {@link SaveFile#save}, and
+ * reports mean / median / p99 / max pauses for both. Also checks that a snapshot is unaffected by edits
+ * made while it is being written, and that the final file loads back identical to the game.
+ *
+ * Usage: {@code ./gradlew core:runAutosaveBench}
+ */
+public class AutosaveBenchmark {
+
+    private static final int SIZE = 4096;
+    private static final int FRAMES = 3000;
+    private static final int SAVE_EVERY = 10;
+    /** Idle time per frame (a real frame waits for vsync), leaving the writer thread a core slice. */
+    private static final long IDLE_MILLIS = 1;
+
+    public static void main(String[] args) throws IOException {
+        File dir = Files.createTempDirectory("autosaves").toFile();
+        boolean ok = true;
+        for (boolean chunked : new boolean[]{ false, true }) {
+            ok &= run(new File(dir, chunked ? "chunked.sav" : "dense.sav"), chunked);
+        }
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(File file, boolean chunked) throws IOException {
+        Grid grid = new Grid(SIZE, SIZE, chunked);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        SimState sim = new SimState();
+        SaveBenchmark.fill(placer, new SplittableRandom(1));
+        String label = SIZE + "×" + SIZE + (chunked ? " chunked" : " dense");
+
+        SaveFile save = new SaveFile(file);
+        Autosaver saver = new Autosaver(save);
+
+        // First save of a grid: the capture covers every built chunk
+        saver.save(grid, placer.getRooms(), sim);
+        long firstPause = saver.getLastPauseNanos();
+        saver.flush();
+        System.out.printf("%s, %d rooms: first capture %.2f ms (every built chunk), full write %.0f ms in the background%n",
+                label, placer.getRooms().size(), firstPause / 1e6, saver.getLastWriteNanos() / 1e6);
+
+        // Background autosaves while the game keeps building
+        SplittableRandom rng = new SplittableRandom(2);
+        long[] async = frames(placer, sim, rng, () -> saver.save(grid, placer.getRooms(), sim) ? saver.getLastPauseNanos() : -1);
+        saver.flush();
+        System.out.printf("%s: background autosave pause %s, last write %.2f ms, %d skipped (write still running)%n",
+                label, stats(async), saver.getLastWriteNanos() / 1e6, saver.getSkippedCount());
+
+        // The same session saving synchronously on the game thread
+        long[] sync = frames(placer, sim, rng, () -> {
+            long t0 = System.nanoTime();
+            save.save(grid, placer.getRooms(), sim);
+            return System.nanoTime() - t0;
+        });
+        long t0 = System.nanoTime();
+        save.saveFull(grid, placer.getRooms(), sim);
+        long fullNanos = System.nanoTime() - t0;
+        System.out.printf("%s: synchronous save pause %s; full save %.0f ms%n", label, stats(sync), fullNanos / 1e6);
+
+        // A snapshot keeps the state of its capture while the game edits on
+        SaveFile.Snapshot snapshot = save.capture(grid, placer.getRooms(), sim);
+        byte[][] expected = cells(grid);
+        for (int k = 0; k < 200; k++) SaveBenchmark.placeSmall(placer, rng);
+        if (SaveBenchmark.placeSmall(placer, rng)) placer.undo();
+        save.write(snapshot);
+        Grid written = new SaveFile(file).load(new SimState()).getGrid();
+        boolean frozen = Arrays.deepEquals(expected, cells(written));
+
+        // Catch up and compare the final file with the game
+        saver.save(grid, placer.getRooms(), sim);
+        saver.dispose();
+        SimState loadedSim = new SimState();
+        boolean same = SaveBenchmark.same(grid, placer.getRooms(), sim, new SaveFile(file).load(loadedSim), loadedSim);
+        System.out.printf("%s: snapshot unaffected by later edits=%b, final load identical=%b, file %.1f MB%n",
+                label, frozen, same, file.length() / 1048576.0);
+        return frozen && same;
+    }
+
+    private interface SaveStep {
+        /** Saves and returns the game-thread pause in ns, or -1 if the save was skipped. */
+        long save() throws IOException;
+    }
+
+    /** Runs FRAMES frames of building; returns the pause of every save that ran. */
+    private static long[] frames(RoomPlacementSystem placer, SimState sim, SplittableRandom rng, SaveStep step) throws IOException {
+        long[] pauses = new long[FRAMES / SAVE_EVERY];
+        int n = 0;
+        for (int frame = 1; frame <= FRAMES; frame++) {
+            boolean placed = SaveBenchmark.placeSmall(placer, rng);
+            if (placed && frame % 7 == 0) placer.undo(); // never reaches back to the initial fill
+            sim.addCash(1);
+            if (frame % SAVE_EVERY == 0) {
+                long pause = step.save();
+                if (pause >= 0) pauses[n++] = pause;
+            }
+            try {
+                Thread.sleep(IDLE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Arrays.copyOf(pauses, n);
+    }
+
+    private static String stats(long[] pauses) {
+        long[] sorted = pauses.clone();
+        Arrays.sort(sorted);
+        double mean = 0;
+        for (long p : sorted) mean += p;
+        mean /= Math.max(1, sorted.length);
+        int p99 = Math.max(0, (int) Math.ceil(sorted.length * 0.99) - 1);
+        if (sorted.length == 0) return "no saves";
+        return String.format("mean %.3f ms, median %.3f ms, p99 %.3f ms, max %.3f ms over %d saves",
+                mean / 1e6, sorted[sorted.length / 2] / 1e6, sorted[p99] / 1e6, sorted[sorted.length - 1] / 1e6, sorted.length);
+    }
+
+    private static byte[][] cells(Grid grid) {
+        byte[][] cells = new byte[grid.chunksX * grid.chunksY][];
+        for (int cy = 0, c = 0; cy < grid.chunksY; cy++) {
+            for (int cx = 0; cx < grid.chunksX; cx++, c++) {
+                cells[c] = new byte[grid.chunkCells(cx, cy)];
+                grid.readChunk(cx, cy, cells[c]);
+            }
+        }
+        return cells;
+    }
+}
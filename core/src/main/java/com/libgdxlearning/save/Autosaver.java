@@ -0,0 +1,122 @@
+package com.libgdxlearning.save;
+
+import com.badlogic.gdx.Gdx;
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.rooms.RoomGraph;
+import com.libgdxlearning.world.Grid;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Saves a {@link SaveFile} without stalling the game thread: {@link #save} only captures a
+ * snapshot of what changed (copy-on-write chunks, new rooms, the sim stats), and encoding plus
+ * file I/O run on one background "autosave" thread. The game keeps editing the grid meanwhile;
+ * the snapshot still sees the state at the moment of the capture.
+ *
+ * If the previous write has not finished, a save is skipped rather than queued; the next capture
+ * picks up everything since the last one, so nothing is lost. Call {@link #flush} before exiting
+ * (and before loading through the same SaveFile). Not thread-safe: call from the game thread.
+ */
+public class Autosaver {
+
+    private final SaveFile file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autosave");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+    private Future<?> pending;
+
+    // Stats: pauses are measured on the calling thread, write times on the writer
+    private long lastPauseNanos, maxPauseNanos, totalPauseNanos;
+    private int saves, skipped, lastChunks;
+    private volatile long lastWriteNanos;
+    private volatile IOException lastError;
+
+    public Autosaver(SaveFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Captures the current state and queues it for writing. Returns false (and captures nothing)
+     * if the previous write is still running.
+     */
+    public boolean save(Grid grid, RoomGraph rooms, SimState sim) {
+        if (pending != null && !pending.isDone()) {
+            skipped++;
+            return false;
+        }
+        long t0 = System.nanoTime();
+        SaveFile.Snapshot snapshot = file.capture(grid, rooms, sim);
+        long pause = System.nanoTime() - t0;
+
+        lastPauseNanos = pause;
+        maxPauseNanos  = Math.max(maxPauseNanos, pause);
+        totalPauseNanos += pause;
+        lastChunks = snapshot.getChunkCount();
+        saves++;
+        pending = writer.submit(() -> write(snapshot));
+        return true;
+    }
+
+    private void write(SaveFile.Snapshot snapshot) {
+        long t0 = System.nanoTime();
+        try {
+            file.write(snapshot);
+            lastError = null;
+        } catch (IOException e) {
+            lastError = e; // SaveFile rewrites the whole file next time
+            if (Gdx.app != null) Gdx.app.error("Autosaver", "Couldn't write " + file.getFile(), e);
+        }
+        lastWriteNanos = System.nanoTime() - t0;
+    }
+
+    /** Blocks until the queued write, if any, has finished. */
+    public void flush() {
+        if (pending == null) return;
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Autosave write failed", e.getCause());
+        }
+        pending = null;
+    }
+
+    /** Finishes the queued write and stops the writer thread. */
+    public void dispose() {
+        flush();
+        writer.shutdown();
+    }
+
+    public SaveFile getSaveFile() { return file; }
+
+    /** Game-thread time spent in the last {@link #save}, in nanoseconds. */
+    public long getLastPauseNanos() { return lastPauseNanos; }
+
+    /** Longest game-thread pause so far, in nanoseconds. */
+    public long getMaxPauseNanos() { return maxPauseNanos; }
+
+    /** Mean game-thread pause over all saves, in nanoseconds. */
+    public long getMeanPauseNanos() { return saves == 0 ? 0 : totalPauseNanos / saves; }
+
+    /** Background time of the last finished write, in nanoseconds. */
+    public long getLastWriteNanos() { return lastWriteNanos; }
+
+    /** Chunks captured by the last save. */
+    public int getLastChunks() { return lastChunks; }
+
+    public int getSaveCount() { return saves; }
+
+    /** Saves skipped because a write was still running. */
+    public int getSkippedCount() { return skipped; }
+
+    /** Error of the last finished write, or null if it succeeded. */
+    public IOException getLastError() { return lastError; }
+}
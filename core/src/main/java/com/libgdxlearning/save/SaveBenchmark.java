@@ -0,0 +1,216 @@
+package com.libgdxlearning.save;
+
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.rooms.RoomGraph;
+import com.libgdxlearning.rooms.RoomPlacement;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.rooms.RoomType;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Headless save/load timings on a 4000×4000 grid covered with rooms (dense and chunked storage):
+ * full save, load, incremental saves after a few placements, and a naive baseline that writes
+ * the cells as TileType[][] / boolean[][] with Java serialization. Every load is compared cell
+ * by cell, room by room and stat by stat with the saved state.
+ *
+ * Usage: {@code ./gradlew core:runSaveBench}
+ */
+public class SaveBenchmark {
+
+    private static final int SIZE = 4000;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        File dir = Files.createTempDirectory("saves").toFile();
+        boolean ok = true;
+        for (boolean chunked : new boolean[]{ false, true }) {
+            ok &= run(new File(dir, chunked ? "chunked.sav" : "dense.sav"), chunked);
+        }
+        naive(new File(dir, "naive.ser"));
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(File file, boolean chunked) throws IOException {
+        Grid grid = new Grid(SIZE, SIZE, chunked);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        SimState sim = new SimState();
+        fill(placer, new SplittableRandom(1));
+        sim.day = 12;
+        sim.minutes = 731;
+        sim.addCash(1234);
+        sim.addChaos(17);
+        String label = SIZE + "×" + SIZE + (chunked ? " chunked" : " dense");
+
+        SaveFile save = new SaveFile(file);
+        long saveNanos = 0;
+        for (int r = 0; r <= RUNS; r++) {
+            long t0 = System.nanoTime();
+            save.saveFull(grid, placer.getRooms(), sim);
+            if (r > 0) saveNanos += System.nanoTime() - t0; // first run is warm-up
+        }
+
+        long loadNanos = 0, tableNanos = 0;
+        boolean same = true;
+        for (int r = 0; r <= RUNS; r++) {
+            SimState loadedSim = new SimState();
+            long t0 = System.nanoTime();
+            RoomPlacementSystem loaded = new SaveFile(file).load(loadedSim);
+            long t1 = System.nanoTime();
+            new RoomPlacementSystem(loaded.getGrid()); // what load spends on placement tables
+            if (r > 0) {
+                loadNanos  += t1 - t0;
+                tableNanos += System.nanoTime() - t1;
+            }
+            same &= same(grid, placer.getRooms(), sim, loaded, loadedSim);
+        }
+        System.out.printf("%s, %d rooms: file %.1f MB, save %.1f ms, load %.1f ms (%.1f ms of it building placement tables), identical=%b%n",
+                label, placer.getRooms().size(), file.length() / 1048576.0,
+                saveNanos / 1e6 / RUNS, loadNanos / 1e6 / RUNS, tableNanos / 1e6 / RUNS, same);
+
+        // Incremental: a handful of rooms (and an undo) between autosaves
+        SplittableRandom rng = new SplittableRandom(2);
+        long incNanos = 0, incBytes = 0;
+        int saves = 0, full = 0;
+        for (int s = 0; s < 20; s++) {
+            for (int k = 0; k < 10; k++) placeSmall(placer, rng);
+            if (s % 3 == 0) placer.undo();
+            sim.addCash(10);
+            long t0 = System.nanoTime();
+            save.save(grid, placer.getRooms(), sim);
+            incNanos += System.nanoTime() - t0;
+            incBytes += save.getLastBytes();
+            if (save.wasLastFull()) full++;
+            saves++;
+        }
+        SimState loadedSim = new SimState();
+        boolean incSame = same(grid, placer.getRooms(), sim, new SaveFile(file).load(loadedSim), loadedSim);
+        System.out.printf("%s: %d incremental saves, %.2f ms and %.1f KB each (%d full rewrites), file %.1f MB, identical=%b%n",
+                label, saves, incNanos / 1e6 / saves, incBytes / 1024.0 / saves, full, save.getSize() / 1048576.0, incSame);
+        return same && incSame;
+    }
+
+    /** Covers the grid with rooms on a 14-cell lattice, each 3..12 cells a side at a random offset. */
+    static void fill(RoomPlacementSystem placer, SplittableRandom rng) {
+        RoomType[] types = RoomType.values();
+        Array<RoomPlacement> batch = new Array<>();
+        Grid grid = placer.getGrid();
+        for (int y = 0; y + 14 <= grid.height; y += 14) {
+            for (int x = 0; x + 14 <= grid.width; x += 14) {
+                int w = 3 + rng.nextInt(10), h = 3 + rng.nextInt(10);
+                RoomTemplate t = new RoomTemplate(types[rng.nextInt(types.length)], w, h);
+                batch.add(new RoomPlacement(t, x + rng.nextInt(14 - w + 1), y + rng.nextInt(14 - h + 1)));
+            }
+        }
+        placer.placeAll(batch);
+    }
+
+    /** Places a 3×3 room in a random free gap between the existing rooms; false if none was found. */
+    static boolean placeSmall(RoomPlacementSystem placer, SplittableRandom rng) {
+        placer.activeTemplate = new RoomTemplate(RoomType.KITCHEN, 3, 3);
+        Grid grid = placer.getGrid();
+        for (int tries = 0; tries < 100; tries++) {
+            int x = rng.nextInt(grid.width - 3), y = rng.nextInt(grid.height - 3);
+            if (placer.canPlaceAt(x, y)) {
+                placer.placeAt(x, y);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean same(Grid grid, RoomGraph rooms, SimState sim, RoomPlacementSystem loaded, SimState loadedSim) {
+        Grid other = loaded.getGrid();
+        if (other.width != grid.width || other.height != grid.height || other.isChunked() != grid.isChunked()) return false;
+        byte[] a = new byte[Grid.CHUNK_SIZE * Grid.CHUNK_SIZE], b = new byte[a.length];
+        for (int cy = 0; cy < grid.chunksY; cy++) {
+            for (int cx = 0; cx < grid.chunksX; cx++) {
+                int n = grid.readChunk(cx, cy, a);
+                other.readChunk(cx, cy, b);
+                if (!Arrays.equals(a, 0, n, b, 0, n)) return false;
+            }
+        }
+        RoomGraph r = loaded.getRooms();
+        if (r.size() != rooms.size()) return false;
+        for (int i = 0; i < rooms.size(); i++) {
+            if (r.getType(i) != rooms.getType(i) || r.getX(i) != rooms.getX(i) || r.getY(i) != rooms.getY(i)
+                    || r.getWidth(i) != rooms.getWidth(i) || r.getHeight(i) != rooms.getHeight(i)
+                    || r.isAlive(i) != rooms.isAlive(i)) return false;
+        }
+        return loadedSim.minutes == sim.minutes && loadedSim.day == sim.day && loadedSim.cash == sim.cash
+            && loadedSim.reputation == sim.reputation && loadedSim.chaos == sim.chaos && loadedSim.morale == sim.morale
+            && loadedSim.paused == sim.paused && loadedSim.speedMultiplier == sim.speedMultiplier;
+    }
+
+    // -------------------------------------------------------------------------
+    // Baseline: the obvious ObjectOutputStream save
+    // -------------------------------------------------------------------------
+
+    private static class NaiveSave implements Serializable {
+        private static final long serialVersionUID = 1L;
+        TileType[][] types;
+        boolean[][] blocked;
+        int[][] rooms; // type, x, y, w, h
+        double minutes;
+        int day, cash, reputation, chaos, morale;
+    }
+
+    private static void naive(File file) throws IOException, ClassNotFoundException {
+        Grid grid = new Grid(SIZE, SIZE);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        fill(placer, new SplittableRandom(1));
+        RoomGraph rooms = placer.getRooms();
+
+        long t0 = System.nanoTime();
+        NaiveSave s = new NaiveSave();
+        s.types   = new TileType[SIZE][SIZE];
+        s.blocked = new boolean[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                s.types[x][y]   = grid.getType(x, y);
+                s.blocked[x][y] = grid.isBlocked(x, y);
+            }
+        }
+        s.rooms = new int[rooms.size()][];
+        for (int r = 0; r < rooms.size(); r++) {
+            s.rooms[r] = new int[]{ rooms.getType(r).ordinal(), rooms.getX(r), rooms.getY(r), rooms.getWidth(r), rooms.getHeight(r) };
+        }
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeObject(s);
+        }
+        double saveMs = (System.nanoTime() - t0) / 1e6;
+
+        t0 = System.nanoTime();
+        NaiveSave in;
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in = (NaiveSave) ois.readObject();
+        }
+        Grid loaded = new Grid(SIZE, SIZE);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) loaded.set(x, y, in.types[x][y], in.blocked[x][y]);
+        }
+        double loadMs = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("Java serialization baseline, %d×%d: file %.1f MB, save %.0f ms, load %.0f ms%n",
+                SIZE, SIZE, file.length() / 1048576.0, saveMs, loadMs);
+    }
+}
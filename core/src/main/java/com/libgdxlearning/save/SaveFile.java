@@ -0,0 +1,570 @@
+package com.libgdxlearning.save;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.rooms.RoomGraph;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.rooms.RoomType;
+import com.libgdxlearning.world.ChunkSnapshot;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary save of the Grid, its rooms and the SimState, written with a FileChannel and loaded
+ * from a memory-mapped buffer.
+ *
+ * Tiles are stored per 32×32 chunk, one byte per cell ({@code type << 1 | blocked}) run-length
+ * encoded, so a built-up pub compresses to a few bytes per row and empty ground to almost
+ * nothing. The file is a fixed header followed by segments: the first holds everything, each
+ * later save appends only the chunks whose version changed since the last save, the rooms
+ * added since then and the (small) sim state. The header's end offset is updated after the
+ * segment is written, so a save interrupted half-way leaves the previous state readable. Once
+ * the appended segments outgrow the first one, the next save rewrites the file in full.
+ *
+ * Saving is split so the slow part can leave the game thread. {@link #capture} freezes what
+ * changed since the previous capture into a {@link Snapshot} in O(written chunks) (see
+ * {@link Grid#writtenChunks} and {@link Grid#snapshotChunk}); {@link #write} encodes and writes it. Captures must come from one
+ * thread and writes from one (possibly other) thread, in capture order; {@link #save} does both.
+ * The writer keeps each chunk's latest encoding, so a full rewrite never reads the grid.
+ *
+ * Layout (big-endian), version {@value #VERSION}:
+ * <pre>
+ *   header:  int magic 'GDXS', int version, long end, int width, int height, byte chunked, pad to 32
+ *   segment: double minutes, int day, cash, reputation, chaos, morale, float speed, byte paused
+ *            int rooms, int firstNew; per new room: byte type, int x, y, width, height
+ *            long[(rooms + 63) / 64] alive bits
+ *            int chunks; per chunk: int index, int length, byte[length] runs (varint count, byte value)
+ * </pre>
+ * A chunk missing from every segment is all EMPTY; a later copy of a chunk replaces earlier ones.
+ */
+public class SaveFile {
+
+    public static final int MAGIC   = 0x47445853; // "GDXS"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int END_OFFSET   = 8;
+    private static final int SIM_BYTES    = 8 + 5 * 4 + 4 + 1;
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    /** Everything that changed between two captures, frozen for {@link #write}. */
+    public static final class Snapshot {
+        int width, height;
+        boolean chunked;
+        boolean restart;           // first capture of this grid: chunks holds every written chunk
+        int[] chunkIndex;
+        ChunkSnapshot[] chunks;
+        int roomsFrom, roomsTotal;
+        int[] newRooms;            // type, x, y, width, height per room in [roomsFrom, roomsTotal)
+        boolean[] alive;           // null if no room was removed or restored since the last capture
+        double minutes;
+        int day, cash, reputation, chaos, morale;
+        float speed;
+        boolean paused;
+
+        /** Chunks captured (dirty since the previous capture). */
+        public int getChunkCount() { return chunks.length; }
+    }
+
+    private final File file;
+
+    // Capture side: what has been captured so far, valid only for trackedGrid
+    private Grid trackedGrid;
+    private final IntIntMap savedVersion = new IntIntMap(); // absent = 0 = never written = all EMPTY
+    private int savedRooms, savedLiveChanges;
+    private final IntArray written = new IntArray(), dirty = new IntArray();
+
+    // Write side: mirror of the captured state, and where the file stands
+    private int width, height;
+    private boolean chunked;
+    private final IntMap<byte[]> encoded = new IntMap<>(); // latest runs per chunk, absent if all EMPTY
+    private final IntArray roomData = new IntArray();
+    private long[] alive = new long[0];
+    private long end, baseEnd;
+    private boolean stale = true;             // file does not match the mirror: rewrite in full
+
+    // Write scratch: encoded output, and one chunk's cells
+    private byte[] out = new byte[1 << 16];
+    private int outLen;
+    private final byte[] cells = new byte[Grid.CHUNK_SIZE * Grid.CHUNK_SIZE];
+
+    // Stats of the last write
+    private volatile int lastChunks;
+    private volatile long lastBytes;
+    private volatile boolean lastFull;
+
+    public SaveFile(File file) {
+        this.file = file;
+    }
+
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    // -------------------------------------------------------------------------
+    // Save
+    // -------------------------------------------------------------------------
+
+    /** Captures and writes on the calling thread. */
+    public void save(Grid grid, RoomGraph rooms, SimState sim) throws IOException {
+        write(capture(grid, rooms, sim));
+    }
+
+    /** Like {@link #save}, but captures every chunk and rewrites the whole file. */
+    public void saveFull(Grid grid, RoomGraph rooms, SimState sim) throws IOException {
+        trackedGrid = null;
+        save(grid, rooms, sim);
+    }
+
+    /**
+     * Freezes the chunks, rooms and stats that changed since the previous capture (everything,
+     * the first time a grid is seen). Costs a pass over the versions of the chunks ever written
+     * plus O(dirty chunks), and never touches the file.
+     */
+    public Snapshot capture(Grid grid, RoomGraph rooms, SimState sim) {
+        Snapshot s = new Snapshot();
+        s.restart = grid != trackedGrid;
+        if (s.restart) {
+            trackedGrid = grid;
+            savedVersion.clear();
+            savedRooms = 0;
+            savedLiveChanges = rooms.getLiveChanges() - 1; // force the alive bits
+        }
+        s.width   = grid.width;
+        s.height  = grid.height;
+        s.chunked = grid.isChunked();
+
+        written.clear();
+        grid.writtenChunks(written);
+        dirty.clear();
+        for (int k = 0; k < written.size; k++) {
+            int c = written.get(k);
+            if (grid.chunkVersion(c % grid.chunksX, c / grid.chunksX) != savedVersion.get(c, 0)) dirty.add(c);
+        }
+        s.chunkIndex = dirty.toArray();
+        s.chunks = new ChunkSnapshot[dirty.size];
+        for (int k = 0; k < dirty.size; k++) {
+            int c = dirty.get(k), cx = c % grid.chunksX, cy = c / grid.chunksX;
+            s.chunks[k] = grid.snapshotChunk(cx, cy);
+            savedVersion.put(c, grid.chunkVersion(cx, cy));
+        }
+
+        s.roomsFrom  = savedRooms;
+        s.roomsTotal = rooms.size();
+        s.newRooms = new int[5 * (s.roomsTotal - s.roomsFrom)];
+        for (int r = s.roomsFrom, i = 0; r < s.roomsTotal; r++) {
+            s.newRooms[i++] = rooms.getType(r).ordinal();
+            s.newRooms[i++] = rooms.getX(r);
+            s.newRooms[i++] = rooms.getY(r);
+            s.newRooms[i++] = rooms.getWidth(r);
+            s.newRooms[i++] = rooms.getHeight(r);
+        }
+        if (rooms.getLiveChanges() != savedLiveChanges) {
+            s.alive = rooms.copyAlive();
+        }
+        savedRooms       = s.roomsTotal;
+        savedLiveChanges = rooms.getLiveChanges();
+
+        s.minutes    = sim.minutes;
+        s.day        = sim.day;
+        s.cash       = sim.cash;
+        s.reputation = sim.reputation;
+        s.chaos      = sim.chaos;
+        s.morale     = sim.morale;
+        s.speed      = sim.speedMultiplier;
+        s.paused     = sim.paused;
+        return s;
+    }
+
+    /**
+     * Encodes a snapshot and writes it: appended as a segment, or as a full rewrite (through a
+     * temporary file) for the first snapshot of a grid, after a failed write, or once the
+     * appended part outgrows the first segment.
+     */
+    public void write(Snapshot s) throws IOException {
+        if (s.restart) {
+            width   = s.width;
+            height  = s.height;
+            chunked = s.chunked;
+            encoded.clear();
+            roomData.clear();
+            alive = new long[0];
+            stale = true;
+        }
+        boolean full = stale || !file.isFile() || end - baseEnd > baseEnd - HEADER_BYTES;
+
+        // Bring the mirror up to date, building the incremental segment as we go
+        outLen = 0;
+        putSim(s);
+        roomData.addAll(s.newRooms);
+        alive = Arrays.copyOf(alive, (s.roomsTotal + 63) >>> 6);
+        if (s.alive != null) {
+            Arrays.fill(alive, 0L);
+            for (int r = 0; r < s.roomsTotal; r++) if (s.alive[r]) alive[r >>> 6] |= 1L << r;
+        } else {
+            for (int r = s.roomsFrom; r < s.roomsTotal; r++) alive[r >>> 6] |= 1L << r; // new rooms start alive
+        }
+        putRooms(s.roomsFrom, s.roomsTotal);
+        putInt(s.chunks.length);
+        for (int k = 0; k < s.chunks.length; k++) {
+            int n = s.chunks[k].read(cells);
+            int chunkAt = outLen;
+            putInt(s.chunkIndex[k]);
+            putInt(0);
+            boolean empty = encodeRuns(cells, n) == 1 && cells[0] == 0;
+            putIntAt(chunkAt + 4, outLen - chunkAt - 8);
+            if (empty) encoded.remove(s.chunkIndex[k]);
+            else       encoded.put(s.chunkIndex[k], Arrays.copyOfRange(out, chunkAt + 8, outLen));
+        }
+
+        try {
+            if (full) writeFull(s);
+            else      append();
+        } catch (IOException e) {
+            stale = true; // the mirror is ahead of the file: the next write starts over
+            throw e;
+        }
+        lastChunks = s.chunks.length;
+        lastFull   = full;
+    }
+
+    private void append() throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            writeFully(ch, ByteBuffer.wrap(out, 0, outLen), end);
+            writeFully(ch, ByteBuffer.allocate(8).putLong(0, end + outLen), END_OFFSET);
+        }
+        end += outLen;
+        lastBytes = outLen;
+    }
+
+    /** Rewrites the file as a header and a single segment built from the mirror. */
+    private void writeFull(Snapshot s) throws IOException {
+        outLen = 0;
+        putInt(MAGIC);
+        putInt(VERSION);
+        putLong(0); // end, patched below
+        putInt(width);
+        putInt(height);
+        put(chunked ? 1 : 0);
+        while (outLen < HEADER_BYTES) put(0);
+        putSim(s);
+        putRooms(0, roomData.size / 5);
+        int countAt = outLen;
+        putInt(0);
+        int count = 0;
+        IntArray order = encoded.keys().toArray(); // absent chunks load as EMPTY
+        order.sort();
+        for (int k = 0; k < order.size; k++) {
+            int c = order.get(k);
+            byte[] runs = encoded.get(c);
+            putInt(c);
+            putInt(runs.length);
+            ensure(runs.length);
+            System.arraycopy(runs, 0, out, outLen, runs.length);
+            outLen += runs.length;
+            count++;
+        }
+        putIntAt(countAt, count);
+        putIntAt(END_OFFSET, 0);
+        putIntAt(END_OFFSET + 4, outLen);
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(ch, ByteBuffer.wrap(out, 0, outLen), 0);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        end = baseEnd = outLen;
+        stale = false;
+        lastBytes = outLen;
+    }
+
+    private void putSim(Snapshot s) {
+        putDouble(s.minutes);
+        putInt(s.day);
+        putInt(s.cash);
+        putInt(s.reputation);
+        putInt(s.chaos);
+        putInt(s.morale);
+        putInt(Float.floatToIntBits(s.speed));
+        put(s.paused ? 1 : 0);
+    }
+
+    /** Rooms [from, total) from the mirror, then the alive bits of all of them. */
+    private void putRooms(int from, int total) {
+        putInt(total);
+        putInt(from);
+        for (int r = from; r < total; r++) {
+            put(roomData.get(r * 5));
+            for (int k = 1; k < 5; k++) putInt(roomData.get(r * 5 + k));
+        }
+        for (int w = 0; w < (total + 63) >>> 6; w++) putLong(alive[w]);
+    }
+
+    /** Appends the runs of {@code cells[0, n)} to the output; returns the number of runs. */
+    private int encodeRuns(byte[] cells, int n) {
+        ensure(6 * n); // worst case: a run per cell
+        byte[] o = out;
+        int len = outLen;
+        byte v = cells[0];
+        int start = 0, runs = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i < n && cells[i] == v) continue;
+            int run = i - start;
+            runs++;
+            while ((run & ~0x7F) != 0) {
+                o[len++] = (byte) ((run & 0x7F) | 0x80);
+                run >>>= 7;
+            }
+            o[len++] = (byte) run;
+            o[len++] = v;
+            if (i < n) {
+                v = cells[i];
+                start = i;
+            }
+        }
+        outLen = len;
+        return runs;
+    }
+
+    // -------------------------------------------------------------------------
+    // Load
+    // -------------------------------------------------------------------------
+
+    /**
+     * Loads the file into {@code sim} and a new grid, returned with its placement system (and
+     * rooms). Later saves through this object append to the file. Tile runs are decoded straight
+     * from the mapped file into the grid, and each chunk's runs are kept for later full rewrites.
+     * Must not run while a {@link #write} is in progress.
+     *
+     * @throws GdxRuntimeException if the file is not a save, has another version or is corrupt;
+     *         {@code sim} is left untouched
+     */
+    public RoomPlacementSystem load(SimState sim) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return read(buf, sim);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new GdxRuntimeException("Corrupt save " + file, e);
+        }
+    }
+
+    private RoomPlacementSystem read(ByteBuffer buf, SimState sim) {
+        if (buf.limit() < HEADER_BYTES || buf.getInt(0) != MAGIC) throw new GdxRuntimeException("Not a save file: " + file);
+        int version = buf.getInt(4);
+        if (version != VERSION) throw new GdxRuntimeException("Unsupported save version " + version);
+        long fileEnd = buf.getLong(END_OFFSET);
+        int width = buf.getInt(16), height = buf.getInt(20);
+        boolean chunked = buf.get(24) != 0;
+        if (fileEnd < HEADER_BYTES || fileEnd > buf.limit() || width <= 0 || height <= 0) throw new GdxRuntimeException("Corrupt save " + file);
+        buf.limit((int) fileEnd);
+        Grid grid = new Grid(width, height, chunked);
+
+        // Pass 1: walk the segments, keeping the sim state, rooms and newest copy of each chunk
+        long chunks = (long) grid.chunksX * grid.chunksY;
+        IntIntMap latest = new IntIntMap(), latestLength = new IntIntMap(); // chunk -> newest copy's offset, length
+        IntArray roomData = new IntArray();
+        long[] alive = new long[0];
+        int roomCount = 0;
+        long firstEnd = -1;
+        buf.position(HEADER_BYTES);
+        int simAt = -1;
+        while (buf.hasRemaining()) {
+            simAt = buf.position();
+            buf.position(simAt + SIM_BYTES);
+
+            int total = buf.getInt(), from = buf.getInt();
+            if (from != roomCount || total < from) throw new GdxRuntimeException("Corrupt save " + file);
+            for (int r = from; r < total; r++) {
+                roomData.add(buf.get(), buf.getInt(), buf.getInt(), buf.getInt());
+                roomData.add(buf.getInt());
+            }
+            roomCount = total;
+            alive = new long[(total + 63) >>> 6];
+            buf.asLongBuffer().get(alive);
+            buf.position(buf.position() + 8 * alive.length);
+
+            for (int k = buf.getInt(); k > 0; k--) {
+                int c = buf.getInt(), length = buf.getInt();
+                if (c < 0 || c >= chunks || length < 0) throw new GdxRuntimeException("Corrupt save " + file);
+                latest.put(c, buf.position());
+                latestLength.put(c, length);
+                buf.position(buf.position() + length);
+            }
+            if (firstEnd < 0) firstEnd = buf.position();
+        }
+
+        // Pass 2: decode each chunk once, straight from the mapped buffer
+        IntMap<byte[]> runs = new IntMap<>();
+        ByteBuffer src = buf.duplicate();
+        IntArray order = latest.keys().toArray();
+        order.sort();
+        for (int k = 0; k < order.size; k++) {
+            int c = order.get(k), cx = c % grid.chunksX, cy = c / grid.chunksX, at = latest.get(c, 0);
+            if (decodeRuns(buf, at, grid.chunkCells(cx, cy)) == 1 && cells[0] == 0) continue; // all EMPTY
+            grid.writeChunk(cx, cy, cells);
+            byte[] r = new byte[latestLength.get(c, 0)];
+            src.position(at);
+            src.get(r);
+            runs.put(c, r);
+        }
+
+        if (simAt < 0) throw new GdxRuntimeException("Corrupt save " + file);
+        buf.position(simAt);
+        SimState loaded = new SimState();
+        loaded.minutes    = buf.getDouble();
+        loaded.day        = buf.getInt();
+        loaded.cash       = buf.getInt();
+        loaded.reputation = buf.getInt();
+        loaded.chaos      = buf.getInt();
+        loaded.morale     = buf.getInt();
+        loaded.speedMultiplier = buf.getFloat();
+        loaded.paused     = buf.get() != 0;
+
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        RoomGraph rooms = placer.getRooms();
+        for (int r = 0; r < roomCount; r++) {
+            int type = roomData.get(r * 5);
+            if (type < 0 || type >= ROOM_TYPES.length) throw new GdxRuntimeException("Corrupt save " + file);
+            RoomTemplate t = new RoomTemplate(ROOM_TYPES[type], roomData.get(r * 5 + 3), roomData.get(r * 5 + 4));
+            rooms.add(t, roomData.get(r * 5 + 1), roomData.get(r * 5 + 2));
+            if ((alive[r >>> 6] & (1L << r)) == 0) rooms.remove(r);
+        }
+
+        // Everything parsed: only now touch the caller's state
+        sim.minutes    = loaded.minutes;
+        sim.day        = loaded.day;
+        sim.cash       = loaded.cash;
+        sim.reputation = loaded.reputation;
+        sim.chaos      = loaded.chaos;
+        sim.morale     = loaded.morale;
+        sim.speedMultiplier = loaded.speedMultiplier;
+        sim.paused     = loaded.paused;
+
+        // The file now matches this grid exactly: later saves only append what changes
+        trackedGrid = grid;
+        savedVersion.clear();
+        written.clear();
+        grid.writtenChunks(written);
+        for (int k = 0; k < written.size; k++) {
+            int c = written.get(k);
+            savedVersion.put(c, grid.chunkVersion(c % grid.chunksX, c / grid.chunksX));
+        }
+        savedRooms       = roomCount;
+        savedLiveChanges = rooms.getLiveChanges();
+
+        this.width   = width;
+        this.height  = height;
+        this.chunked = chunked;
+        this.encoded.clear();
+        this.encoded.putAll(runs);
+        this.roomData.clear();
+        this.roomData.addAll(roomData);
+        this.alive = alive;
+        end     = fileEnd;
+        baseEnd = firstEnd < 0 ? fileEnd : firstEnd;
+        stale   = false;
+        return placer;
+    }
+
+    /** Decodes the runs at {@code pos} into {@code cells[0, n)}; returns the number of runs. */
+    private int decodeRuns(ByteBuffer buf, int pos, int n) {
+        byte[] c = cells;
+        int i = 0, runs = 0;
+        while (i < n) {
+            runs++;
+            int run = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buf.get(pos++);
+                run |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            byte v = buf.get(pos++);
+            if (run <= 0 || run > n - i || v < 0 || (v >> 1) >= TILE_TYPES.length) {
+                throw new GdxRuntimeException("Corrupt save " + file);
+            }
+            for (int end = i + run; i < end; i++) c[i] = v;
+        }
+        return runs;
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static void writeFully(FileChannel ch, ByteBuffer src, long position) throws IOException {
+        while (src.hasRemaining()) position += ch.write(src, position);
+    }
+
+    private void ensure(int extra) {
+        if (outLen + extra > out.length) out = Arrays.copyOf(out, Math.max(outLen + extra, out.length * 2));
+    }
+
+    private void put(int b) {
+        ensure(1);
+        out[outLen++] = (byte) b;
+    }
+
+    private void putInt(int v) {
+        ensure(4);
+        out[outLen++] = (byte) (v >>> 24);
+        out[outLen++] = (byte) (v >>> 16);
+        out[outLen++] = (byte) (v >>> 8);
+        out[outLen++] = (byte) v;
+    }
+
+    private void putIntAt(int at, int v) {
+        out[at]     = (byte) (v >>> 24);
+        out[at + 1] = (byte) (v >>> 16);
+        out[at + 2] = (byte) (v >>> 8);
+        out[at + 3] = (byte) v;
+    }
+
+    private void putLong(long v) {
+        putInt((int) (v >>> 32));
+        putInt((int) v);
+    }
+
+    private void putDouble(double v) {
+        putLong(Double.doubleToLongBits(v));
+    }
+
+    // -------------------------------------------------------------------------
+    // Stats
+    // -------------------------------------------------------------------------
+
+    /** Chunks written by the last save (dirty since the one before). */
+    public int getLastChunks() { return lastChunks; }
+
+    /** Bytes written by the last save. */
+    public long getLastBytes() { return lastBytes; }
+
+    /** True if the last save rewrote the whole file. */
+    public boolean wasLastFull() { return lastFull; }
+
+    /** Current size of the valid part of the file. */
+    public long getSize() { return end; }
+
+    public File getFile() { return file; }
+}
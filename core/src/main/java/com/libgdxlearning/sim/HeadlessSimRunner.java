@@ -0,0 +1,116 @@
+package com.libgdxlearning.sim;
+
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.rooms.PlacementResult;
+import com.libgdxlearning.rooms.RoomPlacement;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.rooms.RoomType;
+import com.libgdxlearning.world.Grid;
+
+/**
+ * Runs a SimState and its Grid/RoomPlacementSystem world with no window, GL context or
+ * libGDX backend, stepping fixed ticks in a tight loop as fast as the CPU allows.
+ * main() runs the default pub with a seeded PubModel, so the timing includes the world's
+ * per-tick work and not just the clock.
+ *
+ * Usage: {@code ./gradlew core:runHeadless -Pdays=365}
+ */
+public class HeadlessSimRunner {
+
+    public static final int TICKS_PER_DAY = 1440 / SimState.MINUTES_PER_TICK;
+
+    public final SimState sim;
+    public final Grid grid;
+    public final RoomPlacementSystem placer;
+
+    private TickHook hook;
+
+    public HeadlessSimRunner(int gridWidth, int gridHeight) {
+        this(new SimState(), new Grid(gridWidth, gridHeight));
+    }
+
+    public HeadlessSimRunner(SimState sim, Grid grid) {
+        this.sim    = sim;
+        this.grid   = grid;
+        this.placer = new RoomPlacementSystem(grid);
+    }
+
+    /** Sets the per-tick logic (may be null for a clock-only run). */
+    public void setHook(TickHook hook) {
+        this.hook = hook;
+    }
+
+    /** Places the layout in one batch; returns the number of rooms placed. */
+    public int build(Array<RoomPlacement> layout) {
+        int placed = 0;
+        for (PlacementResult r : placer.placeAll(layout)) {
+            if (r == PlacementResult.PLACED) placed++;
+        }
+        return placed;
+    }
+
+    /**
+     * Steps exactly {@code ticks} fixed ticks, ignoring pause and speed. Stat events are
+     * drained after every tick so {@link SimState#events} subscribers see them headless too.
+     */
+    public void runTicks(long ticks) {
+        SimState s = sim;
+        TickHook h = hook;
+        if (h == null) {
+            for (long i = 0; i < ticks; i++) {
+                s.tick();
+                s.events.drain();
+            }
+        } else {
+            for (long i = 0; i < ticks; i++) {
+                s.tick();
+                h.onTick(s);
+                s.events.drain();
+            }
+        }
+    }
+
+    /** Simulates whole in-game days; returns the wall-clock nanoseconds taken. */
+    public long runDays(int days) {
+        long t0 = System.nanoTime();
+        runTicks((long) days * TICKS_PER_DAY);
+        return System.nanoTime() - t0;
+    }
+
+    /** A small pub: one of each room type in a row. */
+    public static Array<RoomPlacement> defaultLayout() {
+        Array<RoomPlacement> layout = new Array<>();
+        layout.add(new RoomPlacement(new RoomTemplate(RoomType.MAIN_BAR,       10, 8),  2,  2));
+        layout.add(new RoomPlacement(new RoomTemplate(RoomType.KITCHEN,         6, 6), 13,  2));
+        layout.add(new RoomPlacement(new RoomTemplate(RoomType.TOILETS,         5, 5), 20,  2));
+        layout.add(new RoomPlacement(new RoomTemplate(RoomType.MANAGER_OFFICE,  4, 4), 26,  2));
+        layout.add(new RoomPlacement(new RoomTemplate(RoomType.BEER_GARDEN,    12, 8),  2, 11));
+        return layout;
+    }
+
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 365;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+
+        pub(seed).runDays(Math.min(days, 30)); // warm-up on a throwaway pub, so the timed run starts fresh
+
+        HeadlessSimRunner runner = pub(seed);
+        long nanos = runner.runDays(days);
+
+        double seconds = nanos / 1e9;
+        System.out.printf("Simulated %d days (%d rooms, PubModel seed %d) in %.1f ms: %.0f days/s%n",
+                days, runner.placer.getRooms().size(), seed, nanos / 1e6, days / seconds);
+        System.out.printf("End state: day %d, cash %d, rep %d, chaos %d, morale %d%n",
+                runner.sim.day, runner.sim.cash, runner.sim.reputation, runner.sim.chaos, runner.sim.morale);
+    }
+
+    /** The default pub with the seeded PubModel trading in it, as MonteCarloRunner runs each scenario. */
+    private static HeadlessSimRunner pub(long seed) {
+        HeadlessSimRunner runner = new HeadlessSimRunner(80, 60);
+        runner.build(defaultLayout());
+        runner.setHook(new PubModel(runner.grid, seed));
+        return runner;
+    }
+}
@@ -0,0 +1,192 @@
+package com.libgdxlearning.sim;
+
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.rooms.RoomPlacement;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.world.Grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent seeded {@link Scenario}s concurrently on a work-stealing pool and aggregates
+ * per-day distributions of cash, reputation, chaos and morale.
+ *
+ * Every scenario owns its SimState, Grid, placement system and random generator, and results
+ * are stored by scenario index, so output is bit-identical whatever the thread count.
+ *
+ * Usage: {@code ./gradlew core:runMonteCarlo -Pscenarios=256 -Pdays=90}
+ */
+public class MonteCarloRunner {
+
+    public static final int STAT_CASH   = 0;
+    public static final int STAT_REP    = 1;
+    public static final int STAT_CHAOS  = 2;
+    public static final int STAT_MORALE = 3;
+    public static final int STAT_COUNT  = 4;
+
+    /** End-of-day stats of one scenario: values[day * STAT_COUNT + stat]. */
+    public static class ScenarioResult {
+        public final long seed;
+        public final int days;
+        public final int[] values;
+
+        ScenarioResult(long seed, int days) {
+            this.seed   = seed;
+            this.days   = days;
+            this.values = new int[days * STAT_COUNT];
+        }
+
+        public int get(int day, int stat) {
+            return values[day * STAT_COUNT + stat];
+        }
+    }
+
+    /** Per-day distribution of each stat across all scenarios. */
+    public static class Summary {
+        public final int scenarios;
+        public final int days;
+        /** sorted[(day * STAT_COUNT + stat) * scenarios + k], ascending over k. */
+        private final int[] sorted;
+
+        Summary(List<ScenarioResult> results, int days) {
+            this.scenarios = results.size();
+            this.days      = days;
+            sorted = new int[days * STAT_COUNT * scenarios];
+            for (int d = 0; d < days; d++) {
+                for (int s = 0; s < STAT_COUNT; s++) {
+                    int base = (d * STAT_COUNT + s) * scenarios;
+                    for (int k = 0; k < scenarios; k++) sorted[base + k] = results.get(k).get(d, s);
+                    Arrays.sort(sorted, base, base + scenarios);
+                }
+            }
+        }
+
+        public double mean(int day, int stat) {
+            int base = (day * STAT_COUNT + stat) * scenarios;
+            long sum = 0;
+            for (int k = 0; k < scenarios; k++) sum += sorted[base + k];
+            return (double) sum / scenarios;
+        }
+
+        /** Nearest-rank percentile, p in [0, 100]. */
+        public int percentile(int day, int stat, double p) {
+            int base = (day * STAT_COUNT + stat) * scenarios;
+            int rank = (int) Math.ceil(p / 100.0 * scenarios) - 1;
+            return sorted[base + Math.max(0, Math.min(scenarios - 1, rank))];
+        }
+    }
+
+    /** Runs one scenario start to finish on the calling thread. */
+    public static ScenarioResult runScenario(Scenario sc) {
+        HeadlessSimRunner runner = new HeadlessSimRunner(new SimState(), new Grid(sc.gridWidth, sc.gridHeight));
+        runner.build(sc.layout);
+        runner.setHook(new PubModel(runner.grid, sc.seed));
+
+        ScenarioResult result = new ScenarioResult(sc.seed, sc.days);
+        SimState sim = runner.sim;
+        for (int d = 0; d < sc.days; d++) {
+            runner.runTicks(HeadlessSimRunner.TICKS_PER_DAY);
+            int o = d * STAT_COUNT;
+            result.values[o + STAT_CASH]   = sim.cash;
+            result.values[o + STAT_REP]    = sim.reputation;
+            result.values[o + STAT_CHAOS]  = sim.chaos;
+            result.values[o + STAT_MORALE] = sim.morale;
+        }
+        return result;
+    }
+
+    /** Runs all scenarios on a work-stealing pool of {@code threads} workers; results in input order. */
+    public static List<ScenarioResult> runAll(List<Scenario> scenarios, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Callable<ScenarioResult>> tasks = new ArrayList<>(scenarios.size());
+            for (Scenario sc : scenarios) tasks.add(() -> runScenario(sc));
+            List<ScenarioResult> results = new ArrayList<>(scenarios.size());
+            for (Future<ScenarioResult> f : pool.invokeAll(tasks)) results.add(f.get());
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Monte-Carlo run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Runs the same scenarios one after another on the calling thread. */
+    public static List<ScenarioResult> runSequential(List<Scenario> scenarios) {
+        List<ScenarioResult> results = new ArrayList<>(scenarios.size());
+        for (Scenario sc : scenarios) results.add(runScenario(sc));
+        return results;
+    }
+
+    public static Summary summarize(List<ScenarioResult> results) {
+        int days = results.isEmpty() ? 0 : results.get(0).days;
+        return new Summary(results, days);
+    }
+
+    /** Default layout with room sizes jittered per seed, so each scenario has its own plan. */
+    public static Scenario randomScenario(long seed, int days) {
+        SplittableRandom rng = new SplittableRandom(seed ^ 0x9E3779B97F4A7C15L);
+        Array<RoomPlacement> layout = new Array<>();
+        for (RoomPlacement p : HeadlessSimRunner.defaultLayout()) {
+            int w = Math.max(3, p.template.width  + rng.nextInt(-1, 2));
+            int h = Math.max(3, p.template.height + rng.nextInt(-1, 2));
+            layout.add(new RoomPlacement(new RoomTemplate(p.template.type, w, h), p.x, p.y));
+        }
+        return new Scenario(seed, 80, 60, layout, days);
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int days  = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        List<Scenario> scenarios = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) scenarios.add(randomScenario(1000L + i, days));
+
+        runAll(scenarios, cores); // warm-up
+        long t0 = System.nanoTime();
+        List<ScenarioResult> reference = runSequential(scenarios);
+        double baseMs = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("%d scenarios x %d days, sequential: %.1f ms%n", count, days, baseMs);
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) threadCounts.add(t);
+        threadCounts.add(cores);
+        for (int threads : threadCounts) {
+            t0 = System.nanoTime();
+            List<ScenarioResult> results = runAll(scenarios, threads);
+            double ms = (System.nanoTime() - t0) / 1e6;
+            System.out.printf("  %2d threads: %8.1f ms  speedup %.2fx  identical=%b%n",
+                    threads, ms, baseMs / ms, sameResults(reference, results));
+        }
+
+        Summary summary = summarize(reference);
+        int last = days - 1;
+        String[] names = {"cash", "rep", "chaos", "morale"};
+        System.out.printf("Day %d distribution:%n", days);
+        for (int s = 0; s < STAT_COUNT; s++) {
+            System.out.printf("  %-6s mean %9.1f  p10 %7d  p50 %7d  p90 %7d%n", names[s],
+                    summary.mean(last, s), summary.percentile(last, s, 10),
+                    summary.percentile(last, s, 50), summary.percentile(last, s, 90));
+        }
+    }
+
+    private static boolean sameResults(List<ScenarioResult> a, List<ScenarioResult> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (!Arrays.equals(a.get(i).values, b.get(i).values)) return false;
+        }
+        return true;
+    }
+}
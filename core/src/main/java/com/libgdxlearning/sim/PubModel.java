@@ -0,0 +1,70 @@
+package com.libgdxlearning.sim;
+
+import com.libgdxlearning.SimState;
+import com.libgdxlearning.world.Grid;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Baseline seeded pub economy for headless runs: hourly trade scaled by built floor area and
+ * reputation, with random chaos that feeds back into reputation and staff morale at day end.
+ * All randomness comes from one seeded generator, so a seed always replays identically.
+ */
+public class PubModel implements TickHook {
+
+    private static final int OPEN_HOUR   = 11;
+    private static final int CLOSE_HOUR  = 23;
+    private static final int SPEND       = 6;   // £ per customer
+    private static final int DAILY_COSTS = 120; // wages + rent
+    private static final int STAT_CAP    = 100; // rep/morale ceiling the model grows towards
+
+    private final SplittableRandom rng;
+    private final int floorCells;
+
+    public PubModel(Grid grid, long seed) {
+        this.rng = new SplittableRandom(seed);
+        int floors = 0;
+        for (int y = 0; y < grid.height; y++) {
+            for (int x = 0; x < grid.width; x++) {
+                TileType t = grid.getType(x, y);
+                if (t == TileType.FLOOR_WOOD || t == TileType.FLOOR_KITCHEN) floors++;
+            }
+        }
+        floorCells = floors;
+    }
+
+    @Override
+    public void onTick(SimState sim) {
+        int minuteOfDay = (int) sim.minutes;
+        if (minuteOfDay % 60 != 0) return;
+        int hour = minuteOfDay / 60;
+
+        if (hour == 0) {
+            endOfDay(sim);
+        } else if (hour >= OPEN_HOUR && hour < CLOSE_HOUR) {
+            trade(sim);
+        }
+    }
+
+    private void trade(SimState sim) {
+        int capacity = floorCells / 4;
+        double appeal = 0.2 + Math.max(0, sim.reputation) / 100.0;
+        int customers = (int) Math.min(capacity, capacity * appeal * (0.5 + rng.nextDouble()));
+        if (customers <= 0) return;
+
+        sim.addCash(customers * SPEND);
+        // Busy hours get rowdy; good morale keeps a lid on it.
+        int trouble = rng.nextInt(customers / 4 + 1) - sim.morale / 25;
+        if (trouble > 0) sim.addChaos(trouble);
+    }
+
+    private void endOfDay(SimState sim) {
+        sim.addCash(-DAILY_COSTS);
+        if (sim.chaos >= 20)               sim.addRep(-(sim.chaos / 20));
+        else if (sim.reputation < STAT_CAP) sim.addRep(1);
+        if (sim.chaos > 40)                 sim.addMorale(-2);
+        else if (sim.morale < STAT_CAP)     sim.addMorale(1);
+        sim.addChaos(-(sim.chaos / 2)); // overnight clean-up
+    }
+}
@@ -0,0 +1,22 @@
+package com.libgdxlearning.sim;
+
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.rooms.RoomPlacement;
+
+/** One independent seeded run: its own grid size, placement plan and number of days. */
+public class Scenario {
+
+    public final long seed;
+    public final int gridWidth;
+    public final int gridHeight;
+    public final Array<RoomPlacement> layout;
+    public final int days;
+
+    public Scenario(long seed, int gridWidth, int gridHeight, Array<RoomPlacement> layout, int days) {
+        this.seed       = seed;
+        this.gridWidth  = gridWidth;
+        this.gridHeight = gridHeight;
+        this.layout     = layout;
+        this.days       = days;
+    }
+}
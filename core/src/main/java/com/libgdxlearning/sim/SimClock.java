@@ -0,0 +1,78 @@
+package com.libgdxlearning.sim;
+
+/**
+ * Fixed-timestep accumulator that decouples simulation ticks from the render frame rate.
+ *
+ * Real frame time (scaled by the speed multiplier) is accumulated and converted into whole
+ * ticks of {@link #STEP_SECONDS}. At most {@link #MAX_STEPS_PER_FRAME} ticks run per frame;
+ * any backlog beyond that is dropped (and counted) instead of snowballing into a spiral of
+ * death. The leftover fraction is exposed as {@link #alpha()} for render interpolation.
+ *
+ * No libGDX dependencies, so it runs headless.
+ */
+public class SimClock {
+
+    /** Real seconds per tick at x1 speed (one game minute: 60 game minutes per real second). */
+    public static final float STEP_SECONDS = 1f / 60f;
+
+    /** Highest supported speed multiplier. */
+    public static final float MAX_SPEED = 64f;
+
+    /** Catch-up cap per frame: enough for x64 down to ~15 FPS. */
+    public static final int MAX_STEPS_PER_FRAME = 256;
+
+    /** Largest float below 1. */
+    private static final float ALPHA_MAX = 0x1.fffffep-1f;
+
+    private double accumulator;   // pending ticks (fractional)
+    private long   totalTicks;
+    private long   droppedTicks;
+
+    // Ticks-per-second measurement over ~1 s windows of real time
+    private float windowTime;
+    private int   windowTicks;
+    private float ticksPerSecond;
+
+    /**
+     * Advances the clock by {@code delta} real seconds at the given speed and returns how many
+     * fixed ticks the caller should run now.
+     */
+    public int advance(float delta, float speed) {
+        if (delta < 0f) delta = 0f;
+        speed = Math.max(0f, Math.min(MAX_SPEED, speed));
+
+        accumulator += delta * speed / STEP_SECONDS;
+        int steps = (int) accumulator;
+        if (steps > MAX_STEPS_PER_FRAME) {
+            droppedTicks += steps - MAX_STEPS_PER_FRAME;
+            accumulator  -= steps - MAX_STEPS_PER_FRAME;
+            steps = MAX_STEPS_PER_FRAME;
+        }
+        accumulator -= steps;
+        totalTicks  += steps;
+
+        windowTime  += delta;
+        windowTicks += steps;
+        if (windowTime >= 1f) {
+            ticksPerSecond = windowTicks / windowTime;
+            windowTime  = 0f;
+            windowTicks = 0;
+        }
+        return steps;
+    }
+
+    /** Fraction (0..1) of the next tick already accumulated; blend previous/current state with it. */
+    public float alpha() {
+        // A pending fraction just under 1 would round up to 1f as a float.
+        return Math.min((float) accumulator, ALPHA_MAX);
+    }
+
+    /** Discards any pending fractional tick (e.g. on pause). */
+    public void reset() {
+        accumulator = 0;
+    }
+
+    public long getTotalTicks()     { return totalTicks; }
+    public long getDroppedTicks()   { return droppedTicks; }
+    public float getTicksPerSecond() { return ticksPerSecond; }
+}
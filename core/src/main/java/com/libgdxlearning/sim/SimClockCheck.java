@@ -0,0 +1,118 @@
+package com.libgdxlearning.sim;
+
+import com.libgdxlearning.SimState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Headless check of the fixed-timestep clock.
+ *
+ *  1. Frame-rate independence: 10 real seconds at x64 and 144, 60 and 17 FPS run the same
+ *     number of ticks (within 1) as the ideal 10 × 64 × 60.
+ *  2. The catch-up cap: at 5 FPS and x64 every frame runs {@link SimClock#MAX_STEPS_PER_FRAME}
+ *     ticks, and the excess shows up in {@link SimClock#getDroppedTicks()}.
+ *  3. {@link SimClock#alpha()} stays in [0, 1) after every frame, also with jittery frame times.
+ *  4. Pause (through {@link SimState#update}) runs no ticks and clears the pending fraction;
+ *     speeds above {@link SimClock#MAX_SPEED} run as MAX_SPEED, negative speeds and frame
+ *     times run nothing.
+ *
+ * Also prints the {@link SimClock#getTicksPerSecond()} reading of each run.
+ *
+ * Usage: {@code ./gradlew core:runSimClockCheck}
+ */
+public class SimClockCheck {
+
+    private static final int SECONDS = 10;
+    private static final float SPEED = SimClock.MAX_SPEED;
+
+    public static void main(String[] args) {
+        boolean ok = true;
+
+        // 1. Same ticks at any frame rate.
+        double ideal = SECONDS * SPEED / SimClock.STEP_SECONDS;
+        long[] ticks = new long[3];
+        int[] fps = { 144, 60, 17 };
+        for (int i = 0; i < fps.length; i++) {
+            SimClock clock = new SimClock();
+            boolean alphaOk = run(clock, fps[i], SECONDS * fps[i]);
+            ticks[i] = clock.getTotalTicks();
+            boolean same = Math.abs(ticks[i] - ideal) <= 1 && clock.getDroppedTicks() == 0;
+            System.out.printf("%3d FPS x%.0f for %d s: %d ticks (ideal %.0f), %d dropped, %.0f ticks/s, alpha in [0,1): %b; same=%b%n",
+                    fps[i], SPEED, SECONDS, ticks[i], ideal, clock.getDroppedTicks(), clock.getTicksPerSecond(), alphaOk, same);
+            ok &= same && alphaOk;
+        }
+        ok &= Math.abs(ticks[0] - ticks[1]) <= 1 && Math.abs(ticks[1] - ticks[2]) <= 1;
+
+        // 2. Below the cap's frame rate the backlog is dropped, not carried.
+        SimClock slow = new SimClock();
+        int frames = SECONDS * 5;
+        boolean capped = true;
+        for (int f = 0; f < frames; f++) {
+            capped &= slow.advance(1f / 5, SPEED) == SimClock.MAX_STEPS_PER_FRAME;
+            capped &= inRange(slow.alpha());
+        }
+        long expectedDropped = Math.round(ideal) - (long) frames * SimClock.MAX_STEPS_PER_FRAME;
+        capped &= slow.getTotalTicks() == (long) frames * SimClock.MAX_STEPS_PER_FRAME
+                && Math.abs(slow.getDroppedTicks() - expectedDropped) <= 1;
+        System.out.printf("  5 FPS x%.0f for %d s: %d ticks (%d per frame cap), %d dropped (expected %d), %.0f ticks/s; capped=%b%n",
+                SPEED, SECONDS, slow.getTotalTicks(), SimClock.MAX_STEPS_PER_FRAME, slow.getDroppedTicks(),
+                expectedDropped, slow.getTicksPerSecond(), capped);
+        ok &= capped;
+
+        // 3. Jittery frames at every speed step.
+        SplittableRandom rng = new SplittableRandom(8);
+        SimClock jitter = new SimClock();
+        boolean alphaOk = true;
+        for (int f = 0; f < 100_000; f++) {
+            float speed = 1 << rng.nextInt(7); // x1 .. x64
+            jitter.advance((float) (rng.nextDouble() * 0.1), speed);
+            alphaOk &= inRange(jitter.alpha());
+        }
+        System.out.printf("100000 jittery frames at x1..x64: alpha in [0,1): %b%n", alphaOk);
+        ok &= alphaOk;
+
+        // 4. Pause and speed clamping.
+        SimState state = new SimState();
+        state.speedMultiplier = 1f;
+        state.update(1.5f * SimClock.STEP_SECONDS); // one tick plus a pending half
+        long before = state.clock.getTotalTicks();
+        state.paused = true;
+        for (int f = 0; f < 600; f++) state.update(1f / 60);
+        float pausedAlpha = state.getAlpha();
+        boolean pauseOk = state.clock.getTotalTicks() == before && pausedAlpha == 0f;
+        state.paused = false;
+        state.update(SimClock.STEP_SECONDS * 0.99f); // the half from before the pause is gone
+        pauseOk &= state.clock.getTotalTicks() == before;
+
+        SimClock fast = new SimClock(), max = new SimClock(), back = new SimClock();
+        boolean clampOk = true;
+        for (int f = 0; f < 600; f++) {
+            clampOk &= fast.advance(1f / 60, 1000f) == max.advance(1f / 60, SimClock.MAX_SPEED);
+            clampOk &= back.advance(1f / 60, -4f) == 0 && back.advance(-1f / 60, 4f) == 0;
+        }
+        clampOk &= fast.getTotalTicks() == max.getTotalTicks() && back.getTotalTicks() == 0;
+        System.out.printf("pause: %d ticks over 600 paused frames, alpha %.1f: %b; x1000 runs as x%.0f, "
+                + "negative speed/delta run 0: %b%n",
+                state.clock.getTotalTicks() - before, pausedAlpha, pauseOk, SimClock.MAX_SPEED, clampOk);
+        ok &= pauseOk && clampOk;
+
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /** Runs {@code frames} frames of 1/fps seconds at SPEED; returns whether alpha stayed in range. */
+    private static boolean run(SimClock clock, int fps, int frames) {
+        boolean alphaOk = true;
+        for (int f = 0; f < frames; f++) {
+            clock.advance(1f / fps, SPEED);
+            alphaOk &= inRange(clock.alpha());
+        }
+        return alphaOk;
+    }
+
+    private static boolean inRange(float alpha) {
+        return alpha >= 0f && alpha < 1f;
+    }
+}
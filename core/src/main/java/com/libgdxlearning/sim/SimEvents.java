@@ -0,0 +1,110 @@
+package com.libgdxlearning.sim;
+
+/**
+ * Allocation-free stat-change events for a SimState.
+ *
+ * Mutators {@link #emit} primitive (stat, old, new) triples into a fixed ring buffer; the owner
+ * calls {@link #drain()} once per frame to deliver them, in order, to the listeners subscribed
+ * to each stat. Listeners are indexed by stat, so dispatch cost does not grow with the number
+ * of stats. If more than CAPACITY events pile up between drains, the oldest are overwritten
+ * (see {@link #getOverwritten()}); listeners can always read the current value from the sim.
+ */
+public class SimEvents {
+
+    public static final int CASH       = 0;
+    public static final int REPUTATION = 1;
+    public static final int CHAOS      = 2;
+    public static final int MORALE     = 3;
+    public static final int DAY        = 4;
+    public static final int STAT_COUNT = 5;
+
+    public static final int CAPACITY = 256; // power of two
+    private static final int MASK = CAPACITY - 1;
+
+    /** Receives one stat change. */
+    public interface Listener {
+        void onStatChanged(int stat, int oldValue, int newValue);
+    }
+
+    // Ring buffer of pending events (struct of arrays)
+    private final int[] stats     = new int[CAPACITY];
+    private final int[] oldValues = new int[CAPACITY];
+    private final int[] newValues = new int[CAPACITY];
+    private int head, size;
+    private long overwritten;
+
+    // listeners[stat][0 .. listenerCounts[stat])
+    private final Listener[][] listeners = new Listener[STAT_COUNT][0];
+    private final int[] listenerCounts = new int[STAT_COUNT];
+
+    /** Subscribes {@code listener} to changes of {@code stat}. */
+    public void subscribe(int stat, Listener listener) {
+        Listener[] list = listeners[stat];
+        int n = listenerCounts[stat];
+        if (n == list.length) {
+            Listener[] grown = new Listener[Math.max(4, n * 2)];
+            System.arraycopy(list, 0, grown, 0, n);
+            listeners[stat] = list = grown;
+        }
+        list[n] = listener;
+        listenerCounts[stat] = n + 1;
+    }
+
+    /** Subscribes {@code listener} to every stat. */
+    public void subscribeAll(Listener listener) {
+        for (int s = 0; s < STAT_COUNT; s++) subscribe(s, listener);
+    }
+
+    public void unsubscribe(int stat, Listener listener) {
+        Listener[] list = listeners[stat];
+        int n = listenerCounts[stat];
+        for (int i = 0; i < n; i++) {
+            if (list[i] == listener) {
+                System.arraycopy(list, i + 1, list, i, n - i - 1);
+                list[--n] = null;
+                listenerCounts[stat] = n;
+                return;
+            }
+        }
+    }
+
+    /** Queues a change; O(1), no allocation. */
+    public void emit(int stat, int oldValue, int newValue) {
+        int slot;
+        if (size == CAPACITY) {
+            slot = head;
+            head = (head + 1) & MASK;
+            overwritten++;
+        } else {
+            slot = (head + size++) & MASK;
+        }
+        stats[slot]     = stat;
+        oldValues[slot] = oldValue;
+        newValues[slot] = newValue;
+    }
+
+    /** Delivers all queued events in emit order; returns how many were delivered. */
+    public int drain() {
+        int delivered = 0;
+        while (size > 0) {
+            int slot = head;
+            head = (head + 1) & MASK;
+            size--;
+            int stat = stats[slot];
+            Listener[] list = listeners[stat];
+            for (int i = 0, n = listenerCounts[stat]; i < n; i++) {
+                list[i].onStatChanged(stat, oldValues[slot], newValues[slot]);
+            }
+            delivered++;
+        }
+        return delivered;
+    }
+
+    /** Drops queued events without delivering them. */
+    public void clear() {
+        head = size = 0;
+    }
+
+    public int getPending()       { return size; }
+    public long getOverwritten()  { return overwritten; }
+}
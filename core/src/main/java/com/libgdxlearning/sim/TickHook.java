@@ -0,0 +1,10 @@
+package com.libgdxlearning.sim;
+
+import com.libgdxlearning.SimState;
+
+/** Per-tick simulation logic plugged into a headless run (economy, events, balancing experiments). */
+public interface TickHook {
+
+    /** Called once after every fixed tick of {@code sim}. */
+    void onTick(SimState sim);
+}
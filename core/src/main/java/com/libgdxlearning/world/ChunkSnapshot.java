@@ -0,0 +1,42 @@
+package com.libgdxlearning.world;
+
+/**
+ * Frozen cells of one grid chunk, unaffected by later writes and safe to read from another
+ * thread once handed over (for example through an executor). Taken with
+ * {@link Grid#snapshotChunk}: a chunked grid shares the chunk itself and copies it only if it is
+ * written again (copy-on-write); a dense grid copies the chunk's cells.
+ */
+public final class ChunkSnapshot {
+
+    private final int cells;
+    private final byte[] packed;                  // copied cells, or null
+    private final ChunkedTileStorage.Chunk chunk; // shared chunk, or null
+    private final int width, height;
+
+    ChunkSnapshot(byte[] packed) {
+        this.cells  = packed.length;
+        this.packed = packed;
+        this.chunk  = null;
+        this.width  = this.height = 0;
+    }
+
+    ChunkSnapshot(ChunkedTileStorage.Chunk chunk, int width, int height) {
+        this.cells  = width * height;
+        this.packed = null;
+        this.chunk  = chunk;
+        this.width  = width;
+        this.height = height;
+    }
+
+    /** Number of cells (fewer than CHUNK_SIZE² on the grid's right and top edges). */
+    public int cells() {
+        return cells;
+    }
+
+    /** Copies the cells into {@code out} as {@link Grid#readChunk} does; returns the count. */
+    public int read(byte[] out) {
+        if (packed != null) System.arraycopy(packed, 0, out, 0, cells);
+        else                chunk.read(width, height, out);
+        return cells;
+    }
+}
@@ -0,0 +1,190 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.Arrays;
+
+/**
+ * Sparse storage made of CHUNK_SIZE × CHUNK_SIZE chunks that are allocated on first write and
+ * kept in a map keyed by chunk index. An absent chunk reads as one shared, read-only all-EMPTY
+ * sentinel, so memory grows with what has been built, not with the world size.
+ * A chunk that returns to all-EMPTY/unblocked is dropped from the map. Snapshots share
+ * chunks copy-on-write: a chunk handed to a snapshot is copied on its next write.
+ */
+class ChunkedTileStorage extends TileStorage {
+
+    static final int CHUNK_SHIFT = Grid.CHUNK_SHIFT;
+    static final int CHUNK_SIZE  = Grid.CHUNK_SIZE;
+    private static final int CHUNK_MASK  = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+
+    /** Cells of one chunk, row-major inside the chunk. */
+    static final class Chunk {
+        final byte[] types   = new byte[CHUNK_CELLS];
+        final long[] blocked = new long[CHUNK_CELLS >>> 6];
+        int used;       // cells that are not EMPTY or are blocked
+        boolean shared; // held by a snapshot: copy before writing
+
+        Chunk copy() {
+            Chunk c = new Chunk();
+            System.arraycopy(types, 0, c.types, 0, CHUNK_CELLS);
+            System.arraycopy(blocked, 0, c.blocked, 0, blocked.length);
+            c.used = used;
+            return c;
+        }
+
+        /** Packs the lower-left w×h cells into {@code out} (see TileStorage.read). */
+        void read(int w, int h, byte[] out) {
+            int o = 0;
+            for (int ly = 0; ly < h; ly++) {
+                for (int i = ly << CHUNK_SHIFT, end = i + w; i < end; i++) {
+                    out[o++] = (byte) (types[i] << 1 | (int) (blocked[i >>> 6] >>> i) & 1);
+                }
+            }
+        }
+    }
+
+    /** Shared all-EMPTY chunk; never written. */
+    private static final Chunk EMPTY_CHUNK = new Chunk();
+
+    final int chunksX;
+    final int chunksY;
+    private final IntMap<Chunk> chunks = new IntMap<>(); // absent = EMPTY_CHUNK
+
+    ChunkedTileStorage(int width, int height) {
+        super(width, height);
+        chunksX = (width  + CHUNK_MASK) >>> CHUNK_SHIFT;
+        chunksY = (height + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        return chunks.get((y >>> CHUNK_SHIFT) * chunksX + (x >>> CHUNK_SHIFT), EMPTY_CHUNK);
+    }
+
+    private static int local(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    @Override
+    byte type(int x, int y) {
+        return chunkAt(x, y).types[local(x, y)];
+    }
+
+    @Override
+    boolean blocked(int x, int y) {
+        int i = local(x, y);
+        return (chunkAt(x, y).blocked[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    void set(int x, int y, byte type, boolean isBlocked) {
+        int ci = (y >>> CHUNK_SHIFT) * chunksX + (x >>> CHUNK_SHIFT);
+        Chunk c = chunks.get(ci, EMPTY_CHUNK);
+        boolean value = type != 0 || isBlocked; // type 0 == TileType.EMPTY
+        if (c == EMPTY_CHUNK) {
+            if (!value) return;            // writing the default into an empty chunk
+            chunks.put(ci, c = new Chunk());
+        } else if (c.shared) {
+            chunks.put(ci, c = c.copy());  // the snapshot keeps the old one
+        }
+        int i = local(x, y);
+        long bit = 1L << i;
+        boolean wasValue = c.types[i] != 0 || (c.blocked[i >>> 6] & bit) != 0;
+
+        c.types[i] = type;
+        if (isBlocked) c.blocked[i >>> 6] |=  bit;
+        else           c.blocked[i >>> 6] &= ~bit;
+
+        if (value != wasValue) {
+            c.used += value ? 1 : -1;
+            if (c.used == 0) chunks.remove(ci);
+        }
+    }
+
+    @Override
+    boolean isRegionEmpty(int x, int y, int w, int h, byte empty) {
+        int x1 = x + w - 1, y1 = y + h - 1;
+        for (int cy = y >>> CHUNK_SHIFT; cy <= y1 >>> CHUNK_SHIFT; cy++) {
+            for (int cx = x >>> CHUNK_SHIFT; cx <= x1 >>> CHUNK_SHIFT; cx++) {
+                Chunk c = chunks.get(cy * chunksX + cx);
+                if (c == null) continue; // whole chunk untouched
+                int gx0 = Math.max(x,  cx << CHUNK_SHIFT), gx1 = Math.min(x1, (cx << CHUNK_SHIFT) + CHUNK_MASK);
+                int gy0 = Math.max(y,  cy << CHUNK_SHIFT), gy1 = Math.min(y1, (cy << CHUNK_SHIFT) + CHUNK_MASK);
+                for (int gy = gy0; gy <= gy1; gy++) {
+                    for (int gx = gx0; gx <= gx1; gx++) {
+                        if (c.types[local(gx, gy)] != empty) return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Whole chunks (x, y chunk-aligned) are copied straight from their arrays; untouched ones are zero-filled. */
+    @Override
+    void read(int x, int y, int w, int h, byte[] out) {
+        if (((x | y) & CHUNK_MASK) != 0 || w > CHUNK_SIZE || h > CHUNK_SIZE) {
+            super.read(x, y, w, h, out);
+            return;
+        }
+        Chunk c = chunkAt(x, y);
+        if (c == EMPTY_CHUNK) Arrays.fill(out, 0, w * h, (byte) 0);
+        else                  c.read(w, h, out);
+    }
+
+    /** Whole chunks are shared rather than copied; the next write to one copies it first. */
+    @Override
+    ChunkSnapshot snapshot(int x, int y, int w, int h) {
+        if (((x | y) & CHUNK_MASK) != 0 || w > CHUNK_SIZE || h > CHUNK_SIZE) return super.snapshot(x, y, w, h);
+        Chunk c = chunkAt(x, y);
+        if (c != EMPTY_CHUNK) c.shared = true; // the sentinel is never written anyway
+        return new ChunkSnapshot(c, w, h);
+    }
+
+    /** Whole chunks are rebuilt in one pass, or dropped from the map if all cells are EMPTY. */
+    @Override
+    void write(int x, int y, int w, int h, byte[] cells) {
+        if (((x | y) & CHUNK_MASK) != 0 || w > CHUNK_SIZE || h > CHUNK_SIZE) {
+            super.write(x, y, w, h, cells);
+            return;
+        }
+        int used = 0;
+        for (int i = 0, n = w * h; i < n; i++) if (cells[i] != 0) used++;
+        int ci = (y >>> CHUNK_SHIFT) * chunksX + (x >>> CHUNK_SHIFT);
+        if (used == 0) {
+            chunks.remove(ci);
+            return;
+        }
+        Chunk c = new Chunk();
+        chunks.put(ci, c);
+        c.used = used;
+        int o = 0;
+        for (int ly = 0; ly < h; ly++) {
+            int row = ly << CHUNK_SHIFT;
+            long bits = 0; // a chunk row never straddles a blocked word
+            for (int k = 0; k < w; k++, o++) {
+                c.types[row + k] = (byte) (cells[o] >> 1);
+                bits |= (long) (cells[o] & 1) << k;
+            }
+            c.blocked[row >>> 6] |= bits << row;
+        }
+    }
+
+    /** Number of chunks currently backed by their own storage. */
+    int allocatedChunks() {
+        return chunks.size;
+    }
+
+    @Override
+    long footprintBytes() {
+        long perChunk = 16 + 16 + CHUNK_CELLS + 16 + 8L * (CHUNK_CELLS >>> 6) + 8;
+        return mapBytes(chunks.size) + chunks.size * perChunk;
+    }
+
+    /** Approximate bytes of a libGDX int-keyed map holding {@code size} entries (int keys, 4-byte values). */
+    static long mapBytes(int size) {
+        int capacity = Math.max(1, MathUtils.nextPowerOfTwo((int) Math.ceil(size / 0.8)));
+        return 48L + 16 + 4L * capacity + 16 + 4L * capacity;
+    }
+}
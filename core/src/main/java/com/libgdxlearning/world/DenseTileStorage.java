@@ -0,0 +1,91 @@
+package com.libgdxlearning.world;
+
+/** Flat row-major storage (index = y * width + x): one byte per type, one bit per blocked flag. */
+class DenseTileStorage extends TileStorage {
+
+    private final byte[] types;   // TileType ordinals
+    private final long[] blocked; // 1 bit per cell
+
+    DenseTileStorage(int width, int height) {
+        super(width, height);
+        long n = (long) width * height;
+        if (n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                "Grid " + width + "x" + height + " is too large for dense storage; use a chunked Grid");
+        }
+        types   = new byte[(int) n];       // all zero == TileType.EMPTY (ordinal 0)
+        blocked = new long[(int) ((n + 63) >>> 6)];
+    }
+
+    @Override
+    byte type(int x, int y) {
+        return types[y * width + x];
+    }
+
+    @Override
+    boolean blocked(int x, int y) {
+        int i = y * width + x;
+        return (blocked[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    void set(int x, int y, byte type, boolean isBlocked) {
+        int i = y * width + x;
+        types[i] = type;
+        if (isBlocked) blocked[i >>> 6] |=  (1L << i);
+        else           blocked[i >>> 6] &= ~(1L << i);
+    }
+
+    @Override
+    boolean isRegionEmpty(int x, int y, int w, int h, byte empty) {
+        for (int gy = y; gy < y + h; gy++) {
+            int row = gy * width;
+            for (int i = row + x, end = row + x + w; i < end; i++) {
+                if (types[i] != empty) return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    void read(int x, int y, int w, int h, byte[] out) {
+        int o = 0;
+        for (int gy = y; gy < y + h; gy++) {
+            for (int i = gy * width + x, end = i + w; i < end; i++) {
+                out[o++] = (byte) (types[i] << 1 | (int) (blocked[i >>> 6] >>> i) & 1);
+            }
+        }
+    }
+
+    @Override
+    void write(int x, int y, int w, int h, byte[] cells) {
+        int o = 0;
+        for (int gy = y; gy < y + h; gy++) {
+            for (int i = gy * width + x, end = i + w; i < end; i += 32) {
+                int n = Math.min(32, end - i);
+                long bits = 0; // gathered in a register, stored once per span
+                for (int k = 0; k < n; k++, o++) {
+                    types[i + k] = (byte) (cells[o] >> 1);
+                    bits |= (long) (cells[o] & 1) << k;
+                }
+                setBlocked(i, n, bits);
+            }
+        }
+    }
+
+    /** Sets the blocked bits of cells [i, i+n), n ≤ 32, from the low n bits of {@code bits}. */
+    private void setBlocked(int i, int n, long bits) {
+        int word = i >>> 6, off = i & 63;
+        long mask = (1L << n) - 1;
+        blocked[word] = blocked[word] & ~(mask << off) | bits << off;
+        if (off + n > 64) { // span continues in the next word
+            int shift = 64 - off;
+            blocked[word + 1] = blocked[word + 1] & ~(mask >>> shift) | bits >>> shift;
+        }
+    }
+
+    @Override
+    long footprintBytes() {
+        return 16L + types.length + 16L + 8L * blocked.length;
+    }
+}
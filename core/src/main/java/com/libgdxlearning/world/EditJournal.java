@@ -0,0 +1,274 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Queue;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.util.Arrays;
+
+/**
+ * Undo/redo log of grid edits that stores only the cells each action touched.
+ *
+ * An action is a set of rectangles: the caller captures each one before writing to it, and
+ * commit() records the cells before and after, run-length encoded row by row. A room stamp
+ * (previously all EMPTY; then a wall, a run of floor and a wall per row) shrinks to a few bytes
+ * per row. Undo and redo rewrite only those rectangles, so both cost O(changed cells) however
+ * large the grid is. Each action also carries caller tags (for example the ids of the rooms it
+ * placed), handed back on undo and redo.
+ *
+ * The log keeps at most {@code maxBytes} of encoded actions, dropping the oldest ones first,
+ * so a long editing session cannot grow without bound.
+ */
+public class EditJournal {
+
+    private static final TileType[] TYPES = TileType.values();
+
+    /** Assumed per-action cost beyond the encoded bytes (array header and queue slot). */
+    private static final int ENTRY_OVERHEAD = 24;
+
+    private final Grid grid;
+    private final int maxBytes;
+
+    /** Actions [0, cursor) can be undone, [cursor, size) redone. */
+    private final Queue<byte[]> entries = new Queue<>();
+    private int cursor;
+    private long bytes;
+    private int dropped;
+
+    // Action being recorded
+    private boolean recording;
+    private final IntArray rects = new IntArray();   // x, y, w, h per captured rectangle
+    private final IntArray beforeEnds = new IntArray();
+    private byte[] before = new byte[256];
+    private int beforeLen;
+    private byte[] out = new byte[256];
+    private int outLen;
+
+    // Decoding scratch
+    private final IntArray offsets = new IntArray();
+    private int pos;
+
+    // Extent of the last undo/redo: cells written and their lower-left corner
+    private int lastWrites, lastMinX, lastMinY;
+
+    public EditJournal(Grid grid, int maxBytes) {
+        this.grid     = grid;
+        this.maxBytes = maxBytes;
+    }
+
+    // -------------------------------------------------------------------------
+    // Recording
+    // -------------------------------------------------------------------------
+
+    /** Starts a new action. */
+    public void begin() {
+        recording = true;
+        rects.clear();
+        beforeEnds.clear();
+        beforeLen = 0;
+    }
+
+    /** Records the current cells of a rectangle the action is about to write (clamped to the grid). */
+    public void capture(int x, int y, int w, int h) {
+        if (!recording) throw new IllegalStateException("capture() outside begin()/commit()");
+        int x0 = Math.max(0, x), y0 = Math.max(0, y);
+        int x1 = Math.min(grid.width, x + w), y1 = Math.min(grid.height, y + h);
+        if (x1 <= x0 || y1 <= y0) return;
+        rects.add(x0, y0, x1 - x0, y1 - y0);
+        outLen = 0;
+        encodeCells(x0, y0, x1 - x0, y1 - y0);
+        before = ensure(before, beforeLen + outLen);
+        System.arraycopy(out, 0, before, beforeLen, outLen);
+        beforeLen += outLen;
+        beforeEnds.add(beforeLen);
+    }
+
+    /**
+     * Finishes the action: encodes the captured rectangles' new cells and pushes it, discarding
+     * anything that could have been redone. Actions that captured nothing are not recorded.
+     */
+    public void commit(IntArray tags) {
+        recording = false;
+        if (rects.size == 0) return;
+
+        outLen = 0;
+        writeVarint(tags == null ? 0 : tags.size);
+        if (tags != null) for (int k = 0; k < tags.size; k++) writeVarint(tags.get(k));
+        writeVarint(rects.size / 4);
+        int beforeStart = 0;
+        for (int r = 0; r < rects.size; r += 4) {
+            int x = rects.get(r), y = rects.get(r + 1), w = rects.get(r + 2), h = rects.get(r + 3);
+            writeVarint(x);
+            writeVarint(y);
+            writeVarint(w);
+            writeVarint(h);
+            int beforeEnd = beforeEnds.get(r / 4);
+            out = ensure(out, outLen + beforeEnd - beforeStart);
+            System.arraycopy(before, beforeStart, out, outLen, beforeEnd - beforeStart);
+            outLen += beforeEnd - beforeStart;
+            beforeStart = beforeEnd;
+            encodeCells(x, y, w, h);
+        }
+
+        while (entries.size > cursor) bytes -= cost(entries.removeLast());
+        byte[] entry = Arrays.copyOf(out, outLen);
+        entries.addLast(entry);
+        cursor++;
+        bytes += cost(entry);
+        while (bytes > maxBytes && cursor > 1) { // keep at least the newest action
+            bytes -= cost(entries.removeFirst());
+            cursor--;
+            dropped++;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Undo / redo
+    // -------------------------------------------------------------------------
+
+    public boolean canUndo() { return cursor > 0; }
+    public boolean canRedo() { return cursor < entries.size; }
+
+    /** Restores the cells before the last action; its tags are appended to {@code tags}. */
+    public boolean undo(IntArray tags) {
+        if (!canUndo()) return false;
+        apply(entries.get(--cursor), false, tags);
+        return true;
+    }
+
+    /** Re-applies the last undone action; its tags are appended to {@code tags}. */
+    public boolean redo(IntArray tags) {
+        if (!canRedo()) return false;
+        apply(entries.get(cursor++), true, tags);
+        return true;
+    }
+
+    private void apply(byte[] entry, boolean forward, IntArray tags) {
+        pos = 0;
+        int tagCount = readVarint(entry);
+        for (int k = 0; k < tagCount; k++) {
+            int tag = readVarint(entry);
+            if (tags != null) tags.add(tag);
+        }
+
+        // Index the rectangles first: undo restores them in reverse order
+        int count = readVarint(entry);
+        offsets.clear();
+        for (int r = 0; r < count; r++) {
+            offsets.add(pos);
+            readVarint(entry);
+            readVarint(entry);
+            int cells = readVarint(entry) * readVarint(entry);
+            skipCells(entry, cells); // before
+            skipCells(entry, cells); // after
+        }
+
+        lastWrites = 0;
+        lastMinX = Integer.MAX_VALUE;
+        lastMinY = Integer.MAX_VALUE;
+        for (int k = 0; k < count; k++) {
+            pos = offsets.get(forward ? k : count - 1 - k);
+            int x = readVarint(entry), y = readVarint(entry), w = readVarint(entry), h = readVarint(entry);
+            if (forward) skipCells(entry, w * h);
+            decodeCells(entry, x, y, w, h);
+            lastMinX = Math.min(lastMinX, x);
+            lastMinY = Math.min(lastMinY, y);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Cell encoding: runs of (length varint, value byte), value = type ordinal << 1 | blocked
+    // -------------------------------------------------------------------------
+
+    private void encodeCells(int x, int y, int w, int h) {
+        int run = 0, value = -1;
+        for (int gy = y; gy < y + h; gy++) {
+            for (int gx = x; gx < x + w; gx++) {
+                int v = valueAt(gx, gy);
+                if (v == value) { run++; continue; }
+                if (run > 0) writeRun(run, value);
+                value = v;
+                run = 1;
+            }
+        }
+        writeRun(run, value);
+    }
+
+    private void decodeCells(byte[] entry, int x, int y, int w, int h) {
+        int i = 0, n = w * h;
+        while (i < n) {
+            int run = readVarint(entry);
+            int v = entry[pos++];
+            for (int end = i + run; i < end; i++) {
+                int gx = x + i % w, gy = y + i / w;
+                if (valueAt(gx, gy) == v) continue; // unchanged: leave its chunk version alone
+                grid.set(gx, gy, TYPES[v >> 1], (v & 1) != 0);
+                lastWrites++;
+            }
+        }
+    }
+
+    private void skipCells(byte[] entry, int n) {
+        for (int i = 0; i < n; ) {
+            i += readVarint(entry);
+            pos++;
+        }
+    }
+
+    private int valueAt(int x, int y) {
+        return grid.getType(x, y).ordinal() << 1 | (grid.isBlocked(x, y) ? 1 : 0);
+    }
+
+    private void writeRun(int run, int value) {
+        writeVarint(run);
+        out = ensure(out, outLen + 1);
+        out[outLen++] = (byte) value;
+    }
+
+    private void writeVarint(int v) {
+        out = ensure(out, outLen + 5);
+        while ((v & ~0x7F) != 0) {
+            out[outLen++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[outLen++] = (byte) v;
+    }
+
+    private int readVarint(byte[] in) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in[pos++];
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+
+    private static byte[] ensure(byte[] a, int size) {
+        return size <= a.length ? a : Arrays.copyOf(a, Math.max(size, a.length * 2));
+    }
+
+    private static long cost(byte[] entry) {
+        return entry.length + ENTRY_OVERHEAD;
+    }
+
+    // -------------------------------------------------------------------------
+    // Stats
+    // -------------------------------------------------------------------------
+
+    /** Undoable actions currently kept. */
+    public int getUndoCount() { return cursor; }
+
+    /** Redoable actions currently kept. */
+    public int getRedoCount() { return entries.size - cursor; }
+
+    /** Memory held by the log, counting {@link #ENTRY_OVERHEAD} per action. */
+    public long getBytes() { return bytes; }
+
+    /** Oldest actions dropped to stay within the budget. */
+    public int getDropped() { return dropped; }
+
+    /** Cells written by the last undo/redo, and the lower-left corner of what it touched. */
+    public int getLastWrites() { return lastWrites; }
+    public int getLastMinX()   { return lastMinX; }
+    public int getLastMinY()   { return lastMinY; }
+}
@@ -1,37 +1,197 @@
 package com.libgdxlearning.world;
 
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
 import com.libgdxlearning.world.tiles.TileCell;
 import com.libgdxlearning.world.tiles.TileType;
 
+import java.util.Arrays;
+
+/**
+ * 2-D tile grid. Each cell holds a TileType and a blocked flag, kept in primitive storage:
+ * <ul>
+ *   <li>dense (default) – flat row-major byte/bit arrays, best for small and medium grids;</li>
+ *   <li>chunked – 32×32 chunks allocated on first write and kept in a map keyed by chunk index,
+ *       as are their versions, so very large build sites only pay for what has been built.</li>
+ * </ul>
+ */
 public class Grid {
 
     /** Logical tile size in world units (used by other systems). */
     public static final int TILE_SIZE = 128;
 
+    /** Side of a change-tracking chunk in cells (also the chunked storage's chunk size). */
+    public static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE  = 1 << CHUNK_SHIFT;
+
+    private static final TileType[] TYPES = TileType.values();
+    private static final byte EMPTY = (byte) TileType.EMPTY.ordinal();
+
     public final int width;
     public final int height;
 
-    private final TileCell[][] cells;
+    /** Grid size in chunks (rounded up). */
+    public final int chunksX;
+    public final int chunksY;
+
+    private final TileStorage storage;
+    private int modCount;
+    private final int[] chunkVersions;          // dense grids: one per chunk
+    private final IntIntMap writtenVersions;    // chunked grids: written chunks only, absent = 0
 
     public Grid(int width, int height) {
-        this.width = width;
+        this(width, height, false);
+    }
+
+    /** @param chunked use sparse, lazily-allocated chunk storage instead of flat arrays */
+    public Grid(int width, int height, boolean chunked) {
+        this.width  = width;
         this.height = height;
-        cells = new TileCell[width][height];
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                cells[x][y] = new TileCell();
-            }
+        storage = chunked ? new ChunkedTileStorage(width, height) : new DenseTileStorage(width, height);
+        chunksX = (width  + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        chunksY = (height + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        if (chunked) {
+            chunkVersions   = null;
+            writtenVersions = new IntIntMap();
+        } else {
+            chunkVersions   = new int[chunksX * chunksY];
+            writtenVersions = null;
         }
     }
 
-    /** Returns the cell at (x,y), or null if out of bounds. */
+    public boolean isChunked() {
+        return storage instanceof ChunkedTileStorage;
+    }
+
+    /**
+     * Returns a copy of the cell at (x,y), or null if out of bounds.
+     * Writing to the returned cell has no effect on the grid; use {@link #set}.
+     */
     public TileCell get(int x, int y) {
-        if (x < 0 || y < 0 || x >= width || y >= height) return null;
-        return cells[x][y];
+        if (!inBounds(x, y)) return null;
+        TileCell c = new TileCell();
+        c.type    = TYPES[storage.type(x, y)];
+        c.blocked = storage.blocked(x, y);
+        return c;
+    }
+
+    /** Returns the tile type at (x,y), or null if out of bounds. */
+    public TileType getType(int x, int y) {
+        if (!inBounds(x, y)) return null;
+        return TYPES[storage.type(x, y)];
+    }
+
+    /** Returns true if (x,y) is in bounds and blocked. */
+    public boolean isBlocked(int x, int y) {
+        return inBounds(x, y) && storage.blocked(x, y);
+    }
+
+    /** Sets the type and blocked flag of the cell at (x,y). Out-of-bounds writes are ignored. */
+    public void set(int x, int y, TileType type, boolean isBlocked) {
+        if (!inBounds(x, y)) return;
+        storage.set(x, y, (byte) type.ordinal(), isBlocked);
+        modCount++;
+        bumpVersion((y >>> CHUNK_SHIFT) * chunksX + (x >>> CHUNK_SHIFT));
+    }
+
+    private void bumpVersion(int chunk) {
+        if (chunkVersions != null) chunkVersions[chunk]++;
+        else                       writtenVersions.getAndIncrement(chunk, 0, 1);
+    }
+
+    /** Incremented on every in-bounds write; lets derived caches detect changes they did not make. */
+    public int modCount() {
+        return modCount;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
     }
 
     public boolean isFloorEmpty(int x, int y) {
-        TileCell c = get(x, y);
-        return c != null && c.type == TileType.EMPTY;
+        return inBounds(x, y) && storage.type(x, y) == EMPTY;
+    }
+
+    /**
+     * Version of chunk (cx,cy), bumped on every write to one of its cells. Caches keep the
+     * version they were built from and rebuild a chunk only when it differs.
+     */
+    public int chunkVersion(int cx, int cy) {
+        int c = cy * chunksX + cx;
+        return chunkVersions != null ? chunkVersions[c] : writtenVersions.get(c, 0);
+    }
+
+    /**
+     * Appends to {@code out} the index ({@code cy * chunksX + cx}) of every chunk ever written,
+     * i.e. with a non-zero {@link #chunkVersion}, in ascending order; every other chunk is all
+     * EMPTY. Chunked grids list them straight from their version map, so scanning what has been
+     * built costs the same on any grid size.
+     */
+    public IntArray writtenChunks(IntArray out) {
+        int from = out.size;
+        if (chunkVersions != null) {
+            for (int c = 0; c < chunkVersions.length; c++) if (chunkVersions[c] != 0) out.add(c);
+            return out;
+        }
+        IntIntMap.Keys keys = writtenVersions.keys();
+        while (keys.hasNext) out.add(keys.next());
+        Arrays.sort(out.items, from, out.size);
+        return out;
+    }
+
+    /** Cells in chunk (cx,cy), fewer than CHUNK_SIZE² for chunks on the right or top edge. */
+    public int chunkCells(int cx, int cy) {
+        return chunkW(cx) * chunkH(cy);
+    }
+
+    /**
+     * Copies chunk (cx,cy) into {@code out} row-major, clipped to the grid, one byte per cell:
+     * {@code type.ordinal() << 1 | blocked}. Returns the number of cells written. Much faster
+     * than per-cell reads for saving or snapshotting a whole grid.
+     */
+    public int readChunk(int cx, int cy, byte[] out) {
+        storage.read(cx << CHUNK_SHIFT, cy << CHUNK_SHIFT, chunkW(cx), chunkH(cy), out);
+        return chunkCells(cx, cy);
+    }
+
+    /**
+     * Replaces chunk (cx,cy) with cells packed as in {@link #readChunk}. Counts as a single
+     * write: modCount and the chunk version are bumped once.
+     */
+    public void writeChunk(int cx, int cy, byte[] cells) {
+        storage.write(cx << CHUNK_SHIFT, cy << CHUNK_SHIFT, chunkW(cx), chunkH(cy), cells);
+        modCount++;
+        bumpVersion(cy * chunksX + cx);
+    }
+
+    /**
+     * Frozen view of chunk (cx,cy) that later writes do not change, for handing to another
+     * thread. O(1) on chunked grids (copy-on-write), a CHUNK_SIZE² copy on dense ones.
+     */
+    public ChunkSnapshot snapshotChunk(int cx, int cy) {
+        return storage.snapshot(cx << CHUNK_SHIFT, cy << CHUNK_SHIFT, chunkW(cx), chunkH(cy));
+    }
+
+    private int chunkW(int cx) { return Math.min(CHUNK_SIZE, width  - (cx << CHUNK_SHIFT)); }
+    private int chunkH(int cy) { return Math.min(CHUNK_SIZE, height - (cy << CHUNK_SHIFT)); }
+
+    /**
+     * Returns true if the w×h rectangle at (x,y) lies inside the grid and every cell is EMPTY.
+     * Chunked grids skip untouched chunks without reading their cells.
+     */
+    public boolean isRegionEmpty(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return true;
+        if (x < 0 || y < 0 || x + w > width || y + h > height) return false;
+        return storage.isRegionEmpty(x, y, w, h, EMPTY);
+    }
+
+    /**
+     * Approximate heap bytes used by the cell storage (array payloads plus headers).
+     * For comparison, the old TileCell[width][height] layout cost roughly
+     * {@code width * (16 + 4 * height) + width * height * 16} bytes with compressed oops.
+     */
+    public long footprintBytes() {
+        long versions = chunkVersions != null ? 16L + 4L * chunkVersions.length : ChunkedTileStorage.mapBytes(writtenVersions.size);
+        return storage.footprintBytes() + versions;
     }
 }
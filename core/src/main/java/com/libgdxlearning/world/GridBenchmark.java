@@ -0,0 +1,227 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.libgdxlearning.world.tiles.TileCell;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Headless comparison of the original {@code TileCell[width][height]} grid (one object per cell)
+ * with the flat primitive storage Grid uses now, dense and chunked: heap footprint (bytes allocated
+ * building the grid, and as reported by footprintBytes()), a full row-major scan, random reads, room-sized writes
+ * and room-sized emptiness checks. Every layout is filled with the same rooms and the checksums of
+ * the reads are compared. Last, a 100,000×100,000 chunked grid (9.8M chunks) with the same
+ * number of rooms shows the chunked grid's cost follows what is built, not the grid size.
+ *
+ * Usage: {@code ./gradlew core:runGridBench}
+ */
+public class GridBenchmark {
+
+    private static final int[] SIZES = { 512, 2000 };
+    private static final int HUGE = 100_000;
+    private static final int RANDOM_READS = 4_000_000;
+    private static final int ROOMS = 20_000;
+    private static final int RUNS = 5;
+    private static final TileType[] TYPES = TileType.values();
+
+
+    /** The grid as it was before flat storage: one TileCell per cell, column-major. */
+    private static final class CellGrid {
+        final int width, height;
+        final TileCell[][] cells;
+
+        CellGrid(int width, int height) {
+            this.width  = width;
+            this.height = height;
+            cells = new TileCell[width][height];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) cells[x][y] = new TileCell();
+            }
+        }
+
+        TileType getType(int x, int y)  { return cells[x][y].type; }
+        boolean isBlocked(int x, int y) { return cells[x][y].blocked; }
+
+        void set(int x, int y, TileType type, boolean blocked) {
+            TileCell c = cells[x][y];
+            c.type    = type;
+            c.blocked = blocked;
+        }
+
+        boolean isRegionEmpty(int x, int y, int w, int h) {
+            for (int gx = x; gx < x + w; gx++) {
+                for (int gy = y; gy < y + h; gy++) if (cells[gx][gy].type != TileType.EMPTY) return false;
+            }
+            return true;
+        }
+    }
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        for (int size : SIZES) {
+            long cellSum    = runCells(size);
+            long denseSum   = runGrid(size, false);
+            long chunkedSum = runGrid(size, true);
+            boolean same = cellSum == denseSum && denseSum == chunkedSum;
+            System.out.printf("%d×%d: identical reads=%b%n", size, size, same);
+            ok &= same;
+        }
+        ok &= runHuge();
+        if (!ok) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    // Each layout has its own copy of the loops so that no call site is shared (and megamorphic)
+    // between them.
+
+    private static long runCells(int size) {
+        long heap = allocatedBytes(() -> fill(new CellGrid(size, size)));
+        CellGrid g = new CellGrid(size, size);
+        long t0 = System.nanoTime();
+        fill(g);
+        double fillMs = (System.nanoTime() - t0) / 1e6;
+
+        double[] ms = new double[3];
+        long sum = -1;
+        for (int run = 0; run <= RUNS; run++) { // run 0 is warm-up
+            long a = System.nanoTime(), s = 0;
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) s += g.getType(x, y).ordinal() + (g.isBlocked(x, y) ? 7 : 0);
+            }
+            long b = System.nanoTime();
+            SplittableRandom rng = new SplittableRandom(11);
+            for (int i = 0; i < RANDOM_READS; i++) {
+                int x = rng.nextInt(size), y = rng.nextInt(size);
+                s += g.getType(x, y).ordinal() + (g.isBlocked(x, y) ? 7 : 0);
+            }
+            long c = System.nanoTime();
+            rng = new SplittableRandom(13);
+            for (int i = 0; i < ROOMS; i++) {
+                int w = 3 + rng.nextInt(10), h = 3 + rng.nextInt(10);
+                if (g.isRegionEmpty(rng.nextInt(size - w), rng.nextInt(size - h), w, h)) s++;
+            }
+            long d = System.nanoTime();
+            sum = check(sum, s, run, ms, a, b, c, d);
+        }
+        print(size, "TileCell[][]", heap, -1, fillMs, ms);
+        return sum;
+    }
+
+    private static long runGrid(int size, boolean chunked) {
+        long heap = allocatedBytes(() -> fill(new Grid(size, size, chunked)));
+        Grid g = new Grid(size, size, chunked);
+        long t0 = System.nanoTime();
+        fill(g);
+        double fillMs = (System.nanoTime() - t0) / 1e6;
+
+        double[] ms = new double[3];
+        long sum = -1;
+        for (int run = 0; run <= RUNS; run++) {
+            long a = System.nanoTime(), s = 0;
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) s += g.getType(x, y).ordinal() + (g.isBlocked(x, y) ? 7 : 0);
+            }
+            long b = System.nanoTime();
+            SplittableRandom rng = new SplittableRandom(11);
+            for (int i = 0; i < RANDOM_READS; i++) {
+                int x = rng.nextInt(size), y = rng.nextInt(size);
+                s += g.getType(x, y).ordinal() + (g.isBlocked(x, y) ? 7 : 0);
+            }
+            long c = System.nanoTime();
+            rng = new SplittableRandom(13);
+            for (int i = 0; i < ROOMS; i++) {
+                int w = 3 + rng.nextInt(10), h = 3 + rng.nextInt(10);
+                if (g.isRegionEmpty(rng.nextInt(size - w), rng.nextInt(size - h), w, h)) s++;
+            }
+            long d = System.nanoTime();
+            sum = check(sum, s, run, ms, a, b, c, d);
+        }
+        print(size, chunked ? "flat chunked" : "flat dense", heap, g.footprintBytes(), fillMs, ms);
+        return sum;
+    }
+
+    /** Builds and fills a HUGE×HUGE chunked grid; only its footprint and fill time are of interest. */
+    private static boolean runHuge() {
+        long heap = allocatedBytes(() -> new Grid(HUGE, HUGE, true));
+        Grid g = new Grid(HUGE, HUGE, true);
+        long t0 = System.nanoTime();
+        fill(g);
+        double fillMs = (System.nanoTime() - t0) / 1e6;
+        long heapFilled = allocatedBytes(() -> fill(new Grid(HUGE, HUGE, true)));
+        int written = g.writtenChunks(new IntArray()).size;
+        System.out.printf("%d×%d flat chunked, %d chunks: empty heap %.1f KB; %d rooms in %d chunks: heap %.1f MB "
+                + "(footprint %.1f MB), fill %.1f ms%n",
+                HUGE, HUGE, (long) g.chunksX * g.chunksY, heap / 1024.0, ROOMS, written,
+                heapFilled / 1048576.0, g.footprintBytes() / 1048576.0, fillMs);
+        return written > 0 && heap < 1 << 20; // nothing proportional to the grid size
+    }
+
+    /** Stamps ROOMS rooms (floor, blocked wall ring) at seeded positions. */
+    private static CellGrid fill(CellGrid g) {
+        int size = g.width;
+        SplittableRandom rng = new SplittableRandom(7);
+        for (int r = 0; r < ROOMS; r++) {
+            int w = 3 + rng.nextInt(10), h = 3 + rng.nextInt(10);
+            int x = rng.nextInt(size - w), y = rng.nextInt(size - h);
+            TileType floor = TYPES[1 + rng.nextInt(2)];
+            for (int gy = y; gy < y + h; gy++) {
+                for (int gx = x; gx < x + w; gx++) {
+                    boolean edge = gx == x || gy == y || gx == x + w - 1 || gy == y + h - 1;
+                    g.set(gx, gy, edge ? TileType.WALL_WOOD : floor, edge);
+                }
+            }
+        }
+        return g;
+    }
+
+    private static Grid fill(Grid g) {
+        int size = g.width;
+        SplittableRandom rng = new SplittableRandom(7);
+        for (int r = 0; r < ROOMS; r++) {
+            int w = 3 + rng.nextInt(10), h = 3 + rng.nextInt(10);
+            int x = rng.nextInt(size - w), y = rng.nextInt(size - h);
+            TileType floor = TYPES[1 + rng.nextInt(2)];
+            for (int gy = y; gy < y + h; gy++) {
+                for (int gx = x; gx < x + w; gx++) {
+                    boolean edge = gx == x || gy == y || gx == x + w - 1 || gy == y + h - 1;
+                    g.set(gx, gy, edge ? TileType.WALL_WOOD : floor, edge);
+                }
+            }
+        }
+        return g;
+    }
+
+    /** Accumulates one run's phase times (skipping the warm-up); returns the checksum, or -2 if runs disagree. */
+    private static long check(long sum, long s, int run, double[] ms, long a, long b, long c, long d) {
+        if (run == 0) return s;
+        ms[0] += (b - a) / 1e6;
+        ms[1] += (c - b) / 1e6;
+        ms[2] += (d - c) / 1e6;
+        return s == sum ? sum : -2;
+    }
+
+    private static void print(int size, String name, long heap, long footprint, double fillMs, double[] ms) {
+        System.out.printf("%4d×%-4d %-12s heap %6.1f MB%s | fill %6.1f ms | row scan %6.2f ms | %dM random reads %6.2f ms | %d region checks %5.2f ms%n",
+                size, size, name, heap / 1048576.0,
+                footprint < 0 ? "                     " : String.format(" (footprint %5.1f MB)", footprint / 1048576.0),
+                fillMs, ms[0] / RUNS, RANDOM_READS / 1_000_000, ms[1] / RUNS, ROOMS, ms[2] / RUNS);
+    }
+
+    /**
+     * Bytes allocated by this thread while {@code make} runs. Building and filling a grid creates
+     * no garbage beyond the chunked grid's maps growing, so this is about what the grid keeps on
+     * the heap (sampling used heap around a GC is too coarse for grids of a few hundred KB).
+     */
+    private static long allocatedBytes(Supplier<Object> make) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        make.get();
+        return threads.getThreadAllocatedBytes(id) - before;
+    }
+}
@@ -0,0 +1,132 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.utils.Array;
+import com.libgdxlearning.rooms.RoomPlacement;
+import com.libgdxlearning.rooms.RoomPlacementSystem;
+import com.libgdxlearning.rooms.RoomTemplate;
+import com.libgdxlearning.rooms.RoomType;
+import com.libgdxlearning.world.tiles.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Headless check of OccupancyTable against a brute-force cell scan, then timings.
+ *
+ * Correctness: on small dense grids whose sides are not multiples of the chunk size, runs random
+ * placeAt() calls, placeAll() batches, undo/redo and writes made behind the placer's back
+ * (single cells and whole chunks), and after every step compares random rectangles (1×1 up to
+ * several chunks across) from a standalone table, and canPlaceAt(), with a scan of the cells.
+ *
+ * Timing: placeAt() plus a hover query, and undo(), on dense grids from 512² to 8192², to show the
+ * cost does not grow with the grid.
+ *
+ * Usage: {@code ./gradlew core:runOccupancyCheck}
+ */
+public class OccupancyTableCheck {
+
+    private static final RoomType[] TYPES = RoomType.values();
+
+    public static void main(String[] args) {
+        long mismatches = 0, queries = 0;
+        int[][] sizes = { { 77, 53 }, { 130, 97 }, { 256, 256 }, { 33, 300 } };
+        for (int s = 0; s < sizes.length; s++) {
+            SplittableRandom rng = new SplittableRandom(100 + s);
+            Grid grid = new Grid(sizes[s][0], sizes[s][1]);
+            RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+            OccupancyTable table = new OccupancyTable(grid);
+            for (int step = 0; step < 1500; step++) {
+                mutate(grid, placer, rng);
+                for (int q = 0; q < 40; q++) {
+                    int w = 1 + rng.nextInt(Math.min(grid.width, q % 4 == 0 ? 100 : 14));
+                    int h = 1 + rng.nextInt(Math.min(grid.height, q % 4 == 0 ? 100 : 14));
+                    int x = rng.nextInt(grid.width - w + 1), y = rng.nextInt(grid.height - h + 1);
+                    boolean expected = bruteEmpty(grid, x, y, w, h);
+                    if (table.isEmpty(x, y, w, h) != expected) mismatches++;
+                    if (w >= 3 && h >= 3) {
+                        placer.activeTemplate = new RoomTemplate(RoomType.KITCHEN, w, h);
+                        if (placer.canPlaceAt(x, y) != expected) mismatches++;
+                    }
+                    queries++;
+                }
+            }
+            System.out.printf("%d×%d: %d rooms, %d of %d chunks with a table%n", grid.width, grid.height,
+                    placer.getRooms().liveCount(), table.tableCount(), grid.chunksX * grid.chunksY);
+        }
+        System.out.printf("Checked %d queries against brute force: %d mismatches%n", queries, mismatches);
+
+        for (int size : new int[]{ 512, 2048, 8192 }) time(size);
+
+        if (mismatches != 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /** One random edit: a placement, a batch, undo/redo, or writes the placer does not know about. */
+    private static void mutate(Grid grid, RoomPlacementSystem placer, SplittableRandom rng) {
+        int op = rng.nextInt(20);
+        if (op < 10) {
+            placer.activeTemplate = template(rng);
+            placer.placeAt(rng.nextInt(grid.width), rng.nextInt(grid.height));
+        } else if (op < 12) {
+            Array<RoomPlacement> batch = new Array<>();
+            for (int k = 0; k < 8; k++) batch.add(new RoomPlacement(template(rng), rng.nextInt(grid.width), rng.nextInt(grid.height)));
+            placer.placeAll(batch);
+        } else if (op < 15) {
+            placer.undo();
+        } else if (op < 17) {
+            placer.redo();
+        } else if (op < 19) {
+            for (int k = 0; k < 5; k++) { // external cell writes, sometimes clearing a cell
+                TileType t = rng.nextInt(3) == 0 ? TileType.EMPTY : TileType.FLOOR_WOOD;
+                grid.set(rng.nextInt(grid.width), rng.nextInt(grid.height), t, false);
+            }
+        } else {
+            int cx = rng.nextInt(grid.chunksX), cy = rng.nextInt(grid.chunksY);
+            byte[] cells = new byte[grid.chunkCells(cx, cy)]; // clear, or scatter a few walls
+            if (rng.nextBoolean()) for (int k = 0; k < 4; k++) cells[rng.nextInt(cells.length)] = (byte) (TileType.WALL_WOOD.ordinal() << 1 | 1);
+            grid.writeChunk(cx, cy, cells);
+        }
+    }
+
+    private static RoomTemplate template(SplittableRandom rng) {
+        return new RoomTemplate(TYPES[rng.nextInt(TYPES.length)], 3 + rng.nextInt(10), 3 + rng.nextInt(10));
+    }
+
+    private static boolean bruteEmpty(Grid grid, int x, int y, int w, int h) {
+        for (int gy = y; gy < y + h; gy++) {
+            for (int gx = x; gx < x + w; gx++) if (!grid.isFloorEmpty(gx, gy)) return false;
+        }
+        return true;
+    }
+
+    private static void time(int size) {
+        Grid grid = new Grid(size, size);
+        RoomPlacementSystem placer = new RoomPlacementSystem(grid);
+        SplittableRandom rng = new SplittableRandom(size);
+        placer.activeTemplate = new RoomTemplate(RoomType.TOILETS, 6, 5);
+        int ops = 20_000, placed = 0;
+        for (int i = 0; i < 2_000; i++) placer.placeAt(rng.nextInt(size - 6), rng.nextInt(size - 5)); // warm-up
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            int x = rng.nextInt(size - 6), y = rng.nextInt(size - 5);
+            if (placer.canPlaceAt(x, y)) {
+                placer.placeAt(x, y);
+                placer.canPlaceAt(x + 1, y); // the hover preview right after
+                placed++;
+            }
+        }
+        double placeUs = (System.nanoTime() - t0) / 1e3 / placed; // failed attempts are one query each
+
+        int undos = 2_000;
+        t0 = System.nanoTime();
+        for (int i = 0; i < undos; i++) {
+            placer.undo();
+            placer.canPlaceAt(rng.nextInt(size - 6), rng.nextInt(size - 5));
+        }
+        double undoUs = (System.nanoTime() - t0) / 1e3 / undos;
+        System.out.printf("%5d×%-5d dense: %.1f us per placement with its queries (%d of %d attempts placed), undo + query %.1f us%n",
+                size, size, placeUs, placed, ops, undoUs);
+    }
+}
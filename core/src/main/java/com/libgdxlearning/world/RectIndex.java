@@ -0,0 +1,177 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Static uniform-grid broadphase over a set of axis-aligned rectangles.
+ *
+ * Built once from an Array of rectangles; each rectangle is registered in every
+ * bucket it touches. Buckets are stored flat (start offsets + item indices) so a
+ * query only walks the few buckets under the query box and never allocates.
+ * Rebuild after the rectangle list changes.
+ */
+public class RectIndex {
+
+    private Array<Rectangle> rects = new Array<>();
+
+    private float cellSize = 1f;
+    private float originX, originY;
+    private int cols, rows;
+
+    /** Bucket b holds items[cellStart[b] .. cellStart[b + 1]). */
+    private int[] cellStart = new int[1];
+    private int[] cellItems = new int[0];
+
+    // Per-rectangle query stamp, used to report each rectangle once per query().
+    private int[] stamp = new int[0];
+    private int queryId;
+
+    /**
+     * Indexes the given rectangles using square buckets of {@code cellSize} world units
+     * (the map tile size is a good default). The Array is referenced, not copied.
+     */
+    public void build(Array<Rectangle> rects, float cellSize) {
+        this.rects    = rects;
+        this.cellSize = cellSize;
+
+        int n = rects.size;
+        if (n == 0) {
+            cols = rows = 0;
+            cellStart = new int[1];
+            cellItems = new int[0];
+            stamp     = new int[0];
+            return;
+        }
+
+        // Bounds of all rectangles
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            Rectangle r = rects.get(i);
+            minX = Math.min(minX, r.x);
+            minY = Math.min(minY, r.y);
+            maxX = Math.max(maxX, r.x + r.width);
+            maxY = Math.max(maxY, r.y + r.height);
+        }
+        originX = minX;
+        originY = minY;
+        cols = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+
+        // Pass 1: count entries per bucket
+        int[] counts = new int[cols * rows + 1];
+        for (int i = 0; i < n; i++) {
+            Rectangle r = rects.get(i);
+            int cx0 = col(r.x), cx1 = col(r.x + r.width);
+            int cy0 = row(r.y), cy1 = row(r.y + r.height);
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) counts[cy * cols + cx + 1]++;
+            }
+        }
+        for (int b = 1; b < counts.length; b++) counts[b] += counts[b - 1];
+        cellStart = counts;
+
+        // Pass 2: fill
+        cellItems = new int[cellStart[cellStart.length - 1]];
+        int[] fill = new int[cols * rows];
+        for (int i = 0; i < n; i++) {
+            Rectangle r = rects.get(i);
+            int cx0 = col(r.x), cx1 = col(r.x + r.width);
+            int cy0 = row(r.y), cy1 = row(r.y + r.height);
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    int b = cy * cols + cx;
+                    cellItems[cellStart[b] + fill[b]++] = i;
+                }
+            }
+        }
+
+        stamp   = new int[n];
+        queryId = 0;
+    }
+
+    /** Number of indexed rectangles. */
+    public int size() { return rects.size; }
+
+    /** Returns true if {@code box} overlaps any indexed rectangle. */
+    public boolean overlapsAny(Rectangle box) {
+        if (cols == 0 || outside(box)) return false;
+        int cx0 = col(box.x), cx1 = col(box.x + box.width);
+        int cy0 = row(box.y), cy1 = row(box.y + box.height);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int b = cy * cols + cx;
+                for (int k = cellStart[b], end = cellStart[b + 1]; k < end; k++) {
+                    if (box.overlaps(rects.get(cellItems[k]))) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends to {@code out} the index (into the built Array) of every rectangle overlapping
+     * {@code box}, each at most once. Returns the number of indices added.
+     */
+    public int query(Rectangle box, IntArray out) {
+        if (cols == 0 || outside(box)) return 0;
+        if (++queryId == 0) { // wrapped: reset stamps
+            Arrays.fill(stamp, 0);
+            queryId = 1;
+        }
+        int added = 0;
+        int cx0 = col(box.x), cx1 = col(box.x + box.width);
+        int cy0 = row(box.y), cy1 = row(box.y + box.height);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int b = cy * cols + cx;
+                for (int k = cellStart[b], end = cellStart[b + 1]; k < end; k++) {
+                    int i = cellItems[k];
+                    if (stamp[i] == queryId) continue;
+                    stamp[i] = queryId;
+                    if (box.overlaps(rects.get(i))) { out.add(i); added++; }
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Appends to {@code out} the index of every rectangle containing the point (edges
+     * inclusive, as Rectangle.contains). A point falls in one bucket, so no dedup is needed.
+     * Returns the number of indices added.
+     */
+    public int queryPoint(float x, float y, IntArray out) {
+        if (cols == 0) return 0;
+        if (x < originX || y < originY || x > originX + cols * cellSize || y > originY + rows * cellSize) return 0;
+        int b = row(y) * cols + col(x);
+        int added = 0;
+        for (int k = cellStart[b], end = cellStart[b + 1]; k < end; k++) {
+            int i = cellItems[k];
+            if (rects.get(i).contains(x, y)) { out.add(i); added++; }
+        }
+        return added;
+    }
+
+    /** Returns the indexed rectangle at {@code i} (as reported by query()). */
+    public Rectangle get(int i) { return rects.get(i); }
+
+    private boolean outside(Rectangle box) {
+        return box.x > originX + cols * cellSize || box.x + box.width  < originX
+            || box.y > originY + rows * cellSize || box.y + box.height < originY;
+    }
+
+    private int col(float x) {
+        int c = (int) Math.floor((x - originX) / cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) Math.floor((y - originY) / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,152 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Continuous (swept) AABB movement against static colliders, with sliding.
+ *
+ * Instead of applying a move and undoing it on overlap, the box is swept along the move: the
+ * earliest time of impact among the candidates is found, the box stops just short of the
+ * contact ({@link #SKIN}), the velocity component into the surface is dropped and the rest of
+ * the move continues along it. A move of any length therefore cannot tunnel through a thin
+ * wall, and the box ends flush against what it hits instead of stopping short.
+ *
+ * Candidates come from the RectIndex broadphase (rectangles overlapping the swept bounds) and
+ * from the blocked cells of a TileCollisionMap under the same bounds. Colliders the box
+ * already overlaps at the start of a move are ignored, so it can always move out of them.
+ */
+public class SweptMover {
+
+    /** Gap kept between the box and a surface after a hit, in world units. */
+    public static final float SKIN = 0.01f;
+
+    /** Contacts resolved per move (e.g. slide along a wall into a corner). */
+    private static final int MAX_ITERATIONS = 3;
+
+    private final RectIndex rects;
+    private final TileCollisionMap tiles;
+    private boolean useRects = true, useTiles;
+
+    // Scratch (one move at a time, no allocation)
+    private final IntArray candidates = new IntArray();
+    private final Rectangle bounds = new Rectangle();
+    private float hitTime, hitNormalX, hitNormalY;
+
+    /** @param tiles may be null */
+    public SweptMover(RectIndex rects, TileCollisionMap tiles) {
+        this.rects = rects;
+        this.tiles = tiles;
+        useTiles = tiles != null;
+    }
+
+    /** Chooses which collider sources are tested. */
+    public void setSources(boolean rectangles, boolean tileCells) {
+        useRects = rectangles;
+        useTiles = tileCells && tiles != null;
+    }
+
+    /**
+     * Moves {@code box} by (dx, dy), stopping at and sliding along colliders.
+     * Returns true if anything was hit.
+     */
+    public boolean move(Rectangle box, float dx, float dy) {
+        boolean hit = false;
+        for (int iter = 0; iter < MAX_ITERATIONS && (dx != 0 || dy != 0); iter++) {
+            if (!sweep(box, dx, dy)) {
+                box.x += dx;
+                box.y += dy;
+                return hit;
+            }
+            hit = true;
+
+            // Advance to the contact, then back off along the normal by SKIN.
+            box.x += dx * hitTime + hitNormalX * SKIN;
+            box.y += dy * hitTime + hitNormalY * SKIN;
+
+            // Slide: keep the remaining motion tangent to the surface.
+            float remaining = 1f - hitTime;
+            dx *= remaining;
+            dy *= remaining;
+            if (hitNormalX != 0) dx = 0;
+            if (hitNormalY != 0) dy = 0;
+        }
+        return hit;
+    }
+
+    /** Finds the earliest hit of box moving by (dx, dy); fills hitTime/hitNormal. */
+    private boolean sweep(Rectangle box, float dx, float dy) {
+        bounds.set(
+            Math.min(box.x, box.x + dx), Math.min(box.y, box.y + dy),
+            box.width + Math.abs(dx), box.height + Math.abs(dy));
+        hitTime = Float.MAX_VALUE;
+
+        if (useRects) {
+            candidates.clear();
+            rects.query(bounds, candidates);
+            for (int k = 0; k < candidates.size; k++) {
+                Rectangle r = rects.get(candidates.get(k));
+                sweepAgainst(box, dx, dy, r.x, r.y, r.width, r.height);
+            }
+        }
+
+        if (useTiles) {
+            float tw = tiles.tileWidth, th = tiles.tileHeight;
+            int x0 = Math.max(MathUtils.floor(bounds.x / tw), 0);
+            int y0 = Math.max(MathUtils.floor(bounds.y / th), 0);
+            int x1 = Math.min(MathUtils.floor((bounds.x + bounds.width)  / tw), tiles.width  - 1);
+            int y1 = Math.min(MathUtils.floor((bounds.y + bounds.height) / th), tiles.height - 1);
+            for (int cy = y0; cy <= y1; cy++) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    if (tiles.isBlocked(cx, cy)) sweepAgainst(box, dx, dy, cx * tw, cy * th, tw, th);
+                }
+            }
+        }
+        return hitTime <= 1f;
+    }
+
+    /**
+     * Slab test of the box's origin against the target expanded by the box size (Minkowski sum).
+     * Keeps the hit if it is earlier than the current one. Edge contact without overlap, as in
+     * Rectangle.overlaps, is not a hit.
+     */
+    private void sweepAgainst(Rectangle box, float dx, float dy, float rx, float ry, float rw, float rh) {
+        float minX = rx - box.width,  maxX = rx + rw;
+        float minY = ry - box.height, maxY = ry + rh;
+
+        float enterX, exitX, enterY, exitY;
+        if (dx == 0) {
+            if (box.x <= minX || box.x >= maxX) return;
+            enterX = Float.NEGATIVE_INFINITY;
+            exitX  = Float.POSITIVE_INFINITY;
+        } else {
+            float t0 = (minX - box.x) / dx, t1 = (maxX - box.x) / dx;
+            enterX = Math.min(t0, t1);
+            exitX  = Math.max(t0, t1);
+        }
+        if (dy == 0) {
+            if (box.y <= minY || box.y >= maxY) return;
+            enterY = Float.NEGATIVE_INFINITY;
+            exitY  = Float.POSITIVE_INFINITY;
+        } else {
+            float t0 = (minY - box.y) / dy, t1 = (maxY - box.y) / dy;
+            enterY = Math.min(t0, t1);
+            exitY  = Math.max(t0, t1);
+        }
+
+        float enter = Math.max(enterX, enterY);
+        float exit  = Math.min(exitX, exitY);
+        if (enter >= exit || enter < 0f || enter > 1f) return; // miss, already overlapping, or too far
+        if (enter >= hitTime) return;
+
+        hitTime = enter;
+        if (enterX >= enterY) {
+            hitNormalX = dx > 0 ? -1f : 1f;
+            hitNormalY = 0f;
+        } else {
+            hitNormalX = 0f;
+            hitNormalY = dy > 0 ? -1f : 1f;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.SplittableRandom;
+
+/**
+ * Headless check of SweptMover with seeded random movers.
+ *
+ *  1. Thin walls, 1 and 0.5 units thick (a px at zoom 1), crossed along x and along y: moves of
+ *     up to 3,000 units from up to 600 away, far longer than the wall, so a discrete move would
+ *     jump right over it.
+ *  2. Pairs of colliders sharing an edge, as tiles (TileCollisionMap) and as rectangles
+ *     (RectIndex): the mover lands on one, then slides across the seam onto the other.
+ *
+ * After every move: the mover must not have tunnelled to the far side, must not overlap the
+ * wall or pair, and must end flush-then-slide: {@link SweptMover#SKIN} short of the surface it
+ * hit (or exactly where it was sent, if the move stops short), with the whole tangential part
+ * of the move kept, i.e. no snagging on the seam.
+ *
+ * Usage: {@code ./gradlew core:runSweptMoverCheck}
+ */
+public class SweptMoverCheck {
+
+    private static final int MOVERS = 100_000;
+    private static final float TILE = 16f;
+    /** Position tolerance: well under SKIN, so "flush" and "touching" are told apart. */
+    private static final float EPS = SweptMover.SKIN / 4;
+
+    public static void main(String[] args) {
+        long failures = 0;
+        for (float thickness : new float[]{ 1f, 0.5f }) {
+            failures += wall(thickness, true,  new SplittableRandom(1));
+            failures += wall(thickness, false, new SplittableRandom(2));
+        }
+        for (boolean tiles : new boolean[]{ true, false }) {
+            failures += pair(tiles, true,  new SplittableRandom(3));
+            failures += pair(tiles, false, new SplittableRandom(4));
+        }
+        if (failures != 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+    }
+
+    /** A 24-unit box against a long wall across the approach axis (x if alongX, else y). */
+    private static long wall(float thickness, boolean alongX, SplittableRandom rng) {
+        float box = 24f, wallA = 1000f;
+        Array<Rectangle> rects = new Array<>();
+        rects.add(rect(alongX, wallA, 0f, thickness, 4000f));
+        SweptMover mover = new SweptMover(index(rects), null);
+        Rectangle wall = rects.get(0), r = new Rectangle();
+
+        int hits = 0;
+        long tunnelled = 0, overlapping = 0, notFlush = 0;
+        for (int i = 0; i < MOVERS; i++) {
+            boolean below = rng.nextBoolean(); // start on the low side, moving up the axis
+            float gap = 0.1f + (float) rng.nextDouble() * 600f;
+            float a0 = below ? wallA - box - gap : wallA + thickness + gap;
+            float da = (below ? 1 : -1) * (float) rng.nextDouble() * 3000f;
+            float s0 = 500f + (float) rng.nextDouble() * 3000f;
+            float ds = (float) (rng.nextDouble() * 600.0 - 300.0);
+
+            move(mover, r, alongX, a0, s0, box, da, ds);
+            float a = alongX ? r.x : r.y, s = alongX ? r.y : r.x;
+
+            boolean reaches = Math.abs(da) > gap;
+            if (reaches) hits++;
+            float expected = !reaches ? a0 + da : below ? wallA - box - SweptMover.SKIN : wallA + thickness + SweptMover.SKIN;
+            boolean farSide = a + box / 2 > wallA + thickness / 2;
+            if (farSide == below) tunnelled++;
+            if (r.overlaps(wall)) overlapping++;
+            if (Math.abs(a - expected) > EPS || Math.abs(s - (s0 + ds)) > EPS) notFlush++;
+        }
+        return report(String.format("%s-unit wall across %s", fmt(thickness), alongX ? "x" : "y"),
+                hits, tunnelled, overlapping, notFlush);
+    }
+
+    /**
+     * A 12-unit box landing on a 16×32 pair of colliders (two 16×16 tiles or rectangles sharing an
+     * edge) and sliding over the seam: it touches only the first one when it lands, then keeps
+     * sliding at least 20 units.
+     */
+    private static long pair(boolean tiles, boolean alongX, SplittableRandom rng) {
+        float box = 12f, pairA = 30 * TILE, pairS = 30 * TILE; // the pair spans [pairS, pairS + 2 * TILE] along the slide
+        SweptMover mover;
+        Array<Rectangle> rects = new Array<>();
+        rects.add(rect(alongX, pairA, pairS, TILE, TILE));
+        rects.add(rect(alongX, pairA, pairS + TILE, TILE, TILE));
+        if (tiles) {
+            TileCollisionMap map = new TileCollisionMap(64, 64, TILE, TILE);
+            for (Rectangle t : rects) map.set((int) (t.x / TILE), (int) (t.y / TILE));
+            mover = new SweptMover(index(new Array<>()), map);
+        } else {
+            mover = new SweptMover(index(rects), null);
+        }
+        Rectangle r = new Rectangle();
+
+        long tunnelled = 0, overlapping = 0, notFlush = 0;
+        for (int i = 0; i < MOVERS; i++) {
+            boolean below = rng.nextBoolean();
+            boolean forward = rng.nextBoolean(); // slide towards the second collider, or back towards the first
+            float gap = 0.1f + (float) rng.nextDouble() * 300f;
+            float reach = gap * 1.25f + 1f + (float) rng.nextDouble() * 300f;
+            float t = gap / reach; // fraction of the move at which the box lands, <= 0.8
+
+            // Where the box lands: overlapping the first collider along the slide, short of the seam.
+            float sLand = forward
+                ? pairS - box + 0.5f + (float) rng.nextDouble() * (box - 1f)
+                : pairS + 2 * TILE - 0.5f - (float) rng.nextDouble() * (box - 1f);
+            float slide = (forward ? 1 : -1) * (20f + (float) rng.nextDouble() * 300f);
+            float ds = slide / (1f - t);
+            float da = below ? reach : -reach;
+            float a0 = below ? pairA - box - gap : pairA + TILE + gap;
+            float s0 = sLand - ds * t;
+
+            move(mover, r, alongX, a0, s0, box, da, ds);
+            float a = alongX ? r.x : r.y, s = alongX ? r.y : r.x;
+
+            float expected = below ? pairA - box - SweptMover.SKIN : pairA + TILE + SweptMover.SKIN;
+            boolean farSide = a + box / 2 > pairA + TILE / 2;
+            if (farSide == below) tunnelled++;
+            if (r.overlaps(rects.get(0)) || r.overlaps(rects.get(1))) overlapping++;
+            if (Math.abs(a - expected) > EPS || Math.abs(s - (s0 + ds)) > EPS) notFlush++;
+        }
+        return report(String.format("%s pair across %s", tiles ? "Tile" : "Rectangle", alongX ? "x" : "y"),
+                MOVERS, tunnelled, overlapping, notFlush);
+    }
+
+    /** Places the box at (a, s) in approach/slide coordinates and moves it by (da, ds). */
+    private static void move(SweptMover mover, Rectangle r, boolean alongX, float a0, float s0, float box, float da, float ds) {
+        if (alongX) mover.move(r.set(a0, s0, box, box), da, ds);
+        else        mover.move(r.set(s0, a0, box, box), ds, da);
+    }
+
+    /** A rectangle given in approach/slide coordinates. */
+    private static Rectangle rect(boolean alongX, float a, float s, float aSize, float sSize) {
+        return alongX ? new Rectangle(a, s, aSize, sSize) : new Rectangle(s, a, sSize, aSize);
+    }
+
+    private static RectIndex index(Array<Rectangle> rects) {
+        RectIndex index = new RectIndex();
+        index.build(rects, 32f);
+        return index;
+    }
+
+    private static String fmt(float v) {
+        return v == (int) v ? Integer.toString((int) v) : Float.toString(v);
+    }
+
+    private static long report(String label, int hits, long tunnelled, long overlapping, long notFlush) {
+        System.out.printf("%-26s %d movers, %d hit it: %d tunnelled, %d overlapping at the end, %d not flush-then-slide%n",
+                label + ":", MOVERS, hits, tunnelled, overlapping, notFlush);
+        return tunnelled + overlapping + notFlush;
+    }
+}
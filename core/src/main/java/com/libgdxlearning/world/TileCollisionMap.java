@@ -0,0 +1,133 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.libgdxlearning.map.CompiledMap;
+
+/**
+ * One bit per map tile: set if the tile blocks movement. Built once when a map is loaded.
+ *
+ * A cell is blocked when any of the given blocking layers has a tile there, unless that tile
+ * has a {@code blocked=false} property; a tile with {@code blocked=true} blocks on any layer.
+ * An AABB test only reads the few cells under the box, so its cost does not depend on how many
+ * tiles or colliders the map has. Cells outside the map are never blocked.
+ */
+public class TileCollisionMap {
+
+    /** Tile property that overrides the per-layer rule. */
+    public static final String BLOCKED_PROPERTY = "blocked";
+
+    public final int width, height;        // tiles
+    public final float tileWidth, tileHeight;
+
+    /** Row-major bitset, bit (y * width + x); y = 0 is the bottom row as in TiledMapTileLayer. */
+    private final long[] bits;
+    private int blockedCount;
+
+    public TileCollisionMap(int width, int height, float tileWidth, float tileHeight) {
+        this.width      = width;
+        this.height     = height;
+        this.tileWidth  = tileWidth;
+        this.tileHeight = tileHeight;
+        bits = new long[(width * height + 63) >>> 6];
+    }
+
+    /** Builds the bitmap from a loaded map using the layer rule and tile properties above. */
+    public static TileCollisionMap fromLayers(TiledMap map, String... blockingLayers) {
+        MapProperties p = map.getProperties();
+        TileCollisionMap cm = new TileCollisionMap(
+            p.get("width", Integer.class), p.get("height", Integer.class),
+            p.get("tilewidth", Integer.class), p.get("tileheight", Integer.class));
+
+        for (MapLayer layer : map.getLayers()) {
+            if (!(layer instanceof TiledMapTileLayer)) continue;
+            TiledMapTileLayer tiles = (TiledMapTileLayer) layer;
+            boolean blockingLayer = contains(blockingLayers, layer.getName());
+            int w = Math.min(tiles.getWidth(),  cm.width);
+            int h = Math.min(tiles.getHeight(), cm.height);
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    TiledMapTileLayer.Cell cell = tiles.getCell(x, y);
+                    if (cell == null || cell.getTile() == null) continue;
+                    Boolean override = blockedProperty(cell.getTile());
+                    if (override != null ? override : blockingLayer) cm.set(x, y);
+                }
+            }
+        }
+        return cm;
+    }
+
+    /**
+     * Builds the bitmap straight from compiled map data (layer rule only, compiled maps carry no
+     * tile properties). Needs no textures, so it also works headless.
+     */
+    public static TileCollisionMap fromCompiled(CompiledMap map, String... blockingLayers) {
+        TileCollisionMap cm = new TileCollisionMap(map.width, map.height, map.tileWidth, map.tileHeight);
+        for (String name : blockingLayers) {
+            CompiledMap.Layer layer = map.getLayer(name);
+            if (layer == null) continue;
+            for (int row = 0; row < map.height; row++) {
+                for (int col = 0; col < map.width; col++) {
+                    // TMX rows run top-down
+                    if (layer.gids[row * map.width + col] != 0) cm.set(col, map.height - 1 - row);
+                }
+            }
+        }
+        return cm;
+    }
+
+    private static boolean contains(String[] names, String name) {
+        for (String n : names) if (n.equals(name)) return true;
+        return false;
+    }
+
+    private static Boolean blockedProperty(TiledMapTile tile) {
+        if (tile.getProperties() == null) return null;
+        Object v = tile.getProperties().get(BLOCKED_PROPERTY);
+        if (v == null) return null;
+        return v instanceof Boolean ? (Boolean) v : Boolean.valueOf(v.toString());
+    }
+
+    public void set(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return;
+        int i = y * width + x;
+        long mask = 1L << i;
+        if ((bits[i >>> 6] & mask) == 0) blockedCount++;
+        bits[i >>> 6] |= mask;
+    }
+
+    public boolean isBlocked(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int i = y * width + x;
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /** True if the box overlaps a blocked tile (touching edges do not count, as in Rectangle.overlaps). */
+    public boolean overlaps(float x, float y, float w, float h) {
+        int x0 = Math.max(MathUtils.floor(x / tileWidth), 0);
+        int y0 = Math.max(MathUtils.floor(y / tileHeight), 0);
+        int x1 = Math.min(MathUtils.ceil((x + w) / tileWidth)  - 1, width  - 1);
+        int y1 = Math.min(MathUtils.ceil((y + h) / tileHeight) - 1, height - 1);
+        for (int cy = y0; cy <= y1; cy++) {
+            int row = cy * width;
+            for (int cx = x0; cx <= x1; cx++) {
+                int i = row + cx;
+                if ((bits[i >>> 6] & (1L << i)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean overlaps(Rectangle r) {
+        return overlaps(r.x, r.y, r.width, r.height);
+    }
+
+    public int getBlockedCount() {
+        return blockedCount;
+    }
+}
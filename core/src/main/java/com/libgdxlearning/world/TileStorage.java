@@ -0,0 +1,58 @@
+package com.libgdxlearning.world;
+
+/**
+ * Backing store for Grid cells: a TileType ordinal and a blocked bit per cell.
+ * Callers (Grid) do the bounds checks; implementations assume valid coordinates.
+ */
+abstract class TileStorage {
+
+    final int width;
+    final int height;
+
+    TileStorage(int width, int height) {
+        this.width  = width;
+        this.height = height;
+    }
+
+    abstract byte type(int x, int y);
+
+    abstract boolean blocked(int x, int y);
+
+    abstract void set(int x, int y, byte type, boolean blocked);
+
+    /** True if every cell in [x, x+w) × [y, y+h) has type {@code empty}. */
+    boolean isRegionEmpty(int x, int y, int w, int h, byte empty) {
+        for (int gy = y; gy < y + h; gy++) {
+            for (int gx = x; gx < x + w; gx++) {
+                if (type(gx, gy) != empty) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Copies the cells of [x, x+w) × [y, y+h) into {@code out}, row-major, as type << 1 | blocked. */
+    void read(int x, int y, int w, int h, byte[] out) {
+        int i = 0;
+        for (int gy = y; gy < y + h; gy++) {
+            for (int gx = x; gx < x + w; gx++) out[i++] = (byte) (type(gx, gy) << 1 | (blocked(gx, gy) ? 1 : 0));
+        }
+    }
+
+    /** Overwrites the cells of [x, x+w) × [y, y+h) from {@code cells} packed as in {@link #read}. */
+    void write(int x, int y, int w, int h, byte[] cells) {
+        int i = 0;
+        for (int gy = y; gy < y + h; gy++) {
+            for (int gx = x; gx < x + w; gx++, i++) set(gx, gy, (byte) (cells[i] >> 1), (cells[i] & 1) != 0);
+        }
+    }
+
+    /** Frozen copy of [x, x+w) × [y, y+h); later writes must not change it. */
+    ChunkSnapshot snapshot(int x, int y, int w, int h) {
+        byte[] cells = new byte[w * h];
+        read(x, y, w, h, cells);
+        return new ChunkSnapshot(cells);
+    }
+
+    /** Approximate heap bytes used by the cell storage. */
+    abstract long footprintBytes();
+}
@@ -0,0 +1,168 @@
+package com.libgdxlearning.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Named zone rectangles (kitchen, toilets, public areas...) behind a RectIndex, with
+ * per-entity membership tracking.
+ *
+ * Point and box queries write zone indices into a caller-supplied IntArray and never allocate.
+ * Entities (NPCs, the player) are plain int ids: {@link #track} recomputes which zones an
+ * entity is in, fires enter/exit callbacks for the difference and keeps a per-zone occupancy
+ * count, so sim effects can read "how many people are in the kitchen" without scanning.
+ * Zones may overlap; an entity can be in several at once.
+ */
+public class ZoneIndex {
+
+    /** Called from track()/untrack(); must not call track() itself. */
+    public interface Listener {
+        void zoneEntered(int entity, int zone);
+        void zoneExited(int entity, int zone);
+    }
+
+    private final RectIndex index = new RectIndex();
+    private final Array<Rectangle> zones = new Array<>();
+    private final Array<String> names = new Array<>();
+
+    // Membership: entity e's zone bits are membership[e * words .. e * words + words)
+    private int words = 1;
+    private long[] membership = new long[0];
+    private long[] now = new long[1]; // scratch: zone bits of the entity being tracked
+    private int[] occupancy = new int[0];
+
+    private final IntArray hits = new IntArray();
+    private final Array<Listener> listeners = new Array<>();
+
+    /**
+     * Indexes the zones (copied) with their names, using buckets of {@code cellSize} world units.
+     * Resets all tracked entities without firing exit events.
+     */
+    public void build(Array<Rectangle> rects, Array<String> zoneNames, float cellSize) {
+        zones.clear();
+        names.clear();
+        for (int i = 0; i < rects.size; i++) {
+            zones.add(new Rectangle(rects.get(i)));
+            names.add(i < zoneNames.size ? zoneNames.get(i) : "");
+        }
+        index.build(zones, cellSize);
+
+        words      = Math.max(1, (zones.size + 63) >>> 6);
+        if (now.length < words) now = new long[words];
+        membership = new long[0];
+        occupancy  = new int[zones.size];
+    }
+
+    public int size() { return zones.size; }
+
+    public String getName(int zone)      { return names.get(zone); }
+    public Rectangle getBounds(int zone) { return zones.get(zone); }
+
+    /** Index of the zone with this name, or -1. */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.size; i++) if (names.get(i).equals(name)) return i;
+        return -1;
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /** Appends every zone containing the point to {@code out}; returns how many. */
+    public int query(float x, float y, IntArray out) {
+        return index.queryPoint(x, y, out);
+    }
+
+    /** Appends every zone overlapping the box to {@code out}; returns how many. */
+    public int query(Rectangle box, IntArray out) {
+        return index.query(box, out);
+    }
+
+    /** Lowest-index zone containing the point, or -1. */
+    public int zoneAt(float x, float y) {
+        hits.clear();
+        index.queryPoint(x, y, hits);
+        int best = -1;
+        for (int k = 0; k < hits.size; k++) {
+            int z = hits.get(k);
+            if (best < 0 || z < best) best = z;
+        }
+        return best;
+    }
+
+    // -------------------------------------------------------------------------
+    // Entity tracking
+    // -------------------------------------------------------------------------
+
+    public void addListener(Listener listener)    { listeners.add(listener); }
+    public void removeListener(Listener listener) { listeners.removeValue(listener, true); }
+
+    /** Updates the zones of {@code entity} (id ≥ 0) from its position; fires enter/exit events. */
+    public void track(int entity, float x, float y) {
+        hits.clear();
+        index.queryPoint(x, y, hits);
+        apply(entity);
+    }
+
+    /** Same as {@link #track(int, float, float)}, with zone membership by box overlap. */
+    public void track(int entity, Rectangle box) {
+        hits.clear();
+        index.query(box, hits);
+        apply(entity);
+    }
+
+    /** Removes an entity from all its zones, firing exit events. */
+    public void untrack(int entity) {
+        hits.clear();
+        apply(entity);
+    }
+
+    /** Number of tracked entities currently inside {@code zone}. */
+    public int getOccupancy(int zone) {
+        return occupancy[zone];
+    }
+
+    public boolean isInside(int entity, int zone) {
+        int base = entity * words;
+        if (base + words > membership.length) return false;
+        return (membership[base + (zone >>> 6)] & (1L << zone)) != 0;
+    }
+
+    private void apply(int entity) {
+        int base = entity * words;
+        if (base + words > membership.length) {
+            if (hits.size == 0) return; // never tracked and still in no zone
+            membership = Arrays.copyOf(membership, Math.max(base + words, membership.length * 2));
+        }
+
+        Arrays.fill(now, 0, words, 0L);
+        for (int k = 0; k < hits.size; k++) {
+            int z = hits.get(k);
+            now[z >>> 6] |= 1L << z;
+        }
+
+        for (int w = 0; w < words; w++) {
+            long before  = membership[base + w];
+            long after   = now[w];
+            long exited  = before & ~after;
+            long entered = after & ~before;
+            membership[base + w] = after;
+
+            while (exited != 0) {
+                int z = (w << 6) + Long.numberOfTrailingZeros(exited);
+                exited &= exited - 1;
+                occupancy[z]--;
+                for (int i = 0; i < listeners.size; i++) listeners.get(i).zoneExited(entity, z);
+            }
+            while (entered != 0) {
+                int z = (w << 6) + Long.numberOfTrailingZeros(entered);
+                entered &= entered - 1;
+                occupancy[z]++;
+                for (int i = 0; i < listeners.size; i++) listeners.get(i).zoneEntered(entity, z);
+            }
+        }
+    }
+}